@@ -0,0 +1,113 @@
+package com.nirmaan.cache;
+
+import com.nirmaan.repository.AttendanceRepository;
+import com.nirmaan.util.AttendanceColdStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-date bitmap of student ids whose attendance is already recorded. Bitmaps
+ * are seeded from the attendance table and archive on first use of a date and kept current
+ * by AttendanceService, so duplicate scans are rejected without a query.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AttendanceMarkIndex {
+
+	private final AttendanceRepository attendanceRepository;
+	private final AttendanceColdStore attendanceColdStore;
+
+	private final Map<LocalDate, BitSet> marksByDate = new ConcurrentHashMap<>();
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void seedOnStartup() {
+		bitmapFor(LocalDate.now());
+	}
+
+	@Scheduled(cron = "0 0 0 * * *")
+	public void rollover() {
+		LocalDate today = LocalDate.now();
+		marksByDate.keySet().removeIf(date -> date.isBefore(today));
+		bitmapFor(today);
+	}
+
+	public boolean isMarked(LocalDate date, Long studentId) {
+		BitSet bitmap = bitmapFor(date);
+		synchronized (bitmap) {
+			return bitmap.get(Math.toIntExact(studentId));
+		}
+	}
+
+	/**
+	 * Atomically flags the student for the date; returns false if already flagged.
+	 */
+	public boolean markIfAbsent(LocalDate date, Long studentId) {
+		BitSet bitmap = bitmapFor(date);
+		int index = Math.toIntExact(studentId);
+		synchronized (bitmap) {
+			if (bitmap.get(index)) {
+				return false;
+			}
+			bitmap.set(index);
+			return true;
+		}
+	}
+
+	/**
+	 * Clears the flag again if the surrounding transaction does not commit.
+	 */
+	public void unmarkOnRollback(LocalDate date, Long studentId) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				if (status != STATUS_COMMITTED) {
+					unmark(date, studentId);
+				}
+			}
+		});
+	}
+
+	public void unmark(LocalDate date, Long studentId) {
+		BitSet bitmap = marksByDate.get(date);
+		if (bitmap != null) {
+			synchronized (bitmap) {
+				bitmap.clear(Math.toIntExact(studentId));
+			}
+		}
+	}
+
+	public void invalidate(LocalDate date) {
+		marksByDate.remove(date);
+	}
+
+	private BitSet bitmapFor(LocalDate date) {
+		return marksByDate.computeIfAbsent(date, this::load);
+	}
+
+	private BitSet load(LocalDate date) {
+		BitSet bitmap = new BitSet();
+		for (Long studentId : attendanceRepository.findStudentIdsByAttendanceDate(date)) {
+			bitmap.set(Math.toIntExact(studentId));
+		}
+		for (Long studentId : attendanceColdStore.studentIdsOn(date)) {
+			bitmap.set(Math.toIntExact(studentId));
+		}
+		log.info("Seeded attendance mark index for {} with {} students", date, bitmap.cardinality());
+		return bitmap;
+	}
+}
@@ -0,0 +1,216 @@
+package com.nirmaan.cache;
+
+import com.nirmaan.enums.AttendanceStatus;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Student x day attendance matrix for one batch. Each cell is a 2-bit code
+ * packed 32 to a long: 00 no record, 01 present, 10 absent, 11 late. The low
+ * bit of a cell is therefore set exactly when the student attended, which
+ * lets counts be taken with masks and Long.bitCount.
+ */
+public class AttendanceMatrix {
+
+	private static final long LOW_BITS = 0x5555555555555555L;
+	private static final int DAYS_PER_WORD = 32;
+
+	private static final int NONE = 0;
+	private static final int PRESENT = 1;
+	private static final int ABSENT = 2;
+	private static final int LATE = 3;
+
+	private final long originEpochDay;
+	private final Map<Long, Integer> rowByStudent = new HashMap<>();
+	private long[][] rows = new long[0][];
+
+	public AttendanceMatrix(LocalDate origin) {
+		this.originEpochDay = origin.toEpochDay();
+	}
+
+	public LocalDate getOrigin() {
+		return LocalDate.ofEpochDay(originEpochDay);
+	}
+
+	public boolean covers(LocalDate date) {
+		return date.toEpochDay() >= originEpochDay;
+	}
+
+	public synchronized void addStudent(Long studentId) {
+		rowFor(studentId);
+	}
+
+	public synchronized void set(Long studentId, LocalDate date, AttendanceStatus status) {
+		int row = rowFor(studentId);
+		int day = dayIndex(date);
+		int word = day / DAYS_PER_WORD;
+		int shift = (day % DAYS_PER_WORD) * 2;
+
+		if (word >= rows[row].length) {
+			rows[row] = Arrays.copyOf(rows[row], Math.max(word + 1, rows[row].length * 2));
+		}
+		rows[row][word] = (rows[row][word] & ~(3L << shift)) | ((long) encode(status) << shift);
+	}
+
+	public synchronized AttendanceStatus get(Long studentId, LocalDate date) {
+		Integer row = rowByStudent.get(studentId);
+		int day = dayIndex(date);
+		if (row == null || day < 0 || day / DAYS_PER_WORD >= rows[row].length) {
+			return null;
+		}
+		int code = (int) (rows[row][day / DAYS_PER_WORD] >>> ((day % DAYS_PER_WORD) * 2)) & 3;
+		return decode(code);
+	}
+
+	public synchronized Counts count(Long studentId, LocalDate startDate, LocalDate endDate) {
+		Integer row = rowByStudent.get(studentId);
+		return row != null ? countRow(rows[row], startDate, endDate) : Counts.EMPTY;
+	}
+
+	public synchronized Counts countAll(LocalDate startDate, LocalDate endDate) {
+		Counts total = Counts.EMPTY;
+		for (long[] row : rows) {
+			total = total.plus(countRow(row, startDate, endDate));
+		}
+		return total;
+	}
+
+	public synchronized Map<Long, Counts> countByStudent(LocalDate startDate, LocalDate endDate) {
+		Map<Long, Counts> counts = new HashMap<>();
+		rowByStudent.forEach((studentId, row) -> counts.put(studentId, countRow(rows[row], startDate, endDate)));
+		return counts;
+	}
+
+	/**
+	 * Consecutive recorded days attended, counting back from asOf. Days without
+	 * a record (no session) neither extend nor break the streak.
+	 */
+	public synchronized int currentStreak(Long studentId, LocalDate asOf) {
+		Integer row = rowByStudent.get(studentId);
+		if (row == null) {
+			return 0;
+		}
+		long[] words = rows[row];
+		int streak = 0;
+		for (int day = Math.min(dayIndex(asOf), words.length * DAYS_PER_WORD - 1); day >= 0; day--) {
+			int code = code(words, day);
+			if (code == NONE) {
+				continue;
+			}
+			if (code == ABSENT) {
+				break;
+			}
+			streak++;
+		}
+		return streak;
+	}
+
+	public synchronized int longestStreak(Long studentId) {
+		Integer row = rowByStudent.get(studentId);
+		if (row == null) {
+			return 0;
+		}
+		long[] words = rows[row];
+		int longest = 0;
+		int streak = 0;
+		for (int day = 0; day < words.length * DAYS_PER_WORD; day++) {
+			int code = code(words, day);
+			if (code == ABSENT) {
+				streak = 0;
+			} else if (code != NONE) {
+				longest = Math.max(longest, ++streak);
+			}
+		}
+		return longest;
+	}
+
+	private Counts countRow(long[] words, LocalDate startDate, LocalDate endDate) {
+		int first = Math.max(dayIndex(startDate), 0);
+		int last = Math.min(dayIndex(endDate), words.length * DAYS_PER_WORD - 1);
+		int present = 0;
+		int absent = 0;
+		int late = 0;
+
+		for (int word = first / DAYS_PER_WORD; word <= last / DAYS_PER_WORD && first <= last; word++) {
+			long cells = words[word];
+			if (word == first / DAYS_PER_WORD) {
+				cells &= -1L << ((first % DAYS_PER_WORD) * 2);
+			}
+			if (word == last / DAYS_PER_WORD && last % DAYS_PER_WORD != DAYS_PER_WORD - 1) {
+				cells &= (1L << ((last % DAYS_PER_WORD + 1) * 2)) - 1;
+			}
+			long low = cells & LOW_BITS;
+			long high = (cells >>> 1) & LOW_BITS;
+			present += Long.bitCount(low & ~high);
+			absent += Long.bitCount(high & ~low);
+			late += Long.bitCount(low & high);
+		}
+		return new Counts(present, absent, late);
+	}
+
+	private int rowFor(Long studentId) {
+		Integer row = rowByStudent.get(studentId);
+		if (row == null) {
+			row = rows.length;
+			rows = Arrays.copyOf(rows, row + 1);
+			rows[row] = new long[1];
+			rowByStudent.put(studentId, row);
+		}
+		return row;
+	}
+
+	private int dayIndex(LocalDate date) {
+		return Math.toIntExact(date.toEpochDay() - originEpochDay);
+	}
+
+	private static int code(long[] words, int day) {
+		return (int) (words[day / DAYS_PER_WORD] >>> ((day % DAYS_PER_WORD) * 2)) & 3;
+	}
+
+	private static int encode(AttendanceStatus status) {
+		if (status == null) {
+			return NONE;
+		}
+		switch (status) {
+		case PRESENT:
+			return PRESENT;
+		case ABSENT:
+			return ABSENT;
+		default:
+			return LATE;
+		}
+	}
+
+	private static AttendanceStatus decode(int code) {
+		switch (code) {
+		case PRESENT:
+			return AttendanceStatus.PRESENT;
+		case ABSENT:
+			return AttendanceStatus.ABSENT;
+		case LATE:
+			return AttendanceStatus.LATE;
+		default:
+			return null;
+		}
+	}
+
+	public record Counts(int present, int absent, int late) {
+
+		public static final Counts EMPTY = new Counts(0, 0, 0);
+
+		public int total() {
+			return present + absent + late;
+		}
+
+		public double attendancePercentage() {
+			return total() > 0 ? (present + late) * 100.0 / total() : 0.0;
+		}
+
+		Counts plus(Counts other) {
+			return new Counts(present + other.present, absent + other.absent, late + other.late);
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package com.nirmaan.cache;
+
+import com.nirmaan.entity.Batch;
+import com.nirmaan.enums.AttendanceStatus;
+import com.nirmaan.exception.ResourceNotFoundException;
+import com.nirmaan.repository.AttendanceRepository;
+import com.nirmaan.repository.BatchRepository;
+import com.nirmaan.repository.StudentRepository;
+import com.nirmaan.util.AttendanceColdStore;
+import com.nirmaan.util.AttendanceSegment;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lazily built {@link AttendanceMatrix} per batch, kept current from attendance
+ * writes once the surrounding transaction commits.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AttendanceMatrixStore {
+
+	private final AttendanceRepository attendanceRepository;
+	private final StudentRepository studentRepository;
+	private final BatchRepository batchRepository;
+	private final AttendanceColdStore attendanceColdStore;
+
+	private final Map<Long, AttendanceMatrix> matrices = new ConcurrentHashMap<>();
+
+	public AttendanceMatrix forBatch(Long batchId) {
+		return matrices.computeIfAbsent(batchId, this::load);
+	}
+
+	public void record(Long batchId, Long studentId, LocalDate date, AttendanceStatus status) {
+		if (batchId == null) {
+			return;
+		}
+		// computeIfPresent waits for a load of the batch in progress, which may have read the rows before this
+		// commit, and then applies the change to the loaded matrix; setting a cell twice is harmless
+		afterCommit(() -> matrices.computeIfPresent(batchId, (id, matrix) -> {
+			if (!matrix.covers(date)) {
+				return null;
+			}
+			matrix.set(studentId, date, status);
+			return matrix;
+		}));
+	}
+
+	public void remove(Long batchId, Long studentId, LocalDate date) {
+		record(batchId, studentId, date, null);
+	}
+
+	public void invalidate(Long batchId) {
+		matrices.remove(batchId);
+	}
+
+	private AttendanceMatrix load(Long batchId) {
+		Batch batch = batchRepository.findById(batchId)
+				.orElseThrow(() -> new ResourceNotFoundException("Batch not found"));
+		List<AttendanceRepository.AttendanceCell> cells = attendanceRepository.findCellsByBatchId(batchId);
+		List<AttendanceSegment.Row> archived = new ArrayList<>();
+		attendanceColdStore.forBatch(batchId).ifPresent(segment -> segment.forEachRow(archived::add));
+
+		LocalDate origin = batch.getStartDate() != null ? batch.getStartDate() : LocalDate.now();
+		for (AttendanceRepository.AttendanceCell cell : cells) {
+			if (cell.getAttendanceDate().isBefore(origin)) {
+				origin = cell.getAttendanceDate();
+			}
+		}
+		for (AttendanceSegment.Row row : archived) {
+			if (row.attendanceDate().isBefore(origin)) {
+				origin = row.attendanceDate();
+			}
+		}
+
+		AttendanceMatrix matrix = new AttendanceMatrix(origin);
+		studentRepository.findIdsByBatchId(batchId).forEach(matrix::addStudent);
+		for (AttendanceSegment.Row row : archived) {
+			matrix.set(row.studentId(), row.attendanceDate(), row.status());
+		}
+		for (AttendanceRepository.AttendanceCell cell : cells) {
+			matrix.set(cell.getStudentId(), cell.getAttendanceDate(), cell.getStatus());
+		}
+		log.info("Built attendance matrix for batch {} from {} records and {} archived", batchId, cells.size(),
+				archived.size());
+		return matrix;
+	}
+
+	private void afterCommit(Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+}
@@ -0,0 +1,63 @@
+package com.nirmaan.cache;
+
+import com.nirmaan.entity.QRCode;
+import com.nirmaan.repository.QRCodeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-through cache of the active QR code per (batchId, date), so the
+ * trainer's QR screen costs a map lookup regardless of how many days the batch
+ * has run. Misses are not cached; a code generated later is found on the next
+ * lookup. Past dates are dropped at midnight.
+ */
+@Component
+@RequiredArgsConstructor
+public class QRCodeDayCache {
+
+	private final QRCodeRepository qrCodeRepository;
+
+	private final Map<Key, QRCode> codes = new ConcurrentHashMap<>();
+
+	public Optional<QRCode> lookup(Long batchId, LocalDate date) {
+		Key key = new Key(batchId, date);
+		QRCode qrCode = codes.get(key);
+		if (qrCode != null) {
+			return Optional.of(qrCode);
+		}
+
+		Optional<QRCode> loaded = qrCodeRepository
+				.findFirstByBatchIdAndValidDateAndActiveTrueOrderByGeneratedAtDesc(batchId, date);
+		loaded.ifPresent(this::put);
+		return loaded;
+	}
+
+	public void put(QRCode qrCode) {
+		if (qrCode.isActive() && qrCode.getBatch() != null) {
+			codes.put(new Key(qrCode.getBatch().getId(), qrCode.getValidDate()), qrCode);
+		}
+	}
+
+	public void evict(Long batchId, LocalDate date) {
+		codes.remove(new Key(batchId, date));
+	}
+
+	@Scheduled(cron = "0 0 0 * * *")
+	public void dropPastDates() {
+		LocalDate today = LocalDate.now();
+		codes.keySet().removeIf(key -> key.date().isBefore(today));
+	}
+
+	public int size() {
+		return codes.size();
+	}
+
+	private record Key(Long batchId, LocalDate date) {
+	}
+}
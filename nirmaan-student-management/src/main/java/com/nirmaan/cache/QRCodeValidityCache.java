@@ -0,0 +1,111 @@
+package com.nirmaan.cache;
+
+import com.nirmaan.entity.QRCode;
+import com.nirmaan.repository.QRCodeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-through cache of QR code validity keyed by qrCodeId. Entries carry the
+ * code's expiresAt, so a scan can be validated without a database round trip.
+ * Also holds the deactivated signed tokens, which are otherwise verified
+ * without touching the database, until they expire.
+ */
+@Component
+@RequiredArgsConstructor
+public class QRCodeValidityCache {
+
+	private final QRCodeRepository qrCodeRepository;
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+	private final Map<String, LocalDateTime> revoked = new ConcurrentHashMap<>();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	public Optional<Entry> lookup(String qrCodeId) {
+		Entry entry = entries.get(qrCodeId);
+		if (entry != null) {
+			hits.increment();
+			return Optional.of(entry);
+		}
+
+		misses.increment();
+		return qrCodeRepository.findByQrCodeId(qrCodeId).map(this::put);
+	}
+
+	public Entry put(QRCode qrCode) {
+		Long batchId = qrCode.getBatch() != null ? qrCode.getBatch().getId() : null;
+		Entry entry = new Entry(batchId, qrCode.getExpiresAt(), qrCode.isActive());
+		entries.put(qrCode.getQrCodeId(), entry);
+		return entry;
+	}
+
+	public void evict(String qrCodeId) {
+		if (entries.remove(qrCodeId) != null) {
+			evictions.increment();
+		}
+	}
+
+	public void revoke(String qrCodeId, LocalDateTime expiresAt) {
+		if (expiresAt != null && expiresAt.isAfter(LocalDateTime.now())) {
+			revoked.put(qrCodeId, expiresAt);
+		}
+	}
+
+	public boolean isRevoked(String qrCodeId) {
+		return revoked.containsKey(qrCodeId);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void loadRevoked() {
+		for (QRCode qrCode : qrCodeRepository.findByActiveFalseAndExpiresAtAfter(LocalDateTime.now())) {
+			revoke(qrCode.getQrCodeId(), qrCode.getExpiresAt());
+		}
+	}
+
+	@Scheduled(fixedDelay = 60000)
+	public void evictExpired() {
+		LocalDateTime now = LocalDateTime.now();
+		revoked.values().removeIf(expiresAt -> !now.isBefore(expiresAt));
+		entries.entrySet().removeIf(e -> {
+			boolean expired = !e.getValue().isValidAt(now);
+			if (expired) {
+				evictions.increment();
+			}
+			return expired;
+		});
+	}
+
+	public Map<String, Object> getStats() {
+		long hitCount = hits.sum();
+		long missCount = misses.sum();
+		long total = hitCount + missCount;
+
+		Map<String, Object> stats = new HashMap<>();
+		stats.put("size", entries.size());
+		stats.put("hits", hitCount);
+		stats.put("misses", missCount);
+		stats.put("evictions", evictions.sum());
+		stats.put("revoked", revoked.size());
+		stats.put("hitRate", total > 0 ? (double) hitCount / total : 0.0);
+		return stats;
+	}
+
+	public record Entry(Long batchId, LocalDateTime expiresAt, boolean active) {
+
+		public boolean isValidAt(LocalDateTime time) {
+			return active && expiresAt != null && time.isBefore(expiresAt);
+		}
+	}
+}
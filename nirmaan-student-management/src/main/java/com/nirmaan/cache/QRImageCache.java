@@ -0,0 +1,112 @@
+package com.nirmaan.cache;
+
+import com.nirmaan.enums.QRImageFormat;
+import com.nirmaan.enums.QRImageSize;
+import com.nirmaan.util.QRCodeGenerator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU of rendered QR images keyed by data, size and format, so a code
+ * is rendered once and projector polling only copies bytes. Each image
+ * carries a strong ETag derived from its content.
+ */
+@Component
+@RequiredArgsConstructor
+public class QRImageCache {
+
+	private final QRCodeGenerator qrCodeGenerator;
+
+	@Value("${app.qr.image.cache-size:512}")
+	private int maxEntries;
+
+	private final Map<String, Image> images = new LinkedHashMap<>(64, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Image> eldest) {
+			if (size() > maxEntries) {
+				evictions.increment();
+				return true;
+			}
+			return false;
+		}
+	};
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder renders = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	public Image get(String data) {
+		return get(data, QRImageSize.PHONE, QRImageFormat.PNG);
+	}
+
+	public Image get(String data, QRImageSize size, QRImageFormat format) {
+		synchronized (images) {
+			Image image = images.get(keyOf(data, size, format));
+			if (image != null) {
+				hits.increment();
+				return image;
+			}
+		}
+		return render(data, size, format);
+	}
+
+	/**
+	 * Renders outside the lock; two threads racing on the same data both
+	 * render and the later one simply replaces an identical entry.
+	 */
+	public Image render(String data, QRImageSize size, QRImageFormat format) {
+		byte[] bytes;
+		try {
+			bytes = format == QRImageFormat.SVG
+					? qrCodeGenerator.generateQRCodeSvg(data).getBytes(StandardCharsets.UTF_8)
+					: qrCodeGenerator.generateQRCodePng(data, size.getPixels());
+		} catch (Exception e) {
+			throw new IllegalStateException("Error generating QR code image: " + e.getMessage(), e);
+		}
+		renders.increment();
+
+		Image image = new Image(bytes, format.getContentType(), etagOf(bytes));
+		synchronized (images) {
+			images.put(keyOf(data, size, format), image);
+		}
+		return image;
+	}
+
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new HashMap<>();
+		synchronized (images) {
+			stats.put("size", images.size());
+		}
+		stats.put("maxSize", maxEntries);
+		stats.put("hits", hits.sum());
+		stats.put("renders", renders.sum());
+		stats.put("evictions", evictions.sum());
+		return stats;
+	}
+
+	private String keyOf(String data, QRImageSize size, QRImageFormat format) {
+		// SVG is resolution independent, one entry serves every size
+		return format == QRImageFormat.SVG ? data + "|svg" : data + "|" + size.getPixels();
+	}
+
+	private String etagOf(byte[] bytes) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+			return "\"" + HexFormat.of().formatHex(digest, 0, 12) + "\"";
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	public record Image(byte[] bytes, String contentType, String etag) {
+	}
+}
@@ -0,0 +1,150 @@
+package com.nirmaan.cache;
+
+import com.nirmaan.entity.StudentQuizAttempt;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary form of a quiz attempt's answers. Version 1 is a version
+ * byte, the question layout hash of the {@link QuizSnapshot} the answers were
+ * given against, then one nibble per question in snapshot order (high nibble
+ * first): 0 for unanswered, 1-4 for A-D. The question ids behind a layout
+ * hash are kept by {@link QuizLayoutStore}, so answers stay readable after the
+ * quiz's questions change. Attempts recorded before answer codes kept a map's
+ * text form, e.g. {@code {101=A, 102=C}}, which is still read.
+ */
+public final class QuizAnswerCodec {
+
+	public static final byte VERSION = 1;
+
+	private static final int HEADER_BYTES = 5;
+
+	private QuizAnswerCodec() {
+	}
+
+	public static byte[] encode(QuizSnapshot snapshot, Map<Long, String> answers) {
+		byte[] codes = newCodes(snapshot);
+		for (Map.Entry<Long, String> answer : answers.entrySet()) {
+			int position = snapshot.positionOf(answer.getKey());
+			if (position >= 0) {
+				setOption(codes, position, QuizSnapshot.encode(answer.getValue()));
+			}
+		}
+		return codes;
+	}
+
+	/**
+	 * Encodes answers listed in question id order, {@code null} for a skipped
+	 * question.
+	 */
+	public static byte[] encode(QuizSnapshot snapshot, List<String> answers) {
+		if (answers.size() != snapshot.getQuestionCount()) {
+			throw new IllegalArgumentException(
+					"Expected " + snapshot.getQuestionCount() + " answers but got " + answers.size());
+		}
+		byte[] codes = newCodes(snapshot);
+		for (int position = 0; position < answers.size(); position++) {
+			setOption(codes, position, QuizSnapshot.encode(answers.get(position)));
+		}
+		return codes;
+	}
+
+	/**
+	 * Whether the codes were written against the snapshot's current question
+	 * layout, so that positions still refer to the same questions.
+	 */
+	public static boolean matches(byte[] codes, QuizSnapshot snapshot) {
+		return codes != null && codes.length == HEADER_BYTES + (snapshot.getQuestionCount() + 1) / 2
+				&& codes[0] == VERSION && ByteBuffer.wrap(codes, 1, 4).getInt() == snapshot.getLayoutHash();
+	}
+
+	/**
+	 * Option code 0-3 given at a position, or {@link QuizSnapshot#NO_ANSWER}.
+	 */
+	public static byte optionAt(byte[] codes, int position) {
+		int packed = codes[HEADER_BYTES + position / 2];
+		int nibble = (position & 1) == 0 ? (packed >> 4) & 0x0F : packed & 0x0F;
+		return nibble == 0 ? QuizSnapshot.NO_ANSWER : (byte) (nibble - 1);
+	}
+
+	/**
+	 * Layout hash the codes were written against.
+	 */
+	public static int layoutHash(byte[] codes) {
+		if (codes.length < HEADER_BYTES || codes[0] != VERSION) {
+			throw new IllegalArgumentException("Unsupported answer code version");
+		}
+		return ByteBuffer.wrap(codes, 1, 4).getInt();
+	}
+
+	public static Map<Long, String> decode(byte[] codes, QuizSnapshot snapshot) {
+		return decode(codes, snapshot.getQuestionIds());
+	}
+
+	/**
+	 * Decodes codes against the question ids of the layout they were written
+	 * with, which need not be the quiz's current questions.
+	 */
+	public static Map<Long, String> decode(byte[] codes, long[] questionIds) {
+		if (layoutHash(codes) != Arrays.hashCode(questionIds)
+				|| codes.length != HEADER_BYTES + (questionIds.length + 1) / 2) {
+			throw new IllegalArgumentException("Answers were recorded against a different question set");
+		}
+		Map<Long, String> answers = new LinkedHashMap<>();
+		for (int position = 0; position < questionIds.length; position++) {
+			byte option = optionAt(codes, position);
+			if (option != QuizSnapshot.NO_ANSWER) {
+				answers.put(questionIds[position], String.valueOf((char) ('A' + option)));
+			}
+		}
+		return answers;
+	}
+
+	/**
+	 * Answers of an attempt in either storage format; empty when neither is
+	 * present.
+	 */
+	public static Map<Long, String> decode(StudentQuizAttempt attempt, QuizSnapshot snapshot) {
+		if (attempt.getAnswerCodes() != null) {
+			return decode(attempt.getAnswerCodes(), snapshot);
+		}
+		return attempt.getAnswers() != null ? decodeLegacy(attempt.getAnswers()) : Map.of();
+	}
+
+	public static Map<Long, String> decodeLegacy(String text) {
+		Map<Long, String> answers = new LinkedHashMap<>();
+		String body = text.trim();
+		if (body.startsWith("{") && body.endsWith("}")) {
+			body = body.substring(1, body.length() - 1);
+		}
+		for (String pair : body.split(",")) {
+			int separator = pair.indexOf('=');
+			if (separator < 0) {
+				continue;
+			}
+			String answer = pair.substring(separator + 1).trim();
+			if (!"null".equals(answer)) {
+				answers.put(Long.valueOf(pair.substring(0, separator).trim()), answer);
+			}
+		}
+		return answers;
+	}
+
+	private static byte[] newCodes(QuizSnapshot snapshot) {
+		byte[] codes = new byte[HEADER_BYTES + (snapshot.getQuestionCount() + 1) / 2];
+		codes[0] = VERSION;
+		ByteBuffer.wrap(codes, 1, 4).putInt(snapshot.getLayoutHash());
+		return codes;
+	}
+
+	private static void setOption(byte[] codes, int position, byte option) {
+		int nibble = option == QuizSnapshot.NO_ANSWER ? 0 : option + 1;
+		int index = HEADER_BYTES + position / 2;
+		codes[index] = (byte) ((position & 1) == 0 ? (codes[index] & 0x0F) | (nibble << 4)
+				: (codes[index] & 0xF0) | nibble);
+	}
+}
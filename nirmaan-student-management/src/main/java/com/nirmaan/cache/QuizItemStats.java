@@ -0,0 +1,213 @@
+package com.nirmaan.cache;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Running item statistics of one quiz, updated one scored attempt at a time.
+ * Score figures cover every attempt; per-question figures cover the attempts
+ * whose answer codes match the layout of the snapshot the stats were started
+ * against ({@link #getKeyHash()}), with the number of correct answers under
+ * that answer key as the total score for point-biserial discrimination.
+ * The ids of the attempts taken in are kept, sorted, so an attempt is
+ * counted once however late or out of id order it arrives.
+ * Not thread-safe; callers synchronize on the instance.
+ */
+public final class QuizItemStats {
+
+	public static final int HISTOGRAM_BUCKETS = 10;
+
+	private static final int VERSION = 2;
+	private static final int CHOICES = 5; // unanswered, A-D
+	private static final String[] CHOICE_NAMES = { "unanswered", "A", "B", "C", "D" };
+
+	private final int keyHash;
+	private final int questionCount;
+	private long[] attemptIds = new long[16];
+
+	private int attempts;
+	private long scoreSum;
+	private int minScore = Integer.MAX_VALUE;
+	private int maxScore = Integer.MIN_VALUE;
+	private final long[] histogram = new long[HISTOGRAM_BUCKETS];
+
+	private long itemAttempts;
+	private long totalSum;
+	private long totalSquareSum;
+	private final long[] correct;
+	private final long[] correctTotalSum;
+	private final long[] choices;
+
+	public QuizItemStats(int keyHash, int questionCount) {
+		this.keyHash = keyHash;
+		this.questionCount = questionCount;
+		this.correct = new long[questionCount];
+		this.correctTotalSum = new long[questionCount];
+		this.choices = new long[questionCount * CHOICES];
+	}
+
+	/**
+	 * Adds one attempt. {@code codes} may be {@code null}, or written against
+	 * another layout, in which case only the score figures take it in.
+	 * Returns {@code false}, changing nothing, when the attempt was already
+	 * taken in.
+	 */
+	public boolean add(long attemptId, byte[] codes, QuizSnapshot snapshot, int score) {
+		int index = Arrays.binarySearch(attemptIds, 0, attempts, attemptId);
+		if (index >= 0) {
+			return false;
+		}
+		index = -index - 1;
+		if (attempts == attemptIds.length) {
+			attemptIds = Arrays.copyOf(attemptIds, attempts * 2);
+		}
+		System.arraycopy(attemptIds, index, attemptIds, index + 1, attempts - index);
+		attemptIds[index] = attemptId;
+		attempts++;
+		scoreSum += score;
+		minScore = Math.min(minScore, score);
+		maxScore = Math.max(maxScore, score);
+		histogram[Math.max(0, Math.min(score * HISTOGRAM_BUCKETS / 100, HISTOGRAM_BUCKETS - 1))]++;
+
+		if (snapshot.getKeyHash() != keyHash || !QuizAnswerCodec.matches(codes, snapshot)) {
+			return true;
+		}
+		int correctAnswers = snapshot.score(codes).correctAnswers();
+		itemAttempts++;
+		totalSum += correctAnswers;
+		totalSquareSum += (long) correctAnswers * correctAnswers;
+		for (int position = 0; position < questionCount; position++) {
+			byte given = QuizAnswerCodec.optionAt(codes, position);
+			choices[position * CHOICES + given + 1]++;
+			if (given != QuizSnapshot.NO_ANSWER && snapshot.isCorrect(position, given)) {
+				correct[position]++;
+				correctTotalSum[position] += correctAnswers;
+			}
+		}
+		return true;
+	}
+
+	public int getKeyHash() {
+		return keyHash;
+	}
+
+	public boolean contains(long attemptId) {
+		return Arrays.binarySearch(attemptIds, 0, attempts, attemptId) >= 0;
+	}
+
+	public long getAttempts() {
+		return attempts;
+	}
+
+	public Map<String, Object> toMap(QuizSnapshot snapshot) {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("totalAttempts", (long) attempts);
+		map.put("averageScore", attempts > 0 ? (double) scoreSum / attempts : 0.0);
+		map.put("highestScore", attempts > 0 ? maxScore : 0);
+		map.put("lowestScore", attempts > 0 ? minScore : 0);
+
+		List<Map<String, Object>> buckets = new ArrayList<>(HISTOGRAM_BUCKETS);
+		for (int bucket = 0; bucket < HISTOGRAM_BUCKETS; bucket++) {
+			Map<String, Object> range = new LinkedHashMap<>();
+			int from = bucket * 100 / HISTOGRAM_BUCKETS;
+			range.put("range", from + "-" + (bucket == HISTOGRAM_BUCKETS - 1 ? 100 : from + 100 / HISTOGRAM_BUCKETS - 1));
+			range.put("count", histogram[bucket]);
+			buckets.add(range);
+		}
+		map.put("scoreDistribution", buckets);
+
+		double mean = itemAttempts > 0 ? (double) totalSum / itemAttempts : 0;
+		double deviation = itemAttempts > 0 ? Math.sqrt(Math.max(0, (double) totalSquareSum / itemAttempts - mean * mean)) : 0;
+		List<Map<String, Object>> questions = new ArrayList<>(questionCount);
+		for (int position = 0; position < questionCount; position++) {
+			Map<String, Object> question = new LinkedHashMap<>();
+			question.put("questionId", snapshot.questionIdAt(position));
+			question.put("correctRate", itemAttempts > 0 ? (double) correct[position] / itemAttempts : 0.0);
+			Map<String, Long> distribution = new LinkedHashMap<>();
+			for (int choice = 0; choice < CHOICES; choice++) {
+				distribution.put(CHOICE_NAMES[choice], choices[position * CHOICES + choice]);
+			}
+			question.put("choices", distribution);
+			question.put("discrimination", discrimination(position, mean, deviation));
+			questions.add(question);
+		}
+		map.put("itemAttempts", itemAttempts);
+		map.put("questions", questions);
+		return map;
+	}
+
+	/**
+	 * Point-biserial correlation between answering the question correctly
+	 * and the total score; {@code null} while it is undefined.
+	 */
+	private Double discrimination(int position, double mean, double deviation) {
+		long right = correct[position];
+		long wrong = itemAttempts - right;
+		if (right == 0 || wrong == 0 || deviation == 0) {
+			return null;
+		}
+		double rightMean = (double) correctTotalSum[position] / right;
+		double wrongMean = (double) (totalSum - correctTotalSum[position]) / wrong;
+		double p = (double) right / itemAttempts;
+		return (rightMean - wrongMean) / deviation * Math.sqrt(p * (1 - p));
+	}
+
+	public byte[] toBytes() {
+		ByteBuffer buffer = ByteBuffer.allocate(4 * 6 + 8 * (4 + HISTOGRAM_BUCKETS + attempts)
+				+ 8 * questionCount * (2 + CHOICES));
+		buffer.putInt(VERSION).putInt(keyHash).putInt(questionCount).putInt(attempts);
+		for (int i = 0; i < attempts; i++) {
+			buffer.putLong(attemptIds[i]);
+		}
+		buffer.putLong(scoreSum).putInt(minScore).putInt(maxScore);
+		for (long count : histogram) {
+			buffer.putLong(count);
+		}
+		buffer.putLong(itemAttempts).putLong(totalSum).putLong(totalSquareSum);
+		for (int position = 0; position < questionCount; position++) {
+			buffer.putLong(correct[position]).putLong(correctTotalSum[position]);
+			for (int choice = 0; choice < CHOICES; choice++) {
+				buffer.putLong(choices[position * CHOICES + choice]);
+			}
+		}
+		return buffer.array();
+	}
+
+	/**
+	 * Reads stats written by {@link #toBytes()}; {@code null} for an unknown
+	 * version.
+	 */
+	public static QuizItemStats fromBytes(byte[] bytes) {
+		ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		if (buffer.getInt() != VERSION) {
+			return null;
+		}
+		QuizItemStats stats = new QuizItemStats(buffer.getInt(), buffer.getInt());
+		stats.attempts = buffer.getInt();
+		stats.attemptIds = new long[Math.max(16, stats.attempts)];
+		for (int i = 0; i < stats.attempts; i++) {
+			stats.attemptIds[i] = buffer.getLong();
+		}
+		stats.scoreSum = buffer.getLong();
+		stats.minScore = buffer.getInt();
+		stats.maxScore = buffer.getInt();
+		for (int bucket = 0; bucket < HISTOGRAM_BUCKETS; bucket++) {
+			stats.histogram[bucket] = buffer.getLong();
+		}
+		stats.itemAttempts = buffer.getLong();
+		stats.totalSum = buffer.getLong();
+		stats.totalSquareSum = buffer.getLong();
+		for (int position = 0; position < stats.questionCount; position++) {
+			stats.correct[position] = buffer.getLong();
+			stats.correctTotalSum[position] = buffer.getLong();
+			for (int choice = 0; choice < CHOICES; choice++) {
+				stats.choices[position * CHOICES + choice] = buffer.getLong();
+			}
+		}
+		return stats;
+	}
+}
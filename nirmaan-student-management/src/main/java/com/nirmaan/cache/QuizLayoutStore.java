@@ -0,0 +1,98 @@
+package com.nirmaan.cache;
+
+import com.nirmaan.entity.QuizQuestionLayout;
+import com.nirmaan.repository.QuizQuestionLayoutRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Question ids of every layout answer codes were written against, keyed by
+ * quiz and layout hash, so an attempt can still be decoded after questions
+ * are added or removed. A layout is stored once, when the first attempt
+ * scored against it is saved, and never changes afterwards.
+ */
+@Component
+@Slf4j
+public class QuizLayoutStore {
+
+	private final QuizQuestionLayoutRepository quizQuestionLayoutRepository;
+	private final TransactionTemplate newTransaction;
+
+	private final Map<Key, long[]> layouts = new ConcurrentHashMap<>();
+
+	public QuizLayoutStore(QuizQuestionLayoutRepository quizQuestionLayoutRepository,
+			PlatformTransactionManager transactionManager) {
+		this.quizQuestionLayoutRepository = quizQuestionLayoutRepository;
+		this.newTransaction = new TransactionTemplate(transactionManager);
+		this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+	}
+
+	/**
+	 * Stores the snapshot's layout unless it is already known. Runs in its own
+	 * transaction, so a layout another node stored first does not fail the
+	 * caller's.
+	 */
+	public void register(QuizSnapshot snapshot) {
+		Key key = new Key(snapshot.getQuizId(), snapshot.getLayoutHash());
+		if (layouts.containsKey(key)) {
+			return;
+		}
+		long[] questionIds = snapshot.getQuestionIds();
+		try {
+			newTransaction.executeWithoutResult(status -> {
+				if (quizQuestionLayoutRepository.findByQuizIdAndLayoutHash(key.quizId(), key.layoutHash()).isEmpty()) {
+					quizQuestionLayoutRepository.saveAndFlush(new QuizQuestionLayout(null, key.quizId(),
+							key.layoutHash(), Arrays.stream(questionIds).mapToObj(String::valueOf)
+									.collect(Collectors.joining(","))));
+				}
+			});
+		} catch (DataIntegrityViolationException e) {
+			log.debug("Layout {} of quiz {} was stored concurrently", key.layoutHash(), key.quizId());
+		}
+		layouts.put(key, questionIds);
+	}
+
+	public Optional<long[]> questionIds(Long quizId, int layoutHash) {
+		Key key = new Key(quizId, layoutHash);
+		long[] questionIds = layouts.get(key);
+		if (questionIds != null) {
+			return Optional.of(questionIds);
+		}
+		Optional<long[]> loaded = quizQuestionLayoutRepository.findByQuizIdAndLayoutHash(quizId, layoutHash)
+				.map(layout -> parse(layout.getQuestionIds()));
+		loaded.ifPresent(ids -> layouts.put(key, ids));
+		return loaded;
+	}
+
+	/**
+	 * Answers behind codes of the quiz, decoded against the layout they were
+	 * written with; empty when that layout was never stored.
+	 */
+	public Optional<Map<Long, String>> decode(Long quizId, byte[] codes) {
+		try {
+			return questionIds(quizId, QuizAnswerCodec.layoutHash(codes))
+					.map(questionIds -> QuizAnswerCodec.decode(codes, questionIds));
+		} catch (IllegalArgumentException e) {
+			log.warn("Unreadable answer codes for quiz {}: {}", quizId, e.getMessage());
+			return Optional.empty();
+		}
+	}
+
+	private long[] parse(String questionIds) {
+		return questionIds.isEmpty() ? new long[0]
+				: Arrays.stream(questionIds.split(",")).mapToLong(Long::parseLong).toArray();
+	}
+
+	private record Key(Long quizId, int layoutHash) {
+	}
+}
@@ -0,0 +1,142 @@
+package com.nirmaan.cache;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Ranking of one quiz's attempts by score, then by earlier submission, then
+ * by student id. Scores are percentages, so a Fenwick tree over the 101
+ * possible scores counts everyone with a higher score and a per-score bucket
+ * sorted by submission time ranks within a score: both are logarithmic.
+ * Submissions mostly arrive in time order, so bucket inserts are appends.
+ */
+public final class QuizLeaderboard {
+
+	private static final int MAX_SCORE = 100;
+
+	private final long[] tree = new long[MAX_SCORE + 2];
+	private final Bucket[] buckets = new Bucket[MAX_SCORE + 1];
+	private final Map<Long, Entry> entries = new HashMap<>();
+
+	/**
+	 * Adds a student's attempt; a student already on the board keeps their
+	 * place.
+	 */
+	public synchronized boolean add(long studentId, int score, LocalDateTime submittedAt) {
+		if (entries.containsKey(studentId)) {
+			return false;
+		}
+		int clamped = Math.max(0, Math.min(score, MAX_SCORE));
+		long time = submittedAt != null ? submittedAt.toInstant(ZoneOffset.UTC).toEpochMilli() : Long.MAX_VALUE;
+		entries.put(studentId, new Entry(clamped, time));
+		if (buckets[clamped] == null) {
+			buckets[clamped] = new Bucket();
+		}
+		buckets[clamped].insert(time, studentId);
+		for (int i = clamped + 1; i < tree.length; i += i & -i) {
+			tree[i]++;
+		}
+		return true;
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public synchronized Optional<Standing> standingOf(long studentId) {
+		Entry entry = entries.get(studentId);
+		if (entry == null) {
+			return Optional.empty();
+		}
+		int above = entries.size() - atOrBelow(entry.score());
+		int rank = above + buckets[entry.score()].indexOf(entry.time(), studentId) + 1;
+		return Optional.of(new Standing(rank, studentId, entry.score(), toDateTime(entry.time())));
+	}
+
+	public synchronized List<Standing> top(int limit) {
+		List<Standing> top = new ArrayList<>(Math.min(limit, entries.size()));
+		for (int score = MAX_SCORE; score >= 0 && top.size() < limit; score--) {
+			Bucket bucket = buckets[score];
+			for (int i = 0; bucket != null && i < bucket.size && top.size() < limit; i++) {
+				top.add(new Standing(top.size() + 1, bucket.students[i], score, toDateTime(bucket.times[i])));
+			}
+		}
+		return top;
+	}
+
+	private int atOrBelow(int score) {
+		long count = 0;
+		for (int i = score + 1; i > 0; i -= i & -i) {
+			count += tree[i];
+		}
+		return (int) count;
+	}
+
+	private static LocalDateTime toDateTime(long time) {
+		return time != Long.MAX_VALUE ? LocalDateTime.ofEpochSecond(Math.floorDiv(time, 1000),
+				(int) Math.floorMod(time, 1000) * 1_000_000, ZoneOffset.UTC) : null;
+	}
+
+	public record Standing(int rank, long studentId, int score, LocalDateTime submittedAt) {
+	}
+
+	private record Entry(int score, long time) {
+	}
+
+	/**
+	 * Students of one score in (time, student id) order, as parallel arrays.
+	 */
+	private static final class Bucket {
+		private long[] times = new long[8];
+		private long[] students = new long[8];
+		private int size;
+
+		private void insert(long time, long studentId) {
+			int position = size;
+			if (size > 0 && compare(size - 1, time, studentId) > 0) {
+				position = -search(time, studentId) - 1;
+			}
+			if (size == times.length) {
+				times = Arrays.copyOf(times, size * 2);
+				students = Arrays.copyOf(students, size * 2);
+			}
+			System.arraycopy(times, position, times, position + 1, size - position);
+			System.arraycopy(students, position, students, position + 1, size - position);
+			times[position] = time;
+			students[position] = studentId;
+			size++;
+		}
+
+		private int indexOf(long time, long studentId) {
+			return search(time, studentId);
+		}
+
+		private int search(long time, long studentId) {
+			int lo = 0;
+			int hi = size - 1;
+			while (lo <= hi) {
+				int mid = (lo + hi) >>> 1;
+				int cmp = compare(mid, time, studentId);
+				if (cmp < 0) {
+					lo = mid + 1;
+				} else if (cmp > 0) {
+					hi = mid - 1;
+				} else {
+					return mid;
+				}
+			}
+			return -(lo + 1);
+		}
+
+		private int compare(int index, long time, long studentId) {
+			int cmp = Long.compare(times[index], time);
+			return cmp != 0 ? cmp : Long.compare(students[index], studentId);
+		}
+	}
+}
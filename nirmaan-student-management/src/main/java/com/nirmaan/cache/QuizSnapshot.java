@@ -0,0 +1,141 @@
+package com.nirmaan.cache;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable scoring view of one quiz: question ids sorted ascending with the
+ * answer key and marks in parallel arrays. Answers are stored as option codes
+ * 0-3 for A-D; a question whose key is not one of those never scores.
+ */
+public final class QuizSnapshot {
+
+	public static final byte NO_ANSWER = -1;
+
+	private final long quizId;
+	private final long[] questionIds;
+	private final byte[] answerKey;
+	private final int[] marks;
+	private final int totalMarks;
+	private final int layoutHash;
+	private final int keyHash;
+
+	public QuizSnapshot(long quizId, long[] questionIds, byte[] answerKey, int[] marks) {
+		this.quizId = quizId;
+		this.questionIds = questionIds;
+		this.answerKey = answerKey;
+		this.marks = marks;
+		this.totalMarks = Arrays.stream(marks).sum();
+		this.layoutHash = Arrays.hashCode(questionIds);
+		this.keyHash = 31 * layoutHash + Arrays.hashCode(answerKey);
+	}
+
+	/**
+	 * Builds a snapshot from keys in ascending question id order.
+	 */
+	public static QuizSnapshot of(long quizId, List<Key> keys) {
+		long[] questionIds = new long[keys.size()];
+		byte[] answerKey = new byte[keys.size()];
+		int[] marks = new int[keys.size()];
+		for (int i = 0; i < keys.size(); i++) {
+			Key key = keys.get(i);
+			questionIds[i] = key.questionId();
+			answerKey[i] = encode(key.correctAnswer());
+			marks[i] = key.marks() != null ? key.marks() : 1;
+		}
+		return new QuizSnapshot(quizId, questionIds, answerKey, marks);
+	}
+
+	public static byte encode(String answer) {
+		if (answer == null || answer.length() != 1) {
+			return NO_ANSWER;
+		}
+		char option = answer.charAt(0);
+		return option >= 'A' && option <= 'D' ? (byte) (option - 'A') : NO_ANSWER;
+	}
+
+	public long getQuizId() {
+		return quizId;
+	}
+
+	public int getQuestionCount() {
+		return questionIds.length;
+	}
+
+	public int getTotalMarks() {
+		return totalMarks;
+	}
+
+	/**
+	 * Changes whenever a question is added or removed, i.e. whenever answer
+	 * positions would refer to different questions.
+	 */
+	public int getLayoutHash() {
+		return layoutHash;
+	}
+
+	/**
+	 * Like {@link #getLayoutHash()}, but also changes when a correct answer
+	 * does.
+	 */
+	public int getKeyHash() {
+		return keyHash;
+	}
+
+	public long[] getQuestionIds() {
+		return questionIds.clone();
+	}
+
+	public long questionIdAt(int position) {
+		return questionIds[position];
+	}
+
+	public boolean isCorrect(int position, byte option) {
+		return option != NO_ANSWER && answerKey[position] == option;
+	}
+
+	public int positionOf(Long questionId) {
+		return questionId == null ? -1 : Arrays.binarySearch(questionIds, questionId);
+	}
+
+	public Score score(Map<Long, String> answers) {
+		int correct = 0;
+		int earnedMarks = 0;
+		for (Map.Entry<Long, String> answer : answers.entrySet()) {
+			int position = positionOf(answer.getKey());
+			if (position < 0) {
+				continue;
+			}
+			byte given = encode(answer.getValue());
+			if (given != NO_ANSWER && given == answerKey[position]) {
+				correct++;
+				earnedMarks += marks[position];
+			}
+		}
+		return new Score(correct, earnedMarks);
+	}
+
+	/**
+	 * Scores answer codes written against this snapshot's layout; see
+	 * {@link QuizAnswerCodec#matches}.
+	 */
+	public Score score(byte[] codes) {
+		int correct = 0;
+		int earnedMarks = 0;
+		for (int position = 0; position < questionIds.length; position++) {
+			byte given = QuizAnswerCodec.optionAt(codes, position);
+			if (given != NO_ANSWER && given == answerKey[position]) {
+				correct++;
+				earnedMarks += marks[position];
+			}
+		}
+		return new Score(correct, earnedMarks);
+	}
+
+	public record Key(long questionId, String correctAnswer, Integer marks) {
+	}
+
+	public record Score(int correctAnswers, int earnedMarks) {
+	}
+}
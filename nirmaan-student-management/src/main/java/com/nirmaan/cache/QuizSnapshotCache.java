@@ -0,0 +1,68 @@
+package com.nirmaan.cache;
+
+import com.nirmaan.repository.QuestionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Compiled {@link QuizSnapshot} per quiz, built from the answer-key columns
+ * only on first use. Question and quiz edits invalidate the entry both right
+ * away and again after commit, so a snapshot loaded while the edit was in
+ * flight does not survive it.
+ */
+@Component
+@RequiredArgsConstructor
+public class QuizSnapshotCache {
+
+	private final QuestionRepository questionRepository;
+
+	private final Map<Long, QuizSnapshot> snapshots = new ConcurrentHashMap<>();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder loads = new LongAdder();
+
+	public QuizSnapshot forQuiz(Long quizId) {
+		QuizSnapshot snapshot = snapshots.get(quizId);
+		if (snapshot != null) {
+			hits.increment();
+			return snapshot;
+		}
+		return snapshots.computeIfAbsent(quizId, this::load);
+	}
+
+	public void invalidate(Long quizId) {
+		snapshots.remove(quizId);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					snapshots.remove(quizId);
+				}
+			});
+		}
+	}
+
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new HashMap<>();
+		stats.put("size", snapshots.size());
+		stats.put("hits", hits.sum());
+		stats.put("loads", loads.sum());
+		return stats;
+	}
+
+	private QuizSnapshot load(Long quizId) {
+		loads.increment();
+		List<QuizSnapshot.Key> keys = questionRepository.findAnswerKeysByQuizId(quizId).stream()
+				.map(key -> new QuizSnapshot.Key(key.getId(), key.getCorrectAnswer(), key.getMarks()))
+				.collect(Collectors.toList());
+		return QuizSnapshot.of(quizId, keys);
+	}
+}
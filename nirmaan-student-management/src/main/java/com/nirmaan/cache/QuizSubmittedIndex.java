@@ -0,0 +1,69 @@
+package com.nirmaan.cache;
+
+import com.nirmaan.repository.StudentQuizAttemptRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-quiz bitmap of the students who have a saved attempt, indexed by
+ * student id, so repeated submissions are turned away without a query. A
+ * quiz's bitmap is read once from the attempts table and then kept current
+ * by the submission writer; the unique key on (student_id, quiz_id) remains
+ * the final guard.
+ */
+@Component
+@RequiredArgsConstructor
+public class QuizSubmittedIndex {
+
+	private final StudentQuizAttemptRepository studentQuizAttemptRepository;
+
+	private final Map<Long, BitSet> submitted = new ConcurrentHashMap<>();
+
+	public boolean isSubmitted(Long quizId, Long studentId) {
+		if (studentId > Integer.MAX_VALUE) {
+			return studentQuizAttemptRepository.existsByStudentIdAndQuizId(studentId, quizId);
+		}
+		BitSet students = submitted.computeIfAbsent(quizId, this::load);
+		synchronized (students) {
+			return students.get(studentId.intValue());
+		}
+	}
+
+	/**
+	 * Records a committed attempt. A bitmap loading concurrently either
+	 * reads the attempt itself or is published before this runs.
+	 */
+	public void markSubmitted(Long quizId, Long studentId) {
+		if (studentId > Integer.MAX_VALUE) {
+			return;
+		}
+		submitted.computeIfPresent(quizId, (id, students) -> {
+			synchronized (students) {
+				students.set(studentId.intValue());
+			}
+			return students;
+		});
+	}
+
+	public void forget(Long quizId) {
+		submitted.remove(quizId);
+	}
+
+	public int size() {
+		return submitted.size();
+	}
+
+	private BitSet load(Long quizId) {
+		BitSet students = new BitSet();
+		for (Long studentId : studentQuizAttemptRepository.findStudentIdsByQuizId(quizId)) {
+			if (studentId <= Integer.MAX_VALUE) {
+				students.set(studentId.intValue());
+			}
+		}
+		return students;
+	}
+}
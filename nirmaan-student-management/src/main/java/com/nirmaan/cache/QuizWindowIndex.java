@@ -0,0 +1,165 @@
+package com.nirmaan.cache;
+
+import com.nirmaan.dto.QuizSummaryDto;
+import com.nirmaan.repository.QuizRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interval index over the open windows of active quizzes, answering "which
+ * quizzes are open now" without a query. Summaries are kept per quiz id and
+ * compiled into an immutable interval tree that is swapped in whole whenever
+ * a quiz is created, edited, activated, deactivated or deleted.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QuizWindowIndex {
+
+	private final QuizRepository quizRepository;
+
+	private final Map<Long, QuizSummaryDto> summaries = new ConcurrentHashMap<>();
+	private volatile IntervalTree tree = new IntervalTree(List.of());
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(fixedDelay = 600000, initialDelay = 600000) // Picks up batch and trainer renames
+	public synchronized void reload() {
+		summaries.clear();
+		for (QuizSummaryDto summary : quizRepository.findActiveSummaries()) {
+			summaries.put(summary.getId(), summary);
+		}
+		tree = new IntervalTree(summaries.values());
+		log.info("Indexed open windows of {} active quizzes", summaries.size());
+	}
+
+	public List<QuizSummaryDto> openAt(LocalDateTime time) {
+		return tree.stabbing(time, null, false);
+	}
+
+	/**
+	 * Open quizzes of the given batch, plus quizzes open to every batch.
+	 */
+	public List<QuizSummaryDto> openAt(LocalDateTime time, Long batchId) {
+		return tree.stabbing(time, batchId, true);
+	}
+
+	public Optional<QuizSummaryDto> find(Long quizId) {
+		return Optional.ofNullable(summaries.get(quizId));
+	}
+
+	public int size() {
+		return summaries.size();
+	}
+
+	/**
+	 * Re-reads one quiz once the surrounding transaction commits; inactive or
+	 * deleted quizzes drop out of the index.
+	 */
+	public void refresh(Long quizId) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			reindex(quizId);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				reindex(quizId);
+			}
+		});
+	}
+
+	private synchronized void reindex(Long quizId) {
+		QuizSummaryDto summary = quizRepository.findActiveSummaryById(quizId).orElse(null);
+		if (summary != null) {
+			summaries.put(quizId, summary);
+		} else {
+			summaries.remove(quizId);
+		}
+		tree = new IntervalTree(summaries.values());
+	}
+
+	/**
+	 * Windows sorted by start and laid out as an implicit balanced tree: the
+	 * node of range [lo, hi) is its midpoint and carries the latest end in its
+	 * subtree, so a stabbing query skips every subtree that closed already and
+	 * every right subtree that has not opened yet.
+	 */
+	private static final class IntervalTree {
+		private final QuizSummaryDto[] quizzes;
+		private final long[] starts;
+		private final long[] ends;
+		private final long[] maxEnds;
+
+		private IntervalTree(Collection<QuizSummaryDto> summaries) {
+			List<QuizSummaryDto> sorted = new ArrayList<>(summaries);
+			sorted.sort(Comparator
+					.comparingLong((QuizSummaryDto quiz) -> epochSecond(quiz.getStartTime(), Long.MIN_VALUE))
+					.thenComparing(QuizSummaryDto::getId));
+			quizzes = sorted.toArray(new QuizSummaryDto[0]);
+			starts = new long[quizzes.length];
+			ends = new long[quizzes.length];
+			maxEnds = new long[quizzes.length];
+			for (int i = 0; i < quizzes.length; i++) {
+				starts[i] = epochSecond(quizzes[i].getStartTime(), Long.MIN_VALUE);
+				ends[i] = epochSecond(quizzes[i].getEndTime(), Long.MAX_VALUE);
+			}
+			buildMaxEnds(0, quizzes.length);
+		}
+
+		private List<QuizSummaryDto> stabbing(LocalDateTime time, Long batchId, boolean byBatch) {
+			List<QuizSummaryDto> open = new ArrayList<>();
+			collect(0, quizzes.length, time.toEpochSecond(ZoneOffset.UTC), batchId, byBatch, open);
+			return open;
+		}
+
+		private long buildMaxEnds(int lo, int hi) {
+			if (lo >= hi) {
+				return Long.MIN_VALUE;
+			}
+			int mid = (lo + hi) >>> 1;
+			maxEnds[mid] = Math.max(ends[mid], Math.max(buildMaxEnds(lo, mid), buildMaxEnds(mid + 1, hi)));
+			return maxEnds[mid];
+		}
+
+		private void collect(int lo, int hi, long time, Long batchId, boolean byBatch, List<QuizSummaryDto> open) {
+			if (lo >= hi) {
+				return;
+			}
+			int mid = (lo + hi) >>> 1;
+			if (maxEnds[mid] <= time) {
+				return;
+			}
+			collect(lo, mid, time, batchId, byBatch, open);
+			if (starts[mid] >= time) {
+				return;
+			}
+			QuizSummaryDto quiz = quizzes[mid];
+			boolean forBatch = !byBatch || quiz.getBatchId() == null || Objects.equals(quiz.getBatchId(), batchId);
+			if (ends[mid] > time && forBatch) {
+				open.add(quiz);
+			}
+			collect(mid + 1, hi, time, batchId, byBatch, open);
+		}
+
+		private static long epochSecond(LocalDateTime time, long unbounded) {
+			return time != null ? time.toEpochSecond(ZoneOffset.UTC) : unbounded;
+		}
+	}
+}
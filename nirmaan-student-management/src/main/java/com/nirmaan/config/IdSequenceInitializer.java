@@ -0,0 +1,41 @@
+package com.nirmaan.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Moves the pooled id sequence tables past ids that were assigned by
+ * AUTO_INCREMENT before their entities switched to sequences, so batched
+ * inserts never collide with existing rows.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class IdSequenceInitializer {
+
+	private static final int ALLOCATION_SIZE = 50;
+
+	private static final Map<String, String> SEQUENCE_TABLES = Map.of(
+			"attendance_seq", "attendance",
+			"qr_codes_seq", "qr_codes",
+			"questions_seq", "questions",
+			"student_quiz_attempts_seq", "student_quiz_attempts");
+
+	private final JdbcTemplate jdbcTemplate;
+
+	@PostConstruct
+	public void alignWithExistingRows() {
+		SEQUENCE_TABLES.forEach((sequence, table) -> {
+			int updated = jdbcTemplate.update("UPDATE " + sequence + " SET next_val = GREATEST(next_val, "
+					+ "(SELECT COALESCE(MAX(id), 0) + ? + 1 FROM " + table + "))", ALLOCATION_SIZE);
+			log.info("Id sequence {} aligned ({} row updated)", sequence, updated);
+		});
+	}
+}
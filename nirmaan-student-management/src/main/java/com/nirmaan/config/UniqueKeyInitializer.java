@@ -0,0 +1,121 @@
+package com.nirmaan.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Makes sure the unique keys exist on databases created before them. Schema
+ * update adds a key quietly and gives up when duplicate rows remain, so a
+ * key that is still missing afterwards is added here when the data allows;
+ * otherwise startup fails with a report of the duplicates. Rows are never
+ * deleted: which copy is the right one is for an operator to decide.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class UniqueKeyInitializer {
+
+	private static final int REPORTED_GROUPS = 20;
+
+	private static final List<UniqueKey> UNIQUE_KEYS = List.of(
+			// insertIfAbsent relies on this key for ON DUPLICATE KEY idempotency
+			new UniqueKey("uk_attendance_student_date", "attendance", List.of("student_id", "attendance_date")),
+			new UniqueKey("uk_attempt_student_quiz", "student_quiz_attempts", List.of("student_id", "quiz_id")),
+			new UniqueKey("uk_qr_codes_batch_active_date", "qr_codes", List.of("batch_id", "active_date")));
+
+	// Replaced by uk_qr_codes_batch_active_date, which leaves deactivated codes out
+	private static final String OBSOLETE_QR_KEY = "uk_qr_codes_batch_date";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	@PostConstruct
+	public void ensureUniqueKeys() {
+		if (isPresent("qr_codes", OBSOLETE_QR_KEY)) {
+			jdbcTemplate.execute("ALTER TABLE qr_codes DROP INDEX " + OBSOLETE_QR_KEY);
+			log.info("Dropped unique key {}", OBSOLETE_QR_KEY);
+		}
+		backfillQRCodeActiveDates();
+		UNIQUE_KEYS.forEach(this::ensure);
+	}
+
+	/**
+	 * Codes created before active_date existed are still active for today or
+	 * later; giving them their active date keeps a second code from being
+	 * created beside them.
+	 */
+	private void backfillQRCodeActiveDates() {
+		try {
+			int updated = jdbcTemplate.update("UPDATE qr_codes SET active_date = valid_date WHERE active = true "
+					+ "AND active_date IS NULL AND valid_date >= CURRENT_DATE");
+			if (updated > 0) {
+				log.info("Set the active date of {} QR codes", updated);
+			}
+		} catch (DataIntegrityViolationException e) {
+			throw new IllegalStateException("Cannot backfill qr_codes.active_date, some batches have more than one "
+					+ "active code for a day:" + duplicates("qr_codes", List.of("batch_id", "valid_date"),
+							"active = true AND valid_date >= CURRENT_DATE")
+					+ "\nDeactivate the extra codes and restart.", e);
+		}
+	}
+
+	private void ensure(UniqueKey key) {
+		if (isPresent(key.table(), key.name())) {
+			return;
+		}
+		String where = key.columns().stream().map(column -> column + " IS NOT NULL")
+				.collect(Collectors.joining(" AND "));
+		String report = duplicates(key.table(), key.columns(), where);
+		if (!report.isEmpty()) {
+			throw new IllegalStateException("Cannot add unique key " + key.name() + " to " + key.table() + " ("
+					+ String.join(", ", key.columns()) + "), duplicate rows exist:" + report
+					+ "\nResolve the duplicates and restart.");
+		}
+		jdbcTemplate.execute("ALTER TABLE " + key.table() + " ADD CONSTRAINT " + key.name() + " UNIQUE ("
+				+ String.join(", ", key.columns()) + ")");
+		log.info("Added unique key {} to {}", key.name(), key.table());
+	}
+
+	private boolean isPresent(String table, String name) {
+		Integer present = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.table_constraints "
+				+ "WHERE table_schema = DATABASE() AND table_name = ? AND constraint_name = ?", Integer.class,
+				table, name);
+		return present != null && present > 0;
+	}
+
+	/**
+	 * One line per group of rows sharing the columns, with their ids; empty
+	 * when there are none.
+	 */
+	private String duplicates(String table, List<String> columns, String where) {
+		String grouped = String.join(", ", columns);
+		List<Map<String, Object>> groups = jdbcTemplate.queryForList("SELECT " + grouped
+				+ ", GROUP_CONCAT(id ORDER BY id) AS ids FROM " + table + " WHERE " + where + " GROUP BY " + grouped
+				+ " HAVING COUNT(*) > 1 LIMIT " + (REPORTED_GROUPS + 1));
+
+		StringBuilder report = new StringBuilder();
+		for (Map<String, Object> group : groups.subList(0, Math.min(REPORTED_GROUPS, groups.size()))) {
+			report.append("\n  ");
+			for (String column : columns) {
+				report.append(column).append('=').append(group.get(column)).append(' ');
+			}
+			report.append("ids [").append(group.get("ids")).append(']');
+		}
+		if (groups.size() > REPORTED_GROUPS) {
+			report.append("\n  ... and more");
+		}
+		return report.toString();
+	}
+
+	private record UniqueKey(String name, String table, List<String> columns) {
+	}
+}
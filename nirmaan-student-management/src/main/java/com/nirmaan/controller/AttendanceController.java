@@ -1,30 +1,55 @@
 package com.nirmaan.controller;
 
 import com.nirmaan.dto.ApiResponse;
+import com.nirmaan.dto.AttendanceArchiveReport;
 import com.nirmaan.dto.AttendanceDto;
+import com.nirmaan.dto.AttendanceMarkResponse;
+import com.nirmaan.dto.BulkMarkResponse;
+import com.nirmaan.dto.CursorPage;
 import com.nirmaan.enums.AttendanceStatus;
+import com.nirmaan.enums.ExportFormat;
 import com.nirmaan.security.UserPrincipal;
+import com.nirmaan.service.AttendanceArchiveService;
+import com.nirmaan.service.AttendanceExportService;
 import com.nirmaan.service.AttendanceService;
+import com.nirmaan.service.AttendanceWriteBehindService;
 import com.nirmaan.service.StudentService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 @RestController
 @RequestMapping("/api/attendance")
 @RequiredArgsConstructor
 public class AttendanceController {
 
+    private static final String EXPORT_TIMEOUT_KEY = AttendanceController.class.getName() + ".exportTimeout";
+
     private final AttendanceService attendanceService;
     private final StudentService studentService;
+    private final AttendanceWriteBehindService attendanceWriteBehindService;
+    private final AttendanceExportService attendanceExportService;
+    private final AttendanceArchiveService attendanceArchiveService;
+
+    @Value("${app.attendance.export.timeout-ms:600000}")
+    private long exportTimeoutMs;
 
     // ===============================
     // = STUDENT OPERATIONS
@@ -32,18 +57,18 @@ public class AttendanceController {
 
     @PostMapping("/mark")
     @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER', 'STUDENT')")
-    public ResponseEntity<ApiResponse<AttendanceDto>> markAttendance(@RequestParam String qrCodeId, 
+    public ResponseEntity<ApiResponse<AttendanceMarkResponse>> markAttendance(@RequestParam String qrCodeId, 
             Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         Long studentId = studentService.getStudentByUserId(userPrincipal.getUser().getId()).getId();
         
-        AttendanceDto attendance = attendanceService.markAttendance(studentId, qrCodeId);
-        return ResponseEntity.ok(new ApiResponse<>(true, "Attendance marked successfully", attendance));
+        AttendanceMarkResponse response = attendanceService.markAttendance(studentId, qrCodeId);
+        return ResponseEntity.ok(new ApiResponse<>(response.isCreated(), response.getResult().getMessage(), response));
     }
 
     @PostMapping("/mark-manual")
     @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER')")
-    public ResponseEntity<ApiResponse<AttendanceDto>> markManualAttendance(
+    public ResponseEntity<ApiResponse<AttendanceMarkResponse>> markManualAttendance(
             @RequestParam Long studentId,
             @RequestParam AttendanceStatus status,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
@@ -52,18 +77,22 @@ public class AttendanceController {
             date = LocalDate.now();
         }
         
-        AttendanceDto attendance = attendanceService.markManualAttendance(studentId, status, date);
-        return ResponseEntity.ok(new ApiResponse<>(true, "Manual attendance marked successfully", attendance));
+        AttendanceMarkResponse response = attendanceService.markManualAttendance(studentId, status, date);
+        return ResponseEntity.ok(new ApiResponse<>(response.isCreated(), response.getResult().getMessage(), response));
     }
 
     @GetMapping("/my-attendance")
     @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER', 'STUDENT')")
-    public ResponseEntity<ApiResponse<List<AttendanceDto>>> getMyAttendance(Authentication authentication) {
+    public ResponseEntity<ApiResponse<List<AttendanceDto>>> getMyAttendance(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         Long studentId = studentService.getStudentByUserId(userPrincipal.getUser().getId()).getId();
         
-        List<AttendanceDto> attendance = attendanceService.getStudentAttendance(studentId);
-        return ResponseEntity.ok(new ApiResponse<>(true, "Student attendance retrieved successfully", attendance));
+        CursorPage<AttendanceDto> page = attendanceService.getStudentAttendance(studentId, cursor, size);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Student attendance retrieved successfully",
+                page.getItems(), page.getNextCursor()));
     }
 
     @GetMapping("/my-attendance/range")
@@ -87,16 +116,22 @@ public class AttendanceController {
     @GetMapping("/date/{date}")
     @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER')")
     public ResponseEntity<ApiResponse<List<AttendanceDto>>> getAttendanceByDate(
-            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        List<AttendanceDto> attendance = attendanceService.getAttendanceByDate(date);
-        return ResponseEntity.ok(new ApiResponse<>(true, "Attendance for date retrieved successfully", attendance));
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<AttendanceDto> page = attendanceService.getAttendanceByDate(date, cursor, size);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Attendance for date retrieved successfully",
+                page.getItems(), page.getNextCursor()));
     }
 
     @GetMapping("/student/{studentId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER')")
-    public ResponseEntity<ApiResponse<List<AttendanceDto>>> getStudentAttendance(@PathVariable Long studentId) {
-        List<AttendanceDto> attendance = attendanceService.getStudentAttendance(studentId);
-        return ResponseEntity.ok(new ApiResponse<>(true, "Student attendance retrieved successfully", attendance));
+    public ResponseEntity<ApiResponse<List<AttendanceDto>>> getStudentAttendance(@PathVariable Long studentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<AttendanceDto> page = attendanceService.getStudentAttendance(studentId, cursor, size);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Student attendance retrieved successfully",
+                page.getItems(), page.getNextCursor()));
     }
 
     @GetMapping("/student/{studentId}/range")
@@ -112,19 +147,25 @@ public class AttendanceController {
 
     @GetMapping("/batch/{batchId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER')")
-    public ResponseEntity<ApiResponse<List<AttendanceDto>>> getBatchAttendance(@PathVariable Long batchId) {
-        List<AttendanceDto> attendance = attendanceService.getBatchAttendance(batchId);
-        return ResponseEntity.ok(new ApiResponse<>(true, "Batch attendance retrieved successfully", attendance));
+    public ResponseEntity<ApiResponse<List<AttendanceDto>>> getBatchAttendance(@PathVariable Long batchId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<AttendanceDto> page = attendanceService.getBatchAttendance(batchId, cursor, size);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Batch attendance retrieved successfully",
+                page.getItems(), page.getNextCursor()));
     }
 
     @GetMapping("/batch/{batchId}/date/{date}")
     @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER')")
     public ResponseEntity<ApiResponse<List<AttendanceDto>>> getBatchAttendanceByDate(
             @PathVariable Long batchId,
-            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         
-        List<AttendanceDto> attendance = attendanceService.getBatchAttendanceByDate(batchId, date);
-        return ResponseEntity.ok(new ApiResponse<>(true, "Batch attendance for date retrieved successfully", attendance));
+        CursorPage<AttendanceDto> page = attendanceService.getBatchAttendanceByDate(batchId, date, cursor, size);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Batch attendance for date retrieved successfully",
+                page.getItems(), page.getNextCursor()));
     }
 
     @PutMapping("/{attendanceId}")
@@ -230,13 +271,103 @@ public class AttendanceController {
         return ResponseEntity.ok(new ApiResponse<>(true, "Monthly attendance summary retrieved successfully", summary));
     }
 
+    @GetMapping("/write-behind/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getWriteBehindStats() {
+        Map<String, Object> stats = attendanceWriteBehindService.getStats();
+        return ResponseEntity.ok(new ApiResponse<>(true, "Attendance write-behind statistics retrieved successfully", stats));
+    }
+
+    @PostMapping("/summary/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Integer>> rebuildAttendanceRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        int rows = attendanceService.rebuildAttendanceRollups(startDate, endDate);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Attendance rollups rebuilt successfully", rows));
+    }
+
+    @PostMapping("/archive/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<AttendanceArchiveReport>> archiveEndedBatches() {
+        AttendanceArchiveReport report = attendanceArchiveService.archiveEndedBatches();
+        return ResponseEntity.ok(new ApiResponse<>(true, "Attendance archive completed successfully", report));
+    }
+
+    @GetMapping("/archive/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getArchiveStats() {
+        Map<String, Object> stats = attendanceArchiveService.getStats();
+        return ResponseEntity.ok(new ApiResponse<>(true, "Attendance archive statistics retrieved successfully", stats));
+    }
+
+    // ===============================
+    // = STREAMING EXPORT
+    // ===============================
+
+    @GetMapping("/export/date/{date}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER')")
+    public ResponseEntity<StreamingResponseBody> exportAttendanceByDate(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            NativeWebRequest webRequest) {
+        return exportResponse(webRequest, "attendance-" + date, format,
+                outputStream -> attendanceExportService.exportByDate(date, format, outputStream));
+    }
+
+    @GetMapping("/export/batch/{batchId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER')")
+    public ResponseEntity<StreamingResponseBody> exportBatchAttendance(
+            @PathVariable Long batchId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            NativeWebRequest webRequest) {
+        return exportResponse(webRequest, "attendance-batch-" + batchId, format,
+                outputStream -> attendanceExportService.exportByBatch(batchId, startDate, endDate, format, outputStream));
+    }
+
+    @GetMapping("/export/student/{studentId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER')")
+    public ResponseEntity<StreamingResponseBody> exportStudentAttendance(
+            @PathVariable Long studentId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            NativeWebRequest webRequest) {
+        return exportResponse(webRequest, "attendance-student-" + studentId, format,
+                outputStream -> attendanceExportService.exportByStudent(studentId, startDate, endDate, format, outputStream));
+    }
+
+    /**
+     * Streams the body with the export timeout instead of the default async
+     * one, which a large range would outlast.
+     */
+    private ResponseEntity<StreamingResponseBody> exportResponse(NativeWebRequest webRequest, String fileName,
+            ExportFormat format, StreamingResponseBody body) {
+        WebAsyncUtils.getAsyncManager(webRequest).registerCallableInterceptor(EXPORT_TIMEOUT_KEY,
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                        if (request instanceof AsyncWebRequest asyncWebRequest) {
+                            asyncWebRequest.setTimeout(exportTimeoutMs);
+                        }
+                    }
+                });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + fileName + "." + format.getExtension() + "\"")
+                .body(body);
+    }
+
     // ===============================
     // = BULK OPERATIONS
     // ===============================
 
     @PostMapping("/bulk-mark")
     @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER')")
-    public ResponseEntity<ApiResponse<List<AttendanceDto>>> bulkMarkAttendance(
+    public ResponseEntity<ApiResponse<BulkMarkResponse>> bulkMarkAttendance(
             @RequestBody Map<Long, AttendanceStatus> studentAttendanceMap,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
         
@@ -244,13 +375,13 @@ public class AttendanceController {
             date = LocalDate.now();
         }
         
-        List<AttendanceDto> attendanceList = attendanceService.bulkMarkAttendance(studentAttendanceMap, date);
-        return ResponseEntity.ok(new ApiResponse<>(true, "Bulk attendance marked successfully", attendanceList));
+        BulkMarkResponse result = attendanceService.bulkMarkAttendance(studentAttendanceMap, date);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Bulk attendance marked successfully", result));
     }
 
     @PostMapping("/batch/{batchId}/mark-all-present")
     @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER')")
-    public ResponseEntity<ApiResponse<List<AttendanceDto>>> markAllBatchStudentsPresent(
+    public ResponseEntity<ApiResponse<BulkMarkResponse>> markAllBatchStudentsPresent(
             @PathVariable Long batchId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
         
@@ -258,7 +389,7 @@ public class AttendanceController {
             date = LocalDate.now();
         }
         
-        List<AttendanceDto> attendanceList = attendanceService.markAllBatchStudentsPresent(batchId, date);
-        return ResponseEntity.ok(new ApiResponse<>(true, "All batch students marked present successfully", attendanceList));
+        BulkMarkResponse result = attendanceService.markAllBatchStudentsPresent(batchId, date);
+        return ResponseEntity.ok(new ApiResponse<>(true, "All batch students marked present successfully", result));
     }
 }
\ No newline at end of file
@@ -1,18 +1,29 @@
 package com.nirmaan.controller;
 
 import com.nirmaan.dto.ApiResponse;
+import com.nirmaan.dto.QRGenerationReport;
+import com.nirmaan.dto.QRRetentionReport;
 import com.nirmaan.entity.QRCode;
+import com.nirmaan.enums.QRImageFormat;
+import com.nirmaan.enums.QRImageSize;
+import com.nirmaan.service.QRCodeRetentionService;
 import com.nirmaan.service.QRCodeService;
-import com.nirmaan.util.QRCodeGenerator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/qrcode")
@@ -21,7 +32,7 @@ import java.util.Map;
 public class QRCodeController {
 
     private final QRCodeService qrCodeService;
-    private final QRCodeGenerator qrCodeGenerator;
+    private final QRCodeRetentionService qrCodeRetentionService;
 
     @GetMapping("/batch/{batchId}")
     public ResponseEntity<ApiResponse<Map<String, String>>> getQRCodeForBatch(
@@ -31,6 +42,10 @@ public class QRCodeController {
         if (date == null) {
             date = LocalDate.now();
         }
+        if (qrCodeService.isRotationEnabled()) {
+            return ResponseEntity.ok(new ApiResponse<>(false,
+                    "QR codes rotate; display /api/qrcode/batch/" + batchId + "/image instead"));
+        }
         
         QRCode qrCode = qrCodeService.getQRCodeForBatch(batchId, date);
         if (qrCode == null) {
@@ -38,7 +53,7 @@ public class QRCodeController {
         }
 
         try {
-            String qrCodeImage = qrCodeGenerator.generateQRCodeImage(qrCode.getQrCodeData());
+            String qrCodeImage = qrCodeService.getQRCodeImage(qrCode);
             Map<String, String> qrData = new HashMap<>();
             qrData.put("qrCodeId", qrCode.getQrCodeId());
             qrData.put("qrCodeImage", qrCodeImage);
@@ -51,9 +66,57 @@ public class QRCodeController {
         }
     }
 
+    @GetMapping("/batch/{batchId}/image")
+    public ResponseEntity<byte[]> getQRCodeImageForBatch(
+            @PathVariable Long batchId,
+            @RequestParam(defaultValue = "PHONE") QRImageSize size,
+            @RequestParam(defaultValue = "PNG") QRImageFormat format,
+            WebRequest webRequest) {
+
+        QRCodeService.DisplayedQRCode displayed = qrCodeService.getDisplayedQRCode(batchId, size, format)
+                .orElse(null);
+        if (displayed == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        long maxAge = Math.max(0, Duration.between(LocalDateTime.now(), displayed.refreshAt()).getSeconds());
+        CacheControl cacheControl = CacheControl.maxAge(maxAge, TimeUnit.SECONDS).cachePrivate();
+        String etag = displayed.image().etag();
+        // Handles weak and multi-value If-None-Match; sets the 304 status and ETag header itself
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(displayed.image().contentType()))
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(displayed.image().bytes());
+    }
+
+    @PostMapping("/{qrCodeId}/deactivate")
+    public ResponseEntity<ApiResponse<String>> deactivateQRCode(@PathVariable String qrCodeId) {
+        qrCodeService.deactivateQRCode(qrCodeId);
+        return ResponseEntity.ok(new ApiResponse<>(true, "QR code deactivated successfully"));
+    }
+
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getCacheStats() {
+        Map<String, Object> stats = qrCodeService.getCacheStats();
+        return ResponseEntity.ok(new ApiResponse<>(true, "QR code cache statistics retrieved successfully", stats));
+    }
+
+    @PostMapping("/retention/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<QRRetentionReport>> runRetention() {
+        QRRetentionReport report = qrCodeRetentionService.runRetention();
+        return ResponseEntity.ok(new ApiResponse<>(true, "QR code retention completed successfully", report));
+    }
+
     @PostMapping("/generate")
-    public ResponseEntity<ApiResponse<String>> generateDailyQRCodes() {
-        qrCodeService.generateDailyQRCodes();
-        return ResponseEntity.ok(new ApiResponse<>(true, "Daily QR codes generated successfully"));
+    public ResponseEntity<ApiResponse<QRGenerationReport>> generateDailyQRCodes() {
+        QRGenerationReport report = qrCodeService.generateDailyQRCodes();
+        return ResponseEntity.ok(new ApiResponse<>(true, "Daily QR codes generated successfully", report));
     }
 }
\ No newline at end of file
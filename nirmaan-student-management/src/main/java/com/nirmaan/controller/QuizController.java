@@ -1,24 +1,38 @@
 package com.nirmaan.controller;
 
 import com.nirmaan.dto.ApiResponse;
+import com.nirmaan.dto.LeaderboardEntryDto;
+import com.nirmaan.dto.QuizAttemptDto;
 import com.nirmaan.dto.QuizDto;
 import com.nirmaan.dto.QuestionDto;
-import com.nirmaan.entity.StudentQuizAttempt;
+import com.nirmaan.dto.QuestionImportReport;
+import com.nirmaan.dto.QuizSubmissionReceipt;
+import com.nirmaan.dto.QuizSummaryDto;
 import com.nirmaan.enums.CourseType;
+import com.nirmaan.enums.QuestionBankFormat;
 import com.nirmaan.security.UserPrincipal;
+import com.nirmaan.service.QuestionImportService;
 import com.nirmaan.service.QuizService;
+import com.nirmaan.service.QuizSubmissionService;
 import com.nirmaan.service.TrainerService;
 import com.nirmaan.service.StudentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/quiz")
@@ -28,6 +42,8 @@ public class QuizController {
     private final QuizService quizService;
     private final TrainerService trainerService;
     private final StudentService studentService;
+    private final QuizSubmissionService quizSubmissionService;
+    private final QuestionImportService questionImportService;
 
     // ===============================
     // = ADMIN OPERATIONS
@@ -54,6 +70,13 @@ public class QuizController {
         return ResponseEntity.ok(new ApiResponse<>(true, "Quiz deleted successfully"));
     }
 
+    @GetMapping("/submissions/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getSubmissionStats() {
+        Map<String, Object> stats = quizSubmissionService.getStats();
+        return ResponseEntity.ok(new ApiResponse<>(true, "Quiz submission statistics retrieved successfully", stats));
+    }
+
     // ===============================
     // = TRAINER OPERATIONS
     // ===============================
@@ -118,46 +141,76 @@ public class QuizController {
 
     @GetMapping("/available")
     @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER', 'STUDENT')")
-    public ResponseEntity<ApiResponse<List<QuizDto>>> getAvailableQuizzes() {
-        List<QuizDto> quizzes = quizService.getAvailableQuizzes();
+    public ResponseEntity<ApiResponse<List<QuizSummaryDto>>> getAvailableQuizzes() {
+        List<QuizSummaryDto> quizzes = quizService.getAvailableQuizzes();
         return ResponseEntity.ok(new ApiResponse<>(true, "Available quizzes retrieved successfully", quizzes));
     }
 
     @GetMapping("/student/available")
     @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER', 'STUDENT')")
-    public ResponseEntity<ApiResponse<List<QuizDto>>> getAvailableQuizzesForStudent(Authentication authentication) {
+    public ResponseEntity<ApiResponse<List<QuizSummaryDto>>> getAvailableQuizzesForStudent(Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         Long studentId = studentService.getStudentByUserId(userPrincipal.getUser().getId()).getId();
         
-        List<QuizDto> quizzes = quizService.getAvailableQuizzesForStudent(studentId);
+        List<QuizSummaryDto> quizzes = quizService.getAvailableQuizzesForStudent(studentId);
         return ResponseEntity.ok(new ApiResponse<>(true, "Available quizzes for student retrieved successfully", quizzes));
     }
 
     @PostMapping("/{id}/attempt")
     @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER', 'STUDENT')")
-    public ResponseEntity<ApiResponse<StudentQuizAttempt>> submitQuizAttempt(@PathVariable Long id, 
+    public ResponseEntity<ApiResponse<QuizSubmissionReceipt>> submitQuizAttempt(@PathVariable Long id, 
             @RequestBody Map<Long, String> answers, Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         Long studentId = studentService.getStudentByUserId(userPrincipal.getUser().getId()).getId();
         
-        StudentQuizAttempt attempt = quizService.submitQuizAttempt(studentId, id, answers);
-        return ResponseEntity.ok(new ApiResponse<>(true, "Quiz submitted successfully", attempt));
+        QuizSubmissionReceipt receipt = quizService.submitQuizAttempt(studentId, id, answers);
+        return QuizSubmissionResponses.of(receipt);
+    }
+
+    @PostMapping("/{id}/attempt/sheet")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER', 'STUDENT')")
+    public ResponseEntity<ApiResponse<QuizSubmissionReceipt>> submitQuizAnswerSheet(@PathVariable Long id, 
+            @RequestBody List<String> answers, Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        Long studentId = studentService.getStudentByUserId(userPrincipal.getUser().getId()).getId();
+        
+        QuizSubmissionReceipt receipt = quizService.submitQuizAnswerSheet(studentId, id, answers);
+        return QuizSubmissionResponses.of(receipt);
+    }
+
+    @GetMapping("/submissions/{receiptId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER', 'STUDENT')")
+    public DeferredResult<ResponseEntity<ApiResponse<QuizSubmissionReceipt>>> getSubmissionReceipt(
+            @PathVariable String receiptId, @RequestParam(defaultValue = "0") int waitSeconds,
+            Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        Long studentId = studentService.getStudentByUserId(userPrincipal.getUser().getId()).getId();
+
+        // Long-polls until the submission is scored, for at most 30 seconds
+        long timeout = TimeUnit.SECONDS.toMillis(Math.max(1, Math.min(waitSeconds, 30)));
+        DeferredResult<ResponseEntity<ApiResponse<QuizSubmissionReceipt>>> result = new DeferredResult<>(timeout);
+        CompletableFuture<QuizSubmissionReceipt> scored = waitSeconds > 0
+                ? quizSubmissionService.awaitReceipt(receiptId, studentId)
+                : CompletableFuture.completedFuture(quizSubmissionService.getReceipt(receiptId, studentId));
+        result.onTimeout(() -> result.setResult(receiptResponse(quizSubmissionService.getReceipt(receiptId, studentId))));
+        scored.thenAccept(receipt -> result.setResult(receiptResponse(receipt)));
+        return result;
     }
 
     @GetMapping("/student/attempts")
     @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER', 'STUDENT')")
-    public ResponseEntity<ApiResponse<List<StudentQuizAttempt>>> getMyQuizAttempts(Authentication authentication) {
+    public ResponseEntity<ApiResponse<List<QuizAttemptDto>>> getMyQuizAttempts(Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         Long studentId = studentService.getStudentByUserId(userPrincipal.getUser().getId()).getId();
         
-        List<StudentQuizAttempt> attempts = quizService.getStudentQuizAttempts(studentId);
+        List<QuizAttemptDto> attempts = quizService.getStudentQuizAttempts(studentId);
         return ResponseEntity.ok(new ApiResponse<>(true, "Student quiz attempts retrieved successfully", attempts));
     }
 
     @GetMapping("/{quizId}/attempts")
     @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER')")
-    public ResponseEntity<ApiResponse<List<StudentQuizAttempt>>> getQuizAttempts(@PathVariable Long quizId) {
-        List<StudentQuizAttempt> attempts = quizService.getQuizAttempts(quizId);
+    public ResponseEntity<ApiResponse<List<QuizAttemptDto>>> getQuizAttempts(@PathVariable Long quizId) {
+        List<QuizAttemptDto> attempts = quizService.getQuizAttempts(quizId);
         return ResponseEntity.ok(new ApiResponse<>(true, "Quiz attempts retrieved successfully", attempts));
     }
 
@@ -189,6 +242,18 @@ public class QuizController {
         return ResponseEntity.ok(new ApiResponse<>(true, "Question deleted successfully"));
     }
 
+    @PostMapping(value = "/{quizId}/questions/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER')")
+    public ResponseEntity<ApiResponse<QuestionImportReport>> importQuestions(@PathVariable Long quizId,
+            @RequestParam("file") MultipartFile file, @RequestParam(required = false) QuestionBankFormat format)
+            throws IOException {
+        QuestionBankFormat bankFormat = format != null ? format : QuestionBankFormat.forFileName(file.getOriginalFilename());
+        try (InputStream input = file.getInputStream()) {
+            QuestionImportReport report = questionImportService.importQuestions(quizId, input, bankFormat);
+            return ResponseEntity.ok(new ApiResponse<>(true, "Questions imported successfully", report));
+        }
+    }
+
     @GetMapping("/{quizId}/questions")
     @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER', 'STUDENT')")
     public ResponseEntity<ApiResponse<List<QuestionDto>>> getQuizQuestions(@PathVariable Long quizId) {
@@ -207,10 +272,40 @@ public class QuizController {
         return ResponseEntity.ok(new ApiResponse<>(true, "Quiz analytics retrieved successfully", analytics));
     }
 
+    @PostMapping("/{quizId}/analytics/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Long>> rebuildQuizAnalytics(@PathVariable Long quizId) {
+        long attempts = quizService.rebuildQuizAnalytics(quizId);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Quiz analytics rebuilt successfully", attempts));
+    }
+
+    @GetMapping("/{quizId}/leaderboard")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER', 'STUDENT')")
+    public ResponseEntity<ApiResponse<List<LeaderboardEntryDto>>> getLeaderboard(@PathVariable Long quizId,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<LeaderboardEntryDto> leaderboard = quizService.getLeaderboard(quizId, limit);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Quiz leaderboard retrieved successfully", leaderboard));
+    }
+
+    @GetMapping("/{quizId}/leaderboard/me")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER', 'STUDENT')")
+    public ResponseEntity<ApiResponse<LeaderboardEntryDto>> getMyLeaderboardStanding(@PathVariable Long quizId,
+            Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        Long studentId = studentService.getStudentByUserId(userPrincipal.getUser().getId()).getId();
+
+        LeaderboardEntryDto standing = quizService.getLeaderboardStanding(quizId, studentId);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Leaderboard standing retrieved successfully", standing));
+    }
+
     @GetMapping("/{quizId}/results")
     @PreAuthorize("hasAnyRole('ADMIN', 'TRAINER')")
     public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getQuizResults(@PathVariable Long quizId) {
         List<Map<String, Object>> results = quizService.getQuizResults(quizId);
         return ResponseEntity.ok(new ApiResponse<>(true, "Quiz results retrieved successfully", results));
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<ApiResponse<QuizSubmissionReceipt>> receiptResponse(QuizSubmissionReceipt receipt) {
+        return ResponseEntity.ok(new ApiResponse<>(true, receipt.getStatus().getMessage(), receipt));
+    }
+}
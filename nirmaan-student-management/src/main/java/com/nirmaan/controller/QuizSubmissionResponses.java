@@ -0,0 +1,33 @@
+package com.nirmaan.controller;
+
+import com.nirmaan.dto.ApiResponse;
+import com.nirmaan.dto.QuizSubmissionReceipt;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Response to a quiz submission, mapped from the status of the receipt it
+ * returned. A retried submission gets the receipt already issued, which may
+ * be scored or rejected by then.
+ */
+final class QuizSubmissionResponses {
+
+    private QuizSubmissionResponses() {
+    }
+
+    static ResponseEntity<ApiResponse<QuizSubmissionReceipt>> of(QuizSubmissionReceipt receipt) {
+        switch (receipt.getStatus()) {
+            case QUEUED:
+                return ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .body(new ApiResponse<>(true, "Quiz submission accepted", receipt));
+            case SCORED:
+                return ResponseEntity.ok(new ApiResponse<>(true, receipt.getMessage(), receipt));
+            case DUPLICATE:
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(new ApiResponse<>(false, receipt.getMessage(), receipt));
+            default:
+                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                        .body(new ApiResponse<>(false, receipt.getMessage(), receipt));
+        }
+    }
+}
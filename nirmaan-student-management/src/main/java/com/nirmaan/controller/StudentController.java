@@ -3,9 +3,11 @@ package com.nirmaan.controller;
 import com.nirmaan.dto.ApiResponse;
 import com.nirmaan.dto.StudentDto;
 import com.nirmaan.dto.AttendanceDto;
-import com.nirmaan.dto.QuizDto;
+import com.nirmaan.dto.AttendanceMarkResponse;
+import com.nirmaan.dto.CursorPage;
+import com.nirmaan.dto.QuizSummaryDto;
 import com.nirmaan.dto.FeedbackDto;
-import com.nirmaan.entity.StudentQuizAttempt;
+import com.nirmaan.dto.QuizSubmissionReceipt;
 import com.nirmaan.security.UserPrincipal;
 import com.nirmaan.service.StudentService;
 import com.nirmaan.service.AttendanceService;
@@ -52,39 +54,43 @@ public class StudentController {
 
     // Attendance Management
     @PostMapping("/attendance/mark")
-    public ResponseEntity<ApiResponse<AttendanceDto>> markAttendance(@RequestParam String qrCodeId, 
+    public ResponseEntity<ApiResponse<AttendanceMarkResponse>> markAttendance(@RequestParam String qrCodeId, 
             Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         Long studentId = studentService.getStudentByUserId(userPrincipal.getUser().getId()).getId();
         
-        AttendanceDto attendance = attendanceService.markAttendance(studentId, qrCodeId);
-        return ResponseEntity.ok(new ApiResponse<>(true, "Attendance marked successfully", attendance));
+        AttendanceMarkResponse response = attendanceService.markAttendance(studentId, qrCodeId);
+        return ResponseEntity.ok(new ApiResponse<>(response.isCreated(), response.getResult().getMessage(), response));
     }
 
     @GetMapping("/attendance")
-    public ResponseEntity<ApiResponse<List<AttendanceDto>>> getMyAttendance(Authentication authentication) {
+    public ResponseEntity<ApiResponse<List<AttendanceDto>>> getMyAttendance(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         Long studentId = studentService.getStudentByUserId(userPrincipal.getUser().getId()).getId();
         
-        List<AttendanceDto> attendance = attendanceService.getStudentAttendance(studentId);
-        return ResponseEntity.ok(new ApiResponse<>(true, "Attendance retrieved successfully", attendance));
+        CursorPage<AttendanceDto> page = attendanceService.getStudentAttendance(studentId, cursor, size);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Attendance retrieved successfully",
+                page.getItems(), page.getNextCursor()));
     }
 
     // Quiz Management
     @GetMapping("/quizzes/available")
-    public ResponseEntity<ApiResponse<List<QuizDto>>> getAvailableQuizzes() {
-        List<QuizDto> quizzes = quizService.getAvailableQuizzes();
+    public ResponseEntity<ApiResponse<List<QuizSummaryDto>>> getAvailableQuizzes() {
+        List<QuizSummaryDto> quizzes = quizService.getAvailableQuizzes();
         return ResponseEntity.ok(new ApiResponse<>(true, "Available quizzes retrieved successfully", quizzes));
     }
 
     @PostMapping("/quiz/{quizId}/attempt")
-    public ResponseEntity<ApiResponse<StudentQuizAttempt>> submitQuizAttempt(@PathVariable Long quizId, 
+    public ResponseEntity<ApiResponse<QuizSubmissionReceipt>> submitQuizAttempt(@PathVariable Long quizId, 
             @RequestBody Map<Long, String> answers, Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         Long studentId = studentService.getStudentByUserId(userPrincipal.getUser().getId()).getId();
         
-        StudentQuizAttempt attempt = quizService.submitQuizAttempt(studentId, quizId, answers);
-        return ResponseEntity.ok(new ApiResponse<>(true, "Quiz submitted successfully", attempt));
+        QuizSubmissionReceipt receipt = quizService.submitQuizAttempt(studentId, quizId, answers);
+        return QuizSubmissionResponses.of(receipt);
     }
 
     // Feedback Management
@@ -97,4 +103,4 @@ public class StudentController {
         FeedbackDto feedback = feedbackService.submitFeedback(feedbackDto, studentId);
         return ResponseEntity.ok(new ApiResponse<>(true, "Feedback submitted successfully", feedback));
     }
-}
\ No newline at end of file
+}
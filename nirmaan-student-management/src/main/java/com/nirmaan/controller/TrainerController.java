@@ -4,6 +4,7 @@ import com.nirmaan.dto.ApiResponse;
 import com.nirmaan.dto.QuizDto;
 import com.nirmaan.dto.TrainerDto;
 import com.nirmaan.dto.AttendanceDto;
+import com.nirmaan.dto.CursorPage;
 import com.nirmaan.dto.FeedbackDto;
 import com.nirmaan.security.UserPrincipal;
 import com.nirmaan.service.QuizService;
@@ -57,9 +58,12 @@ public class TrainerController {
     // Attendance Management
     @GetMapping("/attendance")
     public ResponseEntity<ApiResponse<List<AttendanceDto>>> getAttendanceByDate(
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        List<AttendanceDto> attendance = attendanceService.getAttendanceByDate(date);
-        return ResponseEntity.ok(new ApiResponse<>(true, "Attendance retrieved successfully", attendance));
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<AttendanceDto> page = attendanceService.getAttendanceByDate(date, cursor, size);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Attendance retrieved successfully",
+                page.getItems(), page.getNextCursor()));
     }
 
     // Feedback Management
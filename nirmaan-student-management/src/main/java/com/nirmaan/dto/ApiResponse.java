@@ -1,5 +1,6 @@
 package com.nirmaan.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
@@ -12,8 +13,17 @@ public class ApiResponse<T> {
 	private String message;
 	private T data;
 
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private String nextCursor;
+
 	public ApiResponse(boolean success, String message) {
 		this.success = success;
 		this.message = message;
 	}
+
+	public ApiResponse(boolean success, String message, T data) {
+		this.success = success;
+		this.message = message;
+		this.data = data;
+	}
 }
@@ -0,0 +1,18 @@
+package com.nirmaan.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AttendanceArchiveReport {
+	private int batches;
+	private int archived;
+	private int failed;
+	private LocalDate endedBefore;
+	private long durationMs;
+}
@@ -1,6 +1,8 @@
 package com.nirmaan.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -8,6 +10,8 @@ import java.time.LocalDateTime;
 import com.nirmaan.enums.AttendanceStatus;
 
 @Data
+@AllArgsConstructor
+@NoArgsConstructor
 public class AttendanceDto {
 	private Long id;
 	private Long studentId;
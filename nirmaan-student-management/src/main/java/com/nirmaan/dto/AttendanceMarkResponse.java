@@ -0,0 +1,23 @@
+package com.nirmaan.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import com.nirmaan.enums.AttendanceMarkResult;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AttendanceMarkResponse {
+	private AttendanceMarkResult result;
+	private AttendanceDto attendance;
+
+	public AttendanceMarkResponse(AttendanceMarkResult result) {
+		this.result = result;
+	}
+
+	public boolean isCreated() {
+		return result == AttendanceMarkResult.CREATED;
+	}
+}
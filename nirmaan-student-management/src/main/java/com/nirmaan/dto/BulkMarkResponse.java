@@ -0,0 +1,28 @@
+package com.nirmaan.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.nirmaan.enums.BulkMarkOutcome;
+
+@Data
+@NoArgsConstructor
+public class BulkMarkResponse {
+	private LocalDate date;
+	private Map<Long, BulkMarkOutcome> outcomes = new LinkedHashMap<>();
+	private Map<BulkMarkOutcome, Integer> totals = new EnumMap<>(BulkMarkOutcome.class);
+
+	public BulkMarkResponse(LocalDate date) {
+		this.date = date;
+	}
+
+	public void record(Long studentId, BulkMarkOutcome outcome) {
+		outcomes.put(studentId, outcome);
+		totals.merge(outcome, 1, Integer::sum);
+	}
+}
@@ -0,0 +1,20 @@
+package com.nirmaan.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LeaderboardEntryDto {
+	private int rank;
+	private Long studentId;
+	private String studentName;
+	private int score;
+	private LocalDateTime submittedAt;
+	private int totalAttempts;
+	private double percentile;
+}
@@ -0,0 +1,20 @@
+package com.nirmaan.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class QRGenerationReport {
+	private LocalDate date;
+	private int runningBatches;
+	private int created;
+	private int skipped;
+	private int rendered;
+	private int renderFailures;
+	private long durationMs;
+}
@@ -0,0 +1,18 @@
+package com.nirmaan.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class QRRetentionReport {
+	private int deactivated;
+	private int archived;
+	private int chunks;
+	private LocalDate archivedBefore;
+	private long durationMs;
+}
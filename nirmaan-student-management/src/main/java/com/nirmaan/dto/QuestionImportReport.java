@@ -0,0 +1,29 @@
+package com.nirmaan.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuestionImportReport {
+	private Long quizId;
+	private long rowsRead;
+	private long imported;
+	private long rejected;
+	private List<RowError> errors = new ArrayList<>();
+	private boolean errorsTruncated;
+	private long durationMs;
+
+	@Data
+	@AllArgsConstructor
+	@NoArgsConstructor
+	public static class RowError {
+		private long row; // Line of the record in CSV files, position of the question in JSON files
+		private String message;
+	}
+}
@@ -0,0 +1,26 @@
+package com.nirmaan.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuizAttemptDto {
+	private Long id;
+	private Long studentId;
+	private String studentName;
+	private Long quizId;
+	private String quizTitle;
+	private LocalDateTime startTime;
+	private LocalDateTime endTime;
+	private Integer totalQuestions;
+	private Integer correctAnswers;
+	private Integer score;
+	private boolean completed;
+	private Map<Long, String> answers; // Question id to option; null if the question set is unknown
+}
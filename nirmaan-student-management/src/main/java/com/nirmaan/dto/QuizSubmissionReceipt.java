@@ -0,0 +1,28 @@
+package com.nirmaan.dto;
+
+import com.nirmaan.enums.QuizSubmissionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuizSubmissionReceipt {
+	private String receiptId;
+	private Long quizId;
+	private QuizSubmissionStatus status;
+	private String message;
+	private LocalDateTime submittedAt;
+	private Long attemptId;
+	private Integer totalQuestions;
+	private Integer correctAnswers;
+	private Integer score;
+
+	public QuizSubmissionReceipt(String receiptId, Long quizId, LocalDateTime submittedAt) {
+		this(receiptId, quizId, QuizSubmissionStatus.QUEUED, QuizSubmissionStatus.QUEUED.getMessage(), submittedAt,
+				null, null, null, null);
+	}
+}
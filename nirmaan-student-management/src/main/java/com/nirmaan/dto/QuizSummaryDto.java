@@ -0,0 +1,25 @@
+package com.nirmaan.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+import com.nirmaan.enums.CourseType;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuizSummaryDto {
+	private Long id;
+	private String title;
+	private String description;
+	private String trainerName;
+	private CourseType courseType;
+	private Long batchId;
+	private String batchName;
+	private Integer timeLimit;
+	private LocalDateTime startTime;
+	private LocalDateTime endTime;
+}
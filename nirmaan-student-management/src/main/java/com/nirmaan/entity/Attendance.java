@@ -11,20 +11,24 @@ import java.time.LocalDateTime;
 import com.nirmaan.enums.AttendanceStatus;
 
 @Entity
-@Table(name = "attendance")
+@Table(name = "attendance", uniqueConstraints = @UniqueConstraint(name = "uk_attendance_student_date",
+		columnNames = { "student_id", "attendance_date" }), indexes = {
+				@Index(name = "idx_attendance_date_id", columnList = "attendance_date, id"),
+				@Index(name = "idx_attendance_batch_date_id", columnList = "batch_id, attendance_date, id") })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Attendance {
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "attendance_seq")
+	@SequenceGenerator(name = "attendance_seq", sequenceName = "attendance_seq", allocationSize = 50)
 	private Long id;
 
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "student_id")
 	private Student student;
 
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "batch_id")
 	private Batch batch;
 
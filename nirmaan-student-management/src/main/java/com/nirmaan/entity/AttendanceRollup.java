@@ -0,0 +1,26 @@
+package com.nirmaan.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "attendance_daily_rollups", uniqueConstraints = @UniqueConstraint(name = "uk_rollup_date_batch",
+		columnNames = { "attendance_date", "batch_id" }))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceRollup {
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	private LocalDate attendanceDate;
+	private Long batchId; // 0 for students without a batch
+	private int presentCount;
+	private int absentCount;
+	private int lateCount;
+}
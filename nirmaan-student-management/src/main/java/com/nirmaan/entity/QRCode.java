@@ -9,23 +9,29 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "qr_codes")
+@Table(name = "qr_codes", indexes = @Index(name = "idx_qr_codes_batch_date_active",
+		columnList = "batch_id, valid_date, active"), uniqueConstraints = @UniqueConstraint(
+				name = "uk_qr_codes_batch_active_date", columnNames = { "batch_id", "active_date" }))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class QRCode {
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "qr_codes_seq")
+	@SequenceGenerator(name = "qr_codes_seq", sequenceName = "qr_codes_seq", allocationSize = 50)
 	private Long id;
 
 	private String qrCodeId;
 	private String qrCodeData;
 
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "batch_id")
 	private Batch batch;
 
 	private LocalDate validDate;
+
+	// validDate while the code is active, null once deactivated: at most one active code per batch and day
+	private LocalDate activeDate;
 	private LocalDateTime generatedAt;
 	private LocalDateTime expiresAt;
 	private boolean active = true;
@@ -0,0 +1,26 @@
+package com.nirmaan.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "qr_codes_archive", indexes = @Index(name = "idx_qr_codes_archive_batch_date",
+		columnList = "batch_id, valid_date"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QRCodeArchive {
+	@Id
+	private Long id; // id of the archived qr_codes row
+
+	private String qrCodeId;
+	private Long batchId;
+	private LocalDate validDate;
+	private LocalDateTime generatedAt;
+	private LocalDateTime expiresAt;
+}
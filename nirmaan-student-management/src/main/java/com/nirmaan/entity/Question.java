@@ -12,7 +12,8 @@ import lombok.AllArgsConstructor;
 @AllArgsConstructor
 public class Question {
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "questions_seq")
+	@SequenceGenerator(name = "questions_seq", sequenceName = "questions_seq", allocationSize = 50)
 	private Long id;
 
 	@ManyToOne
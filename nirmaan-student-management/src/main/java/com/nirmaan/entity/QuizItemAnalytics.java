@@ -0,0 +1,25 @@
+package com.nirmaan.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "quiz_item_analytics")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizItemAnalytics {
+	@Id
+	private Long quizId;
+
+	private Long attemptCount; // Attempts counted in stats
+
+	@Column(columnDefinition = "MEDIUMBLOB")
+	private byte[] stats; // See QuizItemStats
+
+	private LocalDateTime updatedAt;
+}
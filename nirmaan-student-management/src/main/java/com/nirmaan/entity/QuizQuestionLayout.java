@@ -0,0 +1,27 @@
+package com.nirmaan.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Entity
+@Table(name = "quiz_question_layouts", uniqueConstraints = @UniqueConstraint(name = "uk_quiz_layout_hash",
+		columnNames = { "quiz_id", "layout_hash" }))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizQuestionLayout {
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "quiz_id")
+	private Long quizId;
+
+	@Column(name = "layout_hash")
+	private Integer layoutHash;
+
+	@Column(columnDefinition = "TEXT")
+	private String questionIds; // Comma-separated, in answer code position order
+}
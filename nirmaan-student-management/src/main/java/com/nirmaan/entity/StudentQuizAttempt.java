@@ -8,13 +8,15 @@ import lombok.AllArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "student_quiz_attempts")
+@Table(name = "student_quiz_attempts", uniqueConstraints = @UniqueConstraint(name = "uk_attempt_student_quiz",
+		columnNames = { "student_id", "quiz_id" }))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class StudentQuizAttempt {
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "student_quiz_attempts_seq")
+	@SequenceGenerator(name = "student_quiz_attempts_seq", sequenceName = "student_quiz_attempts_seq", allocationSize = 50)
 	private Long id;
 
 	@ManyToOne
@@ -30,6 +32,9 @@ public class StudentQuizAttempt {
 	private Integer totalQuestions;
 	private Integer correctAnswers;
 	private Integer score;
-	private String answers; // JSON string storing answers
+	private String answers; // Text answers of attempts recorded before answer codes
+
+	@Column(length = 512)
+	private byte[] answerCodes; // See QuizAnswerCodec
 	private boolean completed = false;
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.nirmaan.enums;
+
+public enum AttendanceMarkResult {
+	CREATED("Attendance marked successfully"),
+	ALREADY_MARKED("Attendance already marked for this date"),
+	EXPIRED_QR("QR Code has expired"),
+	INVALID_QR("Invalid QR Code"),
+	WRONG_BATCH("QR Code belongs to another batch");
+
+	private final String message;
+
+	AttendanceMarkResult(String message) {
+		this.message = message;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+}
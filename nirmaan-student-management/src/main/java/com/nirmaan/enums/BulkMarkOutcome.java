@@ -0,0 +1,19 @@
+package com.nirmaan.enums;
+
+public enum BulkMarkOutcome {
+	CREATED("Attendance marked"),
+	UPDATED("Attendance status updated"),
+	UNCHANGED("Attendance already recorded with this status"),
+	ALREADY_MARKED("Attendance is being recorded by another request"),
+	STUDENT_NOT_FOUND("Student not found");
+
+	private final String message;
+
+	BulkMarkOutcome(String message) {
+		this.message = message;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+}
@@ -0,0 +1,16 @@
+package com.nirmaan.enums;
+
+public enum QRImageFormat {
+	PNG("image/png"),
+	SVG("image/svg+xml");
+
+	private final String contentType;
+
+	QRImageFormat(String contentType) {
+		this.contentType = contentType;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+}
@@ -0,0 +1,16 @@
+package com.nirmaan.enums;
+
+public enum QRImageSize {
+	PHONE(300),
+	PROJECTOR(960);
+
+	private final int pixels;
+
+	QRImageSize(int pixels) {
+		this.pixels = pixels;
+	}
+
+	public int getPixels() {
+		return pixels;
+	}
+}
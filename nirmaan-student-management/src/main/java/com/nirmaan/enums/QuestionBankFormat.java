@@ -0,0 +1,11 @@
+package com.nirmaan.enums;
+
+public enum QuestionBankFormat {
+	CSV,
+	JSON; // A JSON array of questions, or one question object per line
+
+	public static QuestionBankFormat forFileName(String fileName) {
+		String name = fileName != null ? fileName.toLowerCase() : "";
+		return name.endsWith(".json") || name.endsWith(".ndjson") ? JSON : CSV;
+	}
+}
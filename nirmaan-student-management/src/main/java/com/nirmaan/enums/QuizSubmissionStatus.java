@@ -0,0 +1,18 @@
+package com.nirmaan.enums;
+
+public enum QuizSubmissionStatus {
+	QUEUED("Quiz submission received and queued for scoring"),
+	SCORED("Quiz submission scored"),
+	REJECTED("Quiz submission could not be recorded"),
+	DUPLICATE("Quiz already attempted");
+
+	private final String message;
+
+	QuizSubmissionStatus(String message) {
+		this.message = message;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+}
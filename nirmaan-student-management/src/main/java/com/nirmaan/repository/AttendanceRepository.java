@@ -1,19 +1,36 @@
 package com.nirmaan.repository;
 
+import com.nirmaan.dto.AttendanceDto;
 import com.nirmaan.entity.Attendance;
 import com.nirmaan.entity.Student;
 import com.nirmaan.entity.Batch;
+import com.nirmaan.enums.AttendanceStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
+public interface AttendanceRepository extends JpaRepository<Attendance, Long>, AttendanceRepositoryCustom {
+	String DTO_SELECT = "SELECT new com.nirmaan.dto.AttendanceDto(a.id, s.id, CONCAT(u.firstName, ' ', u.lastName), "
+			+ "b.batchName, a.attendanceDate, a.status, a.markedAt) "
+			+ "FROM Attendance a JOIN a.student s JOIN s.user u LEFT JOIN a.batch b ";
+
+	// Integer.MIN_VALUE makes MySQL Connector/J stream rows one at a time for just these statements
+	String EXPORT_FETCH_SIZE = "-2147483648";
+
 	List<Attendance> findByStudent(Student student);
 
 	List<Attendance> findByBatch(Batch batch);
@@ -22,7 +39,116 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
 
 	Optional<Attendance> findByStudentAndAttendanceDate(Student student, LocalDate date);
 
+	@Query("SELECT a.student.id FROM Attendance a WHERE a.attendanceDate = :date")
+	List<Long> findStudentIdsByAttendanceDate(@Param("date") LocalDate date);
+
 	@Query("SELECT a FROM Attendance a WHERE a.student = :student AND a.attendanceDate BETWEEN :startDate AND :endDate")
 	List<Attendance> findByStudentAndDateRange(@Param("student") Student student,
 			@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+	@Query(DTO_SELECT + "WHERE a.id = :id")
+	Optional<AttendanceDto> findDtoById(@Param("id") Long id);
+
+	@Query(DTO_SELECT + "WHERE a.id IN :ids ORDER BY a.id")
+	List<AttendanceDto> findDtosByIdIn(@Param("ids") List<Long> ids);
+
+	@Query(DTO_SELECT + "WHERE s.id = :studentId AND a.attendanceDate BETWEEN :startDate AND :endDate "
+			+ "ORDER BY a.attendanceDate, a.id")
+	List<AttendanceDto> findDtosByStudentIdAndDateRange(@Param("studentId") Long studentId,
+			@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+	@Query("SELECT a.id AS id, a.student.id AS studentId, a.batch.id AS batchId, a.status AS status "
+			+ "FROM Attendance a WHERE a.attendanceDate = :date AND a.student.id IN :studentIds")
+	List<AttendanceMark> findMarksByDateAndStudentIds(@Param("date") LocalDate date,
+			@Param("studentIds") Collection<Long> studentIds);
+
+	@Modifying
+	@Query("UPDATE Attendance a SET a.status = :status WHERE a.id IN :ids")
+	int updateStatusByIdIn(@Param("status") AttendanceStatus status, @Param("ids") Collection<Long> ids);
+
+	@Query("SELECT a.student.id AS studentId, a.attendanceDate AS attendanceDate, a.status AS status "
+			+ "FROM Attendance a WHERE a.batch.id = :batchId")
+	List<AttendanceCell> findCellsByBatchId(@Param("batchId") Long batchId);
+
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+	@Query(DTO_SELECT + "WHERE a.attendanceDate = :date ORDER BY a.id")
+	Stream<AttendanceDto> streamDtosByAttendanceDate(@Param("date") LocalDate date);
+
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+	@Query(DTO_SELECT + "WHERE b.id = :batchId AND (:startDate IS NULL OR a.attendanceDate >= :startDate) "
+			+ "AND (:endDate IS NULL OR a.attendanceDate <= :endDate) ORDER BY a.attendanceDate, a.id")
+	Stream<AttendanceDto> streamDtosByBatchId(@Param("batchId") Long batchId, @Param("startDate") LocalDate startDate,
+			@Param("endDate") LocalDate endDate);
+
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+	@Query(DTO_SELECT + "WHERE s.id = :studentId AND (:startDate IS NULL OR a.attendanceDate >= :startDate) "
+			+ "AND (:endDate IS NULL OR a.attendanceDate <= :endDate) ORDER BY a.attendanceDate, a.id")
+	Stream<AttendanceDto> streamDtosByStudentId(@Param("studentId") Long studentId,
+			@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+	@Query(DTO_SELECT + "WHERE a.attendanceDate = :date AND a.id < :cursorId ORDER BY a.id DESC")
+	List<AttendanceDto> findPageByDate(@Param("date") LocalDate date, @Param("cursorId") long cursorId, Limit limit);
+
+	@Query(DTO_SELECT + "WHERE a.student.id = :studentId AND a.attendanceDate <= :cursorDate "
+			+ "AND (a.attendanceDate < :cursorDate OR a.id < :cursorId) ORDER BY a.attendanceDate DESC, a.id DESC")
+	List<AttendanceDto> findPageByStudentId(@Param("studentId") Long studentId,
+			@Param("cursorDate") LocalDate cursorDate, @Param("cursorId") long cursorId, Limit limit);
+
+	@Query(DTO_SELECT + "WHERE a.batch.id = :batchId AND a.attendanceDate <= :cursorDate "
+			+ "AND (a.attendanceDate < :cursorDate OR a.id < :cursorId) ORDER BY a.attendanceDate DESC, a.id DESC")
+	List<AttendanceDto> findPageByBatchId(@Param("batchId") Long batchId, @Param("cursorDate") LocalDate cursorDate,
+			@Param("cursorId") long cursorId, Limit limit);
+
+	@Query(DTO_SELECT + "WHERE a.batch.id = :batchId AND a.attendanceDate = :date AND a.id < :cursorId "
+			+ "ORDER BY a.id DESC")
+	List<AttendanceDto> findPageByBatchIdAndDate(@Param("batchId") Long batchId, @Param("date") LocalDate date,
+			@Param("cursorId") long cursorId, Limit limit);
+
+	@Query("SELECT DISTINCT b.id FROM Attendance a JOIN a.batch b WHERE b.endDate < :cutoff")
+	List<Long> findBatchIdsEndedBefore(@Param("cutoff") LocalDate cutoff);
+
+	@Query("SELECT a.id AS id, a.student.id AS studentId, a.attendanceDate AS attendanceDate, a.status AS status, "
+			+ "a.markedAt AS markedAt, a.qrCodeId AS qrCodeId FROM Attendance a WHERE a.batch.id = :batchId")
+	List<ArchiveRow> findArchiveRowsByBatchId(@Param("batchId") Long batchId);
+
+	@Query("SELECT a.id FROM Attendance a WHERE a.batch.id = :batchId "
+			+ "AND a.attendanceDate BETWEEN :startDate AND :endDate")
+	List<Long> findIdsByBatchIdBetween(@Param("batchId") Long batchId, @Param("startDate") LocalDate startDate,
+			@Param("endDate") LocalDate endDate);
+
+	@Modifying
+	@Query("DELETE FROM Attendance a WHERE a.id IN :ids")
+	int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+	interface AttendanceMark {
+		Long getId();
+
+		Long getStudentId();
+
+		Long getBatchId();
+
+		AttendanceStatus getStatus();
+	}
+
+	interface AttendanceCell {
+		Long getStudentId();
+
+		LocalDate getAttendanceDate();
+
+		AttendanceStatus getStatus();
+	}
+
+	interface ArchiveRow {
+		Long getId();
+
+		Long getStudentId();
+
+		LocalDate getAttendanceDate();
+
+		AttendanceStatus getStatus();
+
+		LocalDateTime getMarkedAt();
+
+		String getQrCodeId();
+	}
 }
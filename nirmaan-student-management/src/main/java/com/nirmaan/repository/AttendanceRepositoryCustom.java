@@ -0,0 +1,23 @@
+package com.nirmaan.repository;
+
+import com.nirmaan.entity.Attendance;
+
+import java.util.List;
+
+public interface AttendanceRepositoryCustom {
+
+	/**
+	 * Inserts the row with a single INSERT that skips a duplicate of the
+	 * (student_id, attendance_date) unique key. Returns false, without
+	 * throwing, when the student is already marked for that date.
+	 */
+	boolean insertIfAbsent(Attendance attendance);
+
+	/**
+	 * Multi-row INSERT of the given rows that skips unique key duplicates,
+	 * chunked to bound the statement size. Returns the rows that were
+	 * actually written, with their ids assigned; rows that hit the unique
+	 * key are left out.
+	 */
+	List<Attendance> insertAllIfAbsent(List<Attendance> rows);
+}
@@ -0,0 +1,114 @@
+package com.nirmaan.repository;
+
+import com.nirmaan.entity.Attendance;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class AttendanceRepositoryImpl implements AttendanceRepositoryCustom {
+
+	private static final String INSERT_PREFIX = "INSERT INTO attendance "
+			+ "(id, student_id, batch_id, attendance_date, status, marked_at, qr_code_id) VALUES ";
+
+	// Only a duplicate (student, date) is skipped; foreign key misses and bad values still fail the insert
+	private static final String SKIP_DUPLICATE_SUFFIX = " ON DUPLICATE KEY UPDATE id = id";
+
+	private static final int COLUMNS = 7;
+
+	private static final int MULTI_ROW_CHUNK = 500;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	@Transactional
+	public boolean insertIfAbsent(Attendance attendance) {
+		SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+		Long id = nextId(session, attendance);
+
+		bindRow(entityManager.createNativeQuery(insertSql(1)), 0, id, attendance).executeUpdate();
+
+		if (written(List.of(id)).isEmpty()) {
+			return false;
+		}
+		attendance.setId(id);
+		return true;
+	}
+
+	@Override
+	@Transactional
+	public List<Attendance> insertAllIfAbsent(List<Attendance> rows) {
+		SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+		List<Attendance> inserted = new ArrayList<>(rows.size());
+
+		for (int from = 0; from < rows.size(); from += MULTI_ROW_CHUNK) {
+			List<Attendance> chunk = rows.subList(from, Math.min(rows.size(), from + MULTI_ROW_CHUNK));
+			List<Long> ids = new ArrayList<>(chunk.size());
+			Query query = entityManager.createNativeQuery(insertSql(chunk.size()));
+			for (int i = 0; i < chunk.size(); i++) {
+				Long id = nextId(session, chunk.get(i));
+				ids.add(id);
+				bindRow(query, i, id, chunk.get(i));
+			}
+
+			query.executeUpdate();
+			Set<Long> written = written(ids);
+			for (int i = 0; i < chunk.size(); i++) {
+				if (written.contains(ids.get(i))) {
+					chunk.get(i).setId(ids.get(i));
+					inserted.add(chunk.get(i));
+				}
+			}
+		}
+		return inserted;
+	}
+
+	/**
+	 * Which of the freshly generated ids were inserted. The update count cannot
+	 * tell: with Connector/J's default found-rows reporting a skipped duplicate
+	 * counts as one row, the same as an insert.
+	 */
+	private Set<Long> written(List<Long> ids) {
+		return new HashSet<>(entityManager.createQuery("SELECT a.id FROM Attendance a WHERE a.id IN :ids", Long.class)
+				.setParameter("ids", ids)
+				.getResultList());
+	}
+
+	private Long nextId(SharedSessionContractImplementor session, Attendance attendance) {
+		BeforeExecutionGenerator generator = (BeforeExecutionGenerator) session.getEntityPersister(null, attendance)
+				.getGenerator();
+		return (Long) generator.generate(session, attendance, null, EventType.INSERT);
+	}
+
+	private String insertSql(int rows) {
+		StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+		for (int row = 0; row < rows; row++) {
+			sql.append(row == 0 ? "(" : ", (");
+			for (int column = 1; column <= COLUMNS; column++) {
+				sql.append(column == 1 ? "?" : ", ?").append(row * COLUMNS + column);
+			}
+			sql.append(')');
+		}
+		return sql.append(SKIP_DUPLICATE_SUFFIX).toString();
+	}
+
+	private Query bindRow(Query query, int row, Long id, Attendance attendance) {
+		int offset = row * COLUMNS;
+		return query.setParameter(offset + 1, id)
+				.setParameter(offset + 2, attendance.getStudent().getId())
+				.setParameter(offset + 3, attendance.getBatch() != null ? attendance.getBatch().getId() : null)
+				.setParameter(offset + 4, attendance.getAttendanceDate())
+				.setParameter(offset + 5, attendance.getStatus().name())
+				.setParameter(offset + 6, attendance.getMarkedAt())
+				.setParameter(offset + 7, attendance.getQrCodeId());
+	}
+}
@@ -0,0 +1,61 @@
+package com.nirmaan.repository;
+
+import com.nirmaan.entity.AttendanceRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AttendanceRollupRepository extends JpaRepository<AttendanceRollup, Long> {
+	List<AttendanceRollup> findByAttendanceDate(LocalDate date);
+
+	@Modifying
+	@Query(value = "INSERT INTO attendance_daily_rollups (attendance_date, batch_id, present_count, absent_count, late_count) "
+			+ "VALUES (:date, :batchId, :present, :absent, :late) ON DUPLICATE KEY UPDATE "
+			+ "present_count = present_count + VALUES(present_count), "
+			+ "absent_count = absent_count + VALUES(absent_count), "
+			+ "late_count = late_count + VALUES(late_count)", nativeQuery = true)
+	int applyDelta(@Param("date") LocalDate date, @Param("batchId") Long batchId, @Param("present") int present,
+			@Param("absent") int absent, @Param("late") int late);
+
+	@Query("SELECT SUM(r.presentCount) AS present, SUM(r.absentCount) AS absent, SUM(r.lateCount) AS late "
+			+ "FROM AttendanceRollup r WHERE r.attendanceDate BETWEEN :startDate AND :endDate")
+	Totals sumBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+	@Query("SELECT SUM(r.presentCount) AS present, SUM(r.absentCount) AS absent, SUM(r.lateCount) AS late "
+			+ "FROM AttendanceRollup r")
+	Totals sumAll();
+
+	@Query("SELECT r.attendanceDate AS date, SUM(r.presentCount) AS present, SUM(r.absentCount) AS absent, "
+			+ "SUM(r.lateCount) AS late FROM AttendanceRollup r WHERE r.attendanceDate BETWEEN :startDate AND :endDate "
+			+ "GROUP BY r.attendanceDate ORDER BY r.attendanceDate")
+	List<DailyTotals> sumByDate(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+	@Modifying
+	@Query("DELETE FROM AttendanceRollup r WHERE r.attendanceDate BETWEEN :startDate AND :endDate")
+	int deleteBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+	@Modifying
+	@Query(value = "INSERT INTO attendance_daily_rollups (attendance_date, batch_id, present_count, absent_count, late_count) "
+			+ "SELECT attendance_date, COALESCE(batch_id, 0), SUM(status = 'PRESENT'), SUM(status = 'ABSENT'), "
+			+ "SUM(status = 'LATE') FROM attendance WHERE attendance_date BETWEEN :startDate AND :endDate "
+			+ "GROUP BY attendance_date, COALESCE(batch_id, 0)", nativeQuery = true)
+	int rebuildBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+	interface Totals {
+		Long getPresent();
+
+		Long getAbsent();
+
+		Long getLate();
+	}
+
+	interface DailyTotals extends Totals {
+		LocalDate getDate();
+	}
+}
@@ -4,8 +4,11 @@ import com.nirmaan.entity.Batch;
 import com.nirmaan.entity.Trainer;
 import com.nirmaan.entity.Course;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Repository
@@ -15,4 +18,8 @@ public interface BatchRepository extends JpaRepository<Batch, Long> {
 	List<Batch> findByCourse(Course course);
 
 	List<Batch> findByActiveTrue();
+
+	@Query("SELECT b.id FROM Batch b WHERE b.active = true AND (b.startDate IS NULL OR b.startDate <= :date) "
+			+ "AND (b.endDate IS NULL OR b.endDate >= :date)")
+	List<Long> findActiveIdsRunningOn(@Param("date") LocalDate date);
 }
@@ -2,10 +2,16 @@ package com.nirmaan.repository;
 
 import com.nirmaan.entity.QRCode;
 import com.nirmaan.entity.Batch;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,7 +21,35 @@ public interface QRCodeRepository extends JpaRepository<QRCode, Long> {
 
 	List<QRCode> findByBatch(Batch batch);
 
+	Optional<QRCode> findFirstByBatchIdAndValidDateAndActiveTrueOrderByGeneratedAtDesc(Long batchId,
+			LocalDate validDate);
+
 	List<QRCode> findByValidDate(LocalDate date);
 
 	List<QRCode> findByActiveTrue();
+
+	List<QRCode> findByActiveFalseAndExpiresAtAfter(LocalDateTime time);
+
+	@Query("SELECT q.batch.id FROM QRCode q WHERE q.validDate = :date AND q.active = true")
+	List<Long> findBatchIdsWithActiveCodeOn(@Param("date") LocalDate date);
+
+	@Query("SELECT q.id FROM QRCode q WHERE q.active = true AND q.expiresAt < :now ORDER BY q.id")
+	List<Long> findExpiredActiveIds(@Param("now") LocalDateTime now, Limit limit);
+
+	@Modifying
+	@Query("UPDATE QRCode q SET q.active = false, q.activeDate = null WHERE q.id IN :ids")
+	int deactivateByIdIn(@Param("ids") Collection<Long> ids);
+
+	@Query("SELECT q.id FROM QRCode q WHERE q.validDate < :date ORDER BY q.id")
+	List<Long> findIdsValidBefore(@Param("date") LocalDate date, Limit limit);
+
+	@Modifying
+	@Query(value = "INSERT INTO qr_codes_archive (id, qr_code_id, batch_id, valid_date, generated_at, expires_at) "
+			+ "SELECT id, qr_code_id, batch_id, valid_date, generated_at, expires_at FROM qr_codes "
+			+ "WHERE id IN (:ids)", nativeQuery = true)
+	int archiveByIdIn(@Param("ids") Collection<Long> ids);
+
+	@Modifying
+	@Query("DELETE FROM QRCode q WHERE q.id IN :ids")
+	int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -3,6 +3,8 @@ package com.nirmaan.repository;
 import com.nirmaan.entity.Question;
 import com.nirmaan.entity.Quiz;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,4 +12,18 @@ import java.util.List;
 @Repository
 public interface QuestionRepository extends JpaRepository<Question, Long> {
 	List<Question> findByQuiz(Quiz quiz);
+
+	List<Question> findByQuizOrderByIdAsc(Quiz quiz);
+
+	@Query("SELECT q.id AS id, q.correctAnswer AS correctAnswer, q.marks AS marks FROM Question q "
+			+ "WHERE q.quiz.id = :quizId ORDER BY q.id")
+	List<AnswerKey> findAnswerKeysByQuizId(@Param("quizId") Long quizId);
+
+	interface AnswerKey {
+		Long getId();
+
+		String getCorrectAnswer();
+
+		Integer getMarks();
+	}
 }
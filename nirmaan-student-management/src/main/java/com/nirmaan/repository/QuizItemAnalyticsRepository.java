@@ -0,0 +1,9 @@
+package com.nirmaan.repository;
+
+import com.nirmaan.entity.QuizItemAnalytics;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface QuizItemAnalyticsRepository extends JpaRepository<QuizItemAnalytics, Long> {
+}
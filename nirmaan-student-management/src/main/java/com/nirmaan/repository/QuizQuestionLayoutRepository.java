@@ -0,0 +1,12 @@
+package com.nirmaan.repository;
+
+import com.nirmaan.entity.QuizQuestionLayout;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface QuizQuestionLayoutRepository extends JpaRepository<QuizQuestionLayout, Long> {
+	Optional<QuizQuestionLayout> findByQuizIdAndLayoutHash(Long quizId, Integer layoutHash);
+}
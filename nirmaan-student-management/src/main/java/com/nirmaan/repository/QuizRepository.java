@@ -1,16 +1,24 @@
 package com.nirmaan.repository;
 
+import com.nirmaan.dto.QuizSummaryDto;
 import com.nirmaan.entity.Quiz;
 import com.nirmaan.entity.Trainer;
 import com.nirmaan.entity.Batch;
 import com.nirmaan.enums.CourseType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface QuizRepository extends JpaRepository<Quiz, Long> {
+	String SUMMARY_SELECT = "SELECT new com.nirmaan.dto.QuizSummaryDto(q.id, q.title, q.description, "
+			+ "CONCAT(u.firstName, ' ', u.lastName), q.courseType, b.id, b.batchName, q.timeLimit, q.startTime, "
+			+ "q.endTime) FROM Quiz q LEFT JOIN q.trainer t LEFT JOIN t.user u LEFT JOIN q.batch b ";
+
 	List<Quiz> findByTrainer(Trainer trainer);
 
 	List<Quiz> findByBatch(Batch batch);
@@ -18,4 +26,10 @@ public interface QuizRepository extends JpaRepository<Quiz, Long> {
 	List<Quiz> findByCourseType(CourseType courseType);
 
 	List<Quiz> findByActiveTrue();
+
+	@Query(SUMMARY_SELECT + "WHERE q.active = true")
+	List<QuizSummaryDto> findActiveSummaries();
+
+	@Query(SUMMARY_SELECT + "WHERE q.id = :id AND q.active = true")
+	Optional<QuizSummaryDto> findActiveSummaryById(@Param("id") Long id);
 }
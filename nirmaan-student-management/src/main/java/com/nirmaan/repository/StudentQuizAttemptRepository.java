@@ -4,8 +4,12 @@ import com.nirmaan.entity.StudentQuizAttempt;
 import com.nirmaan.entity.Student;
 import com.nirmaan.entity.Quiz;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,4 +20,105 @@ public interface StudentQuizAttemptRepository extends JpaRepository<StudentQuizA
 	List<StudentQuizAttempt> findByQuiz(Quiz quiz);
 
 	Optional<StudentQuizAttempt> findByStudentAndQuiz(Student student, Quiz quiz);
+
+	boolean existsByStudentIdAndQuizId(Long studentId, Long quizId);
+
+	@Query("SELECT a.student.id FROM StudentQuizAttempt a WHERE a.quiz.id = :quizId")
+	List<Long> findStudentIdsByQuizId(@Param("quizId") Long quizId);
+
+	long countByQuizId(Long quizId);
+
+	@Query("SELECT a.id FROM StudentQuizAttempt a WHERE a.quiz.id = :quizId")
+	List<Long> findIdsByQuizId(@Param("quizId") Long quizId);
+
+	@Query("SELECT a.id AS id, a.answerCodes AS answerCodes, a.answers AS answers, a.score AS score "
+			+ "FROM StudentQuizAttempt a WHERE a.id IN :ids")
+	List<ScoredAnswers> findScoredAnswersByIdIn(@Param("ids") Collection<Long> ids);
+
+	@Query("SELECT a.id AS attemptId, s.id AS studentId, s.studentId AS rollNumber, "
+			+ "CONCAT(u.firstName, ' ', u.lastName) AS studentName, a.score AS score, "
+			+ "a.correctAnswers AS correctAnswers, a.totalQuestions AS totalQuestions, a.endTime AS submittedAt "
+			+ "FROM StudentQuizAttempt a JOIN a.student s JOIN s.user u WHERE a.quiz.id = :quizId "
+			+ "ORDER BY a.score DESC, a.endTime")
+	List<Result> findResultsByQuizId(@Param("quizId") Long quizId);
+
+	String ATTEMPT_VIEW_SELECT = "SELECT a.id AS id, s.id AS studentId, CONCAT(u.firstName, ' ', u.lastName) AS studentName, "
+			+ "q.id AS quizId, q.title AS quizTitle, a.startTime AS startTime, a.endTime AS endTime, "
+			+ "a.totalQuestions AS totalQuestions, a.correctAnswers AS correctAnswers, a.score AS score, "
+			+ "a.completed AS completed, a.answerCodes AS answerCodes, a.answers AS answers "
+			+ "FROM StudentQuizAttempt a JOIN a.student s JOIN s.user u JOIN a.quiz q ";
+
+	@Query(ATTEMPT_VIEW_SELECT + "WHERE s.id = :studentId ORDER BY a.endTime DESC")
+	List<AttemptView> findViewsByStudentId(@Param("studentId") Long studentId);
+
+	@Query(ATTEMPT_VIEW_SELECT + "WHERE q.id = :quizId ORDER BY a.endTime DESC")
+	List<AttemptView> findViewsByQuizId(@Param("quizId") Long quizId);
+
+	@Query("SELECT a.student.id AS studentId, a.score AS score, a.endTime AS submittedAt "
+			+ "FROM StudentQuizAttempt a WHERE a.quiz.id = :quizId")
+	List<Standing> findStandingsByQuizId(@Param("quizId") Long quizId);
+
+	interface ScoredAnswers {
+		Long getId();
+
+		byte[] getAnswerCodes();
+
+		String getAnswers();
+
+		Integer getScore();
+	}
+
+	interface AttemptView {
+		Long getId();
+
+		Long getStudentId();
+
+		String getStudentName();
+
+		Long getQuizId();
+
+		String getQuizTitle();
+
+		LocalDateTime getStartTime();
+
+		LocalDateTime getEndTime();
+
+		Integer getTotalQuestions();
+
+		Integer getCorrectAnswers();
+
+		Integer getScore();
+
+		Boolean getCompleted();
+
+		byte[] getAnswerCodes();
+
+		String getAnswers();
+	}
+
+	interface Standing {
+		Long getStudentId();
+
+		Integer getScore();
+
+		LocalDateTime getSubmittedAt();
+	}
+
+	interface Result {
+		Long getAttemptId();
+
+		Long getStudentId();
+
+		String getRollNumber();
+
+		String getStudentName();
+
+		Integer getScore();
+
+		Integer getCorrectAnswers();
+
+		Integer getTotalQuestions();
+
+		LocalDateTime getSubmittedAt();
+	}
 }
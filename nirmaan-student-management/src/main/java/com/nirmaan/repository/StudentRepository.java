@@ -4,8 +4,11 @@ import com.nirmaan.entity.Student;
 import com.nirmaan.entity.Batch;
 import com.nirmaan.enums.CourseType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,4 +23,30 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
 	List<Student> findByEnrolledCourse(CourseType courseType);
 
 	boolean existsByStudentId(String studentId);
+
+	@Query("SELECT s.id FROM Student s WHERE s.batch.id = :batchId")
+	List<Long> findIdsByBatchId(@Param("batchId") Long batchId);
+
+	@Query("SELECT s.id AS id, CONCAT(u.firstName, ' ', u.lastName) AS name "
+			+ "FROM Student s JOIN s.user u WHERE s.batch.id = :batchId")
+	List<StudentName> findNamesByBatchId(@Param("batchId") Long batchId);
+
+	@Query("SELECT s.id AS id, CONCAT(u.firstName, ' ', u.lastName) AS name "
+			+ "FROM Student s JOIN s.user u WHERE s.id IN :ids")
+	List<StudentName> findNamesByIdIn(@Param("ids") Collection<Long> ids);
+
+	@Query("SELECT s.id AS id, b.id AS batchId FROM Student s LEFT JOIN s.batch b WHERE s.id IN :ids")
+	List<StudentBatch> findBatchIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+	interface StudentBatch {
+		Long getId();
+
+		Long getBatchId();
+	}
+
+	interface StudentName {
+		Long getId();
+
+		String getName();
+	}
 }
@@ -0,0 +1,263 @@
+package com.nirmaan.service;
+
+import com.nirmaan.dto.AttendanceArchiveReport;
+import com.nirmaan.dto.AttendanceDto;
+import com.nirmaan.entity.Batch;
+import com.nirmaan.exception.ValidationException;
+import com.nirmaan.repository.AttendanceRepository;
+import com.nirmaan.repository.BatchRepository;
+import com.nirmaan.repository.StudentRepository;
+import com.nirmaan.util.AttendanceColdStore;
+import com.nirmaan.util.AttendanceCursor;
+import com.nirmaan.util.AttendanceSegment;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Moves the attendance of batches that ended more than the grace period ago
+ * out of the attendance table into the cold store, and turns cold rows back
+ * into {@link AttendanceDto}s for the read paths that merge both tiers.
+ * <p>
+ * A batch is archived by writing a segment with every row it has, old and
+ * new, and only then deleting the hot rows in chunks. A crash in between
+ * leaves rows in both tiers; the next run rewrites the segment deduplicated
+ * by id and finishes the delete. Until the delete is done a row can be read
+ * from both tiers, so readers that merge them drop repeated ids.
+ * <p>
+ * Archiving is off by default. Archived rows exist only in the cold store,
+ * so enabling it requires an absolute archive path on durable storage shared
+ * by every node, and archived rows are read-only: they can no longer be
+ * updated or deleted.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AttendanceArchiveService {
+
+	/** Newest first, the order every paged attendance listing uses. */
+	public static final Comparator<AttendanceDto> NEWEST_FIRST = Comparator
+			.comparing(AttendanceDto::getAttendanceDate).thenComparing(AttendanceDto::getId).reversed();
+
+	private static final Comparator<AttendanceSegment.Row> ROW_NEWEST_FIRST = Comparator
+			.comparing(AttendanceSegment.Row::attendanceDate).thenComparingLong(AttendanceSegment.Row::id)
+			.reversed();
+
+	private final AttendanceRepository attendanceRepository;
+	private final StudentRepository studentRepository;
+	private final BatchRepository batchRepository;
+	private final AttendanceColdStore attendanceColdStore;
+	private final TransactionTemplate transactionTemplate;
+
+	@Value("${app.attendance.archive.enabled:false}")
+	private boolean enabled;
+
+	@Value("${app.attendance.archive.grace-days:30}")
+	private int graceDays;
+
+	@Value("${app.attendance.archive.chunk-size:1000}")
+	private int chunkSize;
+
+	@PostConstruct
+	void checkArchivePath() {
+		if (enabled && !attendanceColdStore.isConfigured()) {
+			throw new IllegalStateException("app.attendance.archive.enabled requires app.attendance.archive.path "
+					+ "to point at durable storage shared by every node");
+		}
+	}
+
+	@Scheduled(cron = "${app.attendance.archive.cron:0 45 1 * * *}") // After QR retention, outside class hours
+	public void scheduledArchive() {
+		if (enabled) {
+			archiveEndedBatches();
+		}
+	}
+
+	public synchronized AttendanceArchiveReport archiveEndedBatches() {
+		if (!enabled) {
+			throw new ValidationException("Attendance archiving is disabled");
+		}
+		long started = System.nanoTime();
+		LocalDate endedBefore = LocalDate.now().minusDays(graceDays);
+		int batches = 0;
+		int archived = 0;
+		int failed = 0;
+
+		for (Long batchId : attendanceRepository.findBatchIdsEndedBefore(endedBefore)) {
+			try {
+				archived += archiveBatch(batchId);
+				batches++;
+			} catch (Exception e) {
+				failed++;
+				log.error("Could not archive attendance for batch {}", batchId, e);
+			}
+		}
+
+		AttendanceArchiveReport report = new AttendanceArchiveReport(batches, archived, failed, endedBefore,
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+		log.info("Attendance archive: {} rows from {} batches ended before {} ({} failed), {} ms", archived, batches,
+				endedBefore, failed, report.getDurationMs());
+		return report;
+	}
+
+	private int archiveBatch(Long batchId) throws Exception {
+		List<AttendanceRepository.ArchiveRow> hotRows = attendanceRepository.findArchiveRowsByBatchId(batchId);
+		if (hotRows.isEmpty()) {
+			return 0;
+		}
+
+		Map<Long, AttendanceSegment.Row> rows = new LinkedHashMap<>();
+		for (AttendanceSegment.Row row : attendanceColdStore.rowsForBatch(batchId)) {
+			rows.put(row.id(), row);
+		}
+		for (AttendanceRepository.ArchiveRow row : hotRows) {
+			rows.put(row.getId(), new AttendanceSegment.Row(row.getId(), row.getStudentId(), batchId,
+					row.getAttendanceDate(), row.getStatus(), row.getMarkedAt(), row.getQrCodeId()));
+		}
+		attendanceColdStore.publish(batchId, new ArrayList<>(rows.values()));
+
+		List<Long> ids = hotRows.stream().map(AttendanceRepository.ArchiveRow::getId).collect(Collectors.toList());
+		int deleted = 0;
+		for (int from = 0; from < ids.size(); from += chunkSize) {
+			List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+			Integer count = transactionTemplate.execute(status -> attendanceRepository.deleteByIdIn(chunk));
+			deleted += count != null ? count : 0;
+		}
+		return deleted;
+	}
+
+	public List<AttendanceDto> getStudentRows(Long studentId, LocalDate startDate, LocalDate endDate) {
+		if (attendanceColdStore.isEmpty()) {
+			return List.of();
+		}
+		List<AttendanceSegment.Row> rows = attendanceColdStore.rowsForStudent(studentId);
+		rows.removeIf(row -> !inRange(row.attendanceDate(), startDate, endDate));
+		rows.sort(ROW_NEWEST_FIRST.reversed());
+		return toDtos(rows);
+	}
+
+	public List<AttendanceDto> getBatchRows(Long batchId, LocalDate startDate, LocalDate endDate) {
+		if (attendanceColdStore.isEmpty()) {
+			return List.of();
+		}
+		List<AttendanceSegment.Row> rows = attendanceColdStore.rowsForBatch(batchId);
+		rows.removeIf(row -> !inRange(row.attendanceDate(), startDate, endDate));
+		rows.sort(ROW_NEWEST_FIRST.reversed());
+		return toDtos(rows);
+	}
+
+	public List<AttendanceDto> getDateRows(LocalDate date) {
+		if (attendanceColdStore.isEmpty()) {
+			return List.of();
+		}
+		List<AttendanceSegment.Row> rows = attendanceColdStore.rowsOn(date);
+		rows.sort(Comparator.comparingLong(AttendanceSegment.Row::id));
+		return toDtos(rows);
+	}
+
+	public List<AttendanceDto> getStudentPage(Long studentId, AttendanceCursor position, int limit) {
+		return attendanceColdStore.isEmpty() ? List.of()
+				: page(attendanceColdStore.rowsForStudent(studentId), position, limit, row -> true);
+	}
+
+	public List<AttendanceDto> getBatchPage(Long batchId, AttendanceCursor position, int limit) {
+		return attendanceColdStore.isEmpty() ? List.of()
+				: page(attendanceColdStore.rowsForBatch(batchId), position, limit, row -> true);
+	}
+
+	public List<AttendanceDto> getBatchDatePage(Long batchId, LocalDate date, AttendanceCursor position,
+			int limit) {
+		return attendanceColdStore.isEmpty() ? List.of()
+				: page(attendanceColdStore.rowsForBatch(batchId), position, limit,
+						row -> row.attendanceDate().equals(date));
+	}
+
+	public List<AttendanceDto> getDatePage(LocalDate date, AttendanceCursor position, int limit) {
+		return attendanceColdStore.isEmpty() ? List.of()
+				: page(attendanceColdStore.rowsOn(date), new AttendanceCursor(date, position.id()), limit,
+						row -> true);
+	}
+
+	public boolean isArchived(Long attendanceId) {
+		return !attendanceColdStore.isEmpty() && attendanceColdStore.containsId(attendanceId);
+	}
+
+	public Map<String, Object> getStats() {
+		return attendanceColdStore.getStats();
+	}
+
+	/**
+	 * Drops rows whose id already appeared earlier in the list; lists sorted
+	 * by date and id keep the copy that was added to them first.
+	 */
+	public static List<AttendanceDto> distinctById(List<AttendanceDto> rows) {
+		Set<Long> seen = new HashSet<>();
+		rows.removeIf(row -> !seen.add(row.getId()));
+		return rows;
+	}
+
+	/**
+	 * Keeps the rows strictly after the cursor, newest first, up to limit; the
+	 * caller merges them with the hot page of the same shape.
+	 */
+	private List<AttendanceDto> page(List<AttendanceSegment.Row> rows, AttendanceCursor position, int limit,
+			Predicate<AttendanceSegment.Row> filter) {
+		List<AttendanceSegment.Row> matching = new ArrayList<>();
+		for (AttendanceSegment.Row row : rows) {
+			int byDate = row.attendanceDate().compareTo(position.attendanceDate());
+			if ((byDate < 0 || (byDate == 0 && row.id() < position.id())) && filter.test(row)) {
+				matching.add(row);
+			}
+		}
+		matching.sort(ROW_NEWEST_FIRST);
+		return toDtos(matching.subList(0, Math.min(limit, matching.size())));
+	}
+
+	private List<AttendanceDto> toDtos(List<AttendanceSegment.Row> rows) {
+		if (rows.isEmpty()) {
+			return new ArrayList<>();
+		}
+		Set<Long> studentIds = new HashSet<>();
+		Set<Long> batchIds = new HashSet<>();
+		for (AttendanceSegment.Row row : rows) {
+			studentIds.add(row.studentId());
+			batchIds.add(row.batchId());
+		}
+		Map<Long, String> studentNames = new HashMap<>();
+		for (StudentRepository.StudentName student : studentRepository.findNamesByIdIn(studentIds)) {
+			studentNames.put(student.getId(), student.getName());
+		}
+		Map<Long, String> batchNames = new HashMap<>();
+		for (Batch batch : batchRepository.findAllById(batchIds)) {
+			batchNames.put(batch.getId(), batch.getBatchName());
+		}
+
+		List<AttendanceDto> dtos = new ArrayList<>(rows.size());
+		for (AttendanceSegment.Row row : rows) {
+			dtos.add(new AttendanceDto(row.id(), row.studentId(), studentNames.get(row.studentId()),
+					batchNames.get(row.batchId()), row.attendanceDate(), row.status(), row.markedAt()));
+		}
+		return dtos;
+	}
+
+	private boolean inRange(LocalDate date, LocalDate startDate, LocalDate endDate) {
+		return (startDate == null || !date.isBefore(startDate)) && (endDate == null || !date.isAfter(endDate));
+	}
+}
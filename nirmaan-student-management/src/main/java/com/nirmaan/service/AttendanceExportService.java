@@ -0,0 +1,123 @@
+package com.nirmaan.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nirmaan.dto.AttendanceDto;
+import com.nirmaan.enums.ExportFormat;
+import com.nirmaan.repository.AttendanceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes attendance rows straight from a database cursor to the response, one
+ * row at a time, so memory use does not grow with the size of the export.
+ * Archived rows of the same selection are written ahead of the live ones,
+ * and live rows already written from the archive are skipped.
+ */
+@Service
+@RequiredArgsConstructor
+public class AttendanceExportService {
+
+	private static final String CSV_HEADER = "id,studentId,studentName,batchName,attendanceDate,status,markedAt";
+
+	private final AttendanceRepository attendanceRepository;
+	private final ObjectMapper objectMapper;
+	private final AttendanceArchiveService attendanceArchiveService;
+
+	@Transactional(readOnly = true)
+	public void exportByDate(LocalDate date, ExportFormat format, OutputStream outputStream) throws IOException {
+		List<AttendanceDto> archived = attendanceArchiveService.getDateRows(date);
+		try (Stream<AttendanceDto> rows = Stream.concat(archived.stream(),
+				notArchived(attendanceRepository.streamDtosByAttendanceDate(date), archived))) {
+			write(rows, format, outputStream);
+		}
+	}
+
+	@Transactional(readOnly = true)
+	public void exportByBatch(Long batchId, LocalDate startDate, LocalDate endDate, ExportFormat format,
+			OutputStream outputStream) throws IOException {
+		List<AttendanceDto> archived = attendanceArchiveService.getBatchRows(batchId, startDate, endDate);
+		try (Stream<AttendanceDto> rows = Stream.concat(archived.stream(),
+				notArchived(attendanceRepository.streamDtosByBatchId(batchId, startDate, endDate), archived))) {
+			write(rows, format, outputStream);
+		}
+	}
+
+	@Transactional(readOnly = true)
+	public void exportByStudent(Long studentId, LocalDate startDate, LocalDate endDate, ExportFormat format,
+			OutputStream outputStream) throws IOException {
+		List<AttendanceDto> archived = attendanceArchiveService.getStudentRows(studentId, startDate, endDate);
+		try (Stream<AttendanceDto> rows = Stream.concat(archived.stream(),
+				notArchived(attendanceRepository.streamDtosByStudentId(studentId, startDate, endDate), archived))) {
+			write(rows, format, outputStream);
+		}
+	}
+
+	private Stream<AttendanceDto> notArchived(Stream<AttendanceDto> rows, List<AttendanceDto> archived) {
+		if (archived.isEmpty()) {
+			return rows;
+		}
+		Set<Long> archivedIds = archived.stream().map(AttendanceDto::getId).collect(Collectors.toSet());
+		return rows.filter(row -> !archivedIds.contains(row.getId()));
+	}
+
+	private void write(Stream<AttendanceDto> rows, ExportFormat format, OutputStream outputStream)
+			throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+		if (format == ExportFormat.CSV) {
+			writer.write(CSV_HEADER);
+			writer.write('\n');
+		}
+
+		Iterator<AttendanceDto> iterator = rows.iterator();
+		while (iterator.hasNext()) {
+			AttendanceDto row = iterator.next();
+			if (format == ExportFormat.CSV) {
+				writeCsvRow(writer, row);
+			} else {
+				writer.write(objectMapper.writeValueAsString(row));
+			}
+			writer.write('\n');
+		}
+		writer.flush();
+	}
+
+	private void writeCsvRow(Writer writer, AttendanceDto row) throws IOException {
+		writer.write(String.valueOf(row.getId()));
+		writer.write(',');
+		writer.write(String.valueOf(row.getStudentId()));
+		writer.write(',');
+		writer.write(csvField(row.getStudentName()));
+		writer.write(',');
+		writer.write(csvField(row.getBatchName()));
+		writer.write(',');
+		writer.write(String.valueOf(row.getAttendanceDate()));
+		writer.write(',');
+		writer.write(String.valueOf(row.getStatus()));
+		writer.write(',');
+		writer.write(row.getMarkedAt() != null ? row.getMarkedAt().toString() : "");
+	}
+
+	private String csvField(String value) {
+		if (value == null) {
+			return "";
+		}
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+			return value;
+		}
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+}
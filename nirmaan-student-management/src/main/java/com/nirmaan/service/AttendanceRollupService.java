@@ -0,0 +1,177 @@
+package com.nirmaan.service;
+
+import com.nirmaan.entity.Attendance;
+import com.nirmaan.entity.AttendanceRollup;
+import com.nirmaan.entity.Batch;
+import com.nirmaan.enums.AttendanceStatus;
+import com.nirmaan.repository.AttendanceRepository;
+import com.nirmaan.repository.AttendanceRollupRepository;
+import com.nirmaan.repository.BatchRepository;
+import com.nirmaan.util.AttendanceColdStore;
+import com.nirmaan.util.AttendanceSegment;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains per-day, per-batch attendance counts so that summaries read a
+ * handful of rollup rows instead of every attendance record in the range.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttendanceRollupService {
+
+	private static final long NO_BATCH = 0L;
+
+	private final AttendanceRollupRepository attendanceRollupRepository;
+	private final AttendanceRepository attendanceRepository;
+	private final BatchRepository batchRepository;
+	private final AttendanceColdStore attendanceColdStore;
+
+	public void recordMark(Attendance attendance) {
+		applyDelta(attendance.getAttendanceDate(), batchIdOf(attendance), attendance.getStatus(), 1);
+	}
+
+	public void recordRemoval(Attendance attendance) {
+		applyDelta(attendance.getAttendanceDate(), batchIdOf(attendance), attendance.getStatus(), -1);
+	}
+
+	public void recordStatusChange(Attendance attendance, AttendanceStatus previousStatus) {
+		if (previousStatus == attendance.getStatus()) {
+			return;
+		}
+		applyDelta(attendance.getAttendanceDate(), batchIdOf(attendance), previousStatus, -1);
+		applyDelta(attendance.getAttendanceDate(), batchIdOf(attendance), attendance.getStatus(), 1);
+	}
+
+	public void applyDelta(LocalDate date, Long batchId, AttendanceStatus status, int delta) {
+		attendanceRollupRepository.applyDelta(date, batchId != null ? batchId : NO_BATCH, status == AttendanceStatus.PRESENT ? delta : 0,
+				status == AttendanceStatus.ABSENT ? delta : 0, status == AttendanceStatus.LATE ? delta : 0);
+	}
+
+	public void applyDeltas(LocalDate date, Long batchId, Map<AttendanceStatus, Integer> deltas) {
+		int present = deltas.getOrDefault(AttendanceStatus.PRESENT, 0);
+		int absent = deltas.getOrDefault(AttendanceStatus.ABSENT, 0);
+		int late = deltas.getOrDefault(AttendanceStatus.LATE, 0);
+		if (present != 0 || absent != 0 || late != 0) {
+			attendanceRollupRepository.applyDelta(date, batchId != null ? batchId : NO_BATCH, present, absent, late);
+		}
+	}
+
+	@Transactional
+	public int rebuild(LocalDate startDate, LocalDate endDate) {
+		attendanceRollupRepository.deleteBetween(startDate, endDate);
+		int rows = attendanceRollupRepository.rebuildBetween(startDate, endDate);
+		for (AttendanceSegment segment : attendanceColdStore.overlapping(startDate, endDate)) {
+			// Rows of a batch still being archived are in both tiers and were counted above already
+			Set<Long> hot = new HashSet<>(
+					attendanceRepository.findIdsByBatchIdBetween(segment.getBatchId(), startDate, endDate));
+			Map<LocalDate, Map<AttendanceStatus, Integer>> deltas = new HashMap<>();
+			segment.forEachRow(row -> {
+				if (!row.attendanceDate().isBefore(startDate) && !row.attendanceDate().isAfter(endDate)
+						&& !hot.contains(row.id())) {
+					deltas.computeIfAbsent(row.attendanceDate(), date -> new EnumMap<>(AttendanceStatus.class))
+							.merge(row.status(), 1, Integer::sum);
+				}
+			});
+			deltas.forEach((date, counts) -> applyDeltas(date, segment.getBatchId(), counts));
+			rows += deltas.size();
+		}
+		log.info("Rebuilt {} attendance rollup rows for {} to {}", rows, startDate, endDate);
+		return rows;
+	}
+
+	// Transactional here too: the call to rebuild below does not go through the proxy
+	@Scheduled(cron = "0 30 0 * * *") // Repair the last week shortly after midnight
+	@Transactional
+	public void repairRecent() {
+		LocalDate today = LocalDate.now();
+		rebuild(today.minusDays(7), today);
+	}
+
+	public long countMarks(LocalDate date) {
+		return total(attendanceRollupRepository.sumBetween(date, date));
+	}
+
+	public Map<String, Object> getDaySummary(LocalDate date) {
+		Map<String, Object> summary = toMap(attendanceRollupRepository.sumBetween(date, date));
+		summary.put("date", date);
+
+		List<AttendanceRollup> rollups = attendanceRollupRepository.findByAttendanceDate(date);
+		Map<Long, Batch> batches = batchRepository
+				.findAllById(rollups.stream().map(AttendanceRollup::getBatchId).collect(Collectors.toList()))
+				.stream().collect(Collectors.toMap(Batch::getId, Function.identity()));
+
+		List<Map<String, Object>> batchSummaries = new ArrayList<>();
+		for (AttendanceRollup rollup : rollups) {
+			Map<String, Object> batchSummary = new HashMap<>();
+			batchSummary.put("batchId", rollup.getBatchId());
+			Batch batch = batches.get(rollup.getBatchId());
+			batchSummary.put("batchName", batch != null ? batch.getBatchName() : null);
+			putCounts(batchSummary, rollup.getPresentCount(), rollup.getAbsentCount(), rollup.getLateCount());
+			batchSummaries.add(batchSummary);
+		}
+		summary.put("batches", batchSummaries);
+		return summary;
+	}
+
+	public Map<String, Object> getRangeSummary(LocalDate startDate, LocalDate endDate) {
+		Map<String, Object> summary = toMap(attendanceRollupRepository.sumBetween(startDate, endDate));
+		summary.put("startDate", startDate);
+		summary.put("endDate", endDate);
+
+		List<Map<String, Object>> daily = new ArrayList<>();
+		for (AttendanceRollupRepository.DailyTotals day : attendanceRollupRepository.sumByDate(startDate, endDate)) {
+			Map<String, Object> daySummary = toMap(day);
+			daySummary.put("date", day.getDate());
+			daily.add(daySummary);
+		}
+		summary.put("daily", daily);
+		return summary;
+	}
+
+	public Map<String, Object> getOverallSummary() {
+		return toMap(attendanceRollupRepository.sumAll());
+	}
+
+	private Map<String, Object> toMap(AttendanceRollupRepository.Totals totals) {
+		Map<String, Object> map = new HashMap<>();
+		putCounts(map, valueOf(totals.getPresent()), valueOf(totals.getAbsent()), valueOf(totals.getLate()));
+		return map;
+	}
+
+	private void putCounts(Map<String, Object> map, long present, long absent, long late) {
+		long total = present + absent + late;
+		map.put("present", present);
+		map.put("absent", absent);
+		map.put("late", late);
+		map.put("total", total);
+		map.put("attendancePercentage", total > 0 ? (present + late) * 100.0 / total : 0.0);
+	}
+
+	private Long batchIdOf(Attendance attendance) {
+		return attendance.getBatch() != null ? attendance.getBatch().getId() : null;
+	}
+
+	private long total(AttendanceRollupRepository.Totals totals) {
+		return valueOf(totals.getPresent()) + valueOf(totals.getAbsent()) + valueOf(totals.getLate());
+	}
+
+	private long valueOf(Long count) {
+		return count != null ? count : 0L;
+	}
+}
@@ -1,22 +1,40 @@
 package com.nirmaan.service;
 
+import com.nirmaan.cache.AttendanceMarkIndex;
+import com.nirmaan.cache.AttendanceMatrix;
+import com.nirmaan.cache.AttendanceMatrixStore;
+import com.nirmaan.cache.QRCodeValidityCache;
 import com.nirmaan.dto.AttendanceDto;
+import com.nirmaan.dto.AttendanceMarkResponse;
+import com.nirmaan.dto.BulkMarkResponse;
+import com.nirmaan.dto.CursorPage;
 import com.nirmaan.entity.Attendance;
+import com.nirmaan.entity.Batch;
 import com.nirmaan.entity.Student;
-import com.nirmaan.entity.QRCode;
+import com.nirmaan.enums.AttendanceMarkResult;
 import com.nirmaan.enums.AttendanceStatus;
+import com.nirmaan.enums.BulkMarkOutcome;
 import com.nirmaan.exception.ResourceNotFoundException;
 import com.nirmaan.exception.ValidationException;
 import com.nirmaan.repository.AttendanceRepository;
+import com.nirmaan.repository.BatchRepository;
 import com.nirmaan.repository.StudentRepository;
-import com.nirmaan.repository.QRCodeRepository;
+import com.nirmaan.util.AttendanceCursor;
+import com.nirmaan.util.QRTokenSigner;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -24,47 +42,476 @@ public class AttendanceService {
 
 	private final AttendanceRepository attendanceRepository;
 	private final StudentRepository studentRepository;
-	private final QRCodeRepository qrCodeRepository;
+	private final QRCodeValidityCache qrCodeValidityCache;
+	private final AttendanceMarkIndex attendanceMarkIndex;
+	private final AttendanceWriteBehindService attendanceWriteBehindService;
+	private final AttendanceRollupService attendanceRollupService;
+	private final BatchRepository batchRepository;
+	private final AttendanceMatrixStore attendanceMatrixStore;
+	private final QRTokenSigner qrTokenSigner;
+	private final AttendanceArchiveService attendanceArchiveService;
+	private final QRRotationService qrRotationService;
+
+	@Value("${app.attendance.page.default-size:50}")
+	private int defaultPageSize;
+
+	@Value("${app.attendance.page.max-size:200}")
+	private int maxPageSize;
+
+	@Transactional
+	public AttendanceMarkResponse markAttendance(Long studentId, String qrCodeId) {
+		LocalDate today = LocalDate.now();
+
+		if (attendanceMarkIndex.isMarked(today, studentId)) {
+			return new AttendanceMarkResponse(AttendanceMarkResult.ALREADY_MARKED);
+		}
 
-	public AttendanceDto markAttendance(Long studentId, String qrCodeId) {
 		Student student = studentRepository.findById(studentId)
 				.orElseThrow(() -> new ResourceNotFoundException("Student not found"));
 
-		QRCode qrCode = qrCodeRepository.findByQrCodeId(qrCodeId)
-				.orElseThrow(() -> new ResourceNotFoundException("Invalid QR Code"));
+		AttendanceMarkResult qrCheck = checkQRCode(qrCodeId,
+				student.getBatch() != null ? student.getBatch().getId() : null);
+		if (qrCheck != null) {
+			return new AttendanceMarkResponse(qrCheck);
+		}
+
+		return insertMark(student, today, AttendanceStatus.PRESENT, qrCodeId);
+	}
 
-		if (!qrCode.isActive() || qrCode.getExpiresAt().isBefore(LocalDateTime.now())) {
-			throw new ValidationException("QR Code has expired");
+	/**
+	 * Why the code cannot mark attendance for a student of the batch, or
+	 * {@code null} when it can.
+	 */
+	private AttendanceMarkResult checkQRCode(String qrCodeId, Long studentBatchId) {
+		LocalDateTime now = LocalDateTime.now();
+		if (qrTokenSigner.isTokenFormat(qrCodeId)) {
+			QRTokenSigner.Token token = qrTokenSigner.verify(qrCodeId).orElse(null);
+			if (token == null || !qrRotationService.accepts(token) || qrCodeValidityCache.isRevoked(qrCodeId)) {
+				return AttendanceMarkResult.INVALID_QR;
+			}
+			if (!token.batchId().equals(studentBatchId)) {
+				return AttendanceMarkResult.WRONG_BATCH;
+			}
+			return token.isValidAt(now) ? null : AttendanceMarkResult.EXPIRED_QR;
 		}
 
-		// Check if attendance already marked for today
-		if (attendanceRepository.findByStudentAndAttendanceDate(student, LocalDate.now()).isPresent()) {
-			throw new ValidationException("Attendance already marked for today");
+		// Codes issued before signed tokens, resolved through the cache; never valid while codes rotate
+		if (!qrRotationService.accepts(null)) {
+			return AttendanceMarkResult.INVALID_QR;
 		}
+		QRCodeValidityCache.Entry qrCode = qrCodeValidityCache.lookup(qrCodeId).orElse(null);
+		if (qrCode == null) {
+			return AttendanceMarkResult.INVALID_QR;
+		}
+		if (qrCode.batchId() == null || !qrCode.batchId().equals(studentBatchId)) {
+			return AttendanceMarkResult.WRONG_BATCH;
+		}
+		return qrCode.isValidAt(now) ? null : AttendanceMarkResult.EXPIRED_QR;
+	}
+
+	@Transactional
+	public AttendanceMarkResponse markManualAttendance(Long studentId, AttendanceStatus status, LocalDate date) {
+		if (attendanceMarkIndex.isMarked(date, studentId)) {
+			return new AttendanceMarkResponse(AttendanceMarkResult.ALREADY_MARKED);
+		}
+
+		Student student = studentRepository.findById(studentId)
+				.orElseThrow(() -> new ResourceNotFoundException("Student not found"));
+
+		return insertMark(student, date, status, null);
+	}
+
+	private AttendanceMarkResponse insertMark(Student student, LocalDate date, AttendanceStatus status,
+			String qrCodeId) {
+		if (!attendanceMarkIndex.markIfAbsent(date, student.getId())) {
+			return new AttendanceMarkResponse(AttendanceMarkResult.ALREADY_MARKED);
+		}
+		attendanceMarkIndex.unmarkOnRollback(date, student.getId());
 
 		Attendance attendance = new Attendance();
 		attendance.setStudent(student);
 		attendance.setBatch(student.getBatch());
-		attendance.setAttendanceDate(LocalDate.now());
-		attendance.setStatus(AttendanceStatus.PRESENT);
+		attendance.setAttendanceDate(date);
+		attendance.setStatus(status);
 		attendance.setMarkedAt(LocalDateTime.now());
 		attendance.setQrCodeId(qrCodeId);
 
+		try {
+			if (qrCodeId != null && attendanceWriteBehindService.isEnabled()) {
+				attendanceWriteBehindService.enqueue(student, qrCodeId, date, attendance.getMarkedAt());
+			} else if (!attendanceRepository.insertIfAbsent(attendance)) {
+				// Another node or request won the race; the unique key kept a single row
+				return new AttendanceMarkResponse(AttendanceMarkResult.ALREADY_MARKED);
+			} else {
+				attendanceRollupService.recordMark(attendance);
+				recordInMatrix(attendance);
+			}
+		} catch (RuntimeException e) {
+			attendanceMarkIndex.unmark(date, student.getId());
+			throw e;
+		}
+		return new AttendanceMarkResponse(AttendanceMarkResult.CREATED, convertToDto(attendance));
+	}
+
+	public CursorPage<AttendanceDto> getStudentAttendance(Long studentId, String cursor, Integer size) {
+		if (!studentRepository.existsById(studentId)) {
+			throw new ResourceNotFoundException("Student not found");
+		}
+
+		AttendanceCursor position = AttendanceCursor.decode(cursor);
+		int pageSize = pageSize(size);
+		return toPage(merge(attendanceRepository.findPageByStudentId(studentId, position.attendanceDate(),
+				position.id(), Limit.of(pageSize + 1)),
+				attendanceArchiveService.getStudentPage(studentId, position, pageSize + 1)), pageSize);
+	}
+
+	public List<AttendanceDto> getStudentAttendanceByDateRange(Long studentId, LocalDate startDate,
+			LocalDate endDate) {
+		if (startDate.isAfter(endDate)) {
+			throw new ValidationException("Start date must not be after end date");
+		}
+		if (!studentRepository.existsById(studentId)) {
+			throw new ResourceNotFoundException("Student not found");
+		}
+		List<AttendanceDto> archived = attendanceArchiveService.getStudentRows(studentId, startDate, endDate);
+		List<AttendanceDto> rows = attendanceRepository.findDtosByStudentIdAndDateRange(studentId, startDate, endDate);
+		if (archived.isEmpty()) {
+			return rows;
+		}
+		List<AttendanceDto> merged = new ArrayList<>(rows);
+		merged.addAll(archived);
+		merged.sort(AttendanceArchiveService.NEWEST_FIRST.reversed());
+		return AttendanceArchiveService.distinctById(merged);
+	}
+
+	public CursorPage<AttendanceDto> getAttendanceByDate(LocalDate date, String cursor, Integer size) {
+		AttendanceCursor position = AttendanceCursor.decode(cursor);
+		int pageSize = pageSize(size);
+		return toPage(merge(attendanceRepository.findPageByDate(date, position.id(), Limit.of(pageSize + 1)),
+				attendanceArchiveService.getDatePage(date, position, pageSize + 1)), pageSize);
+	}
+
+	public CursorPage<AttendanceDto> getBatchAttendance(Long batchId, String cursor, Integer size) {
+		if (!batchRepository.existsById(batchId)) {
+			throw new ResourceNotFoundException("Batch not found");
+		}
+
+		AttendanceCursor position = AttendanceCursor.decode(cursor);
+		int pageSize = pageSize(size);
+		return toPage(merge(attendanceRepository.findPageByBatchId(batchId, position.attendanceDate(), position.id(),
+				Limit.of(pageSize + 1)), attendanceArchiveService.getBatchPage(batchId, position, pageSize + 1)),
+				pageSize);
+	}
+
+	public CursorPage<AttendanceDto> getBatchAttendanceByDate(Long batchId, LocalDate date, String cursor,
+			Integer size) {
+		if (!batchRepository.existsById(batchId)) {
+			throw new ResourceNotFoundException("Batch not found");
+		}
+
+		AttendanceCursor position = AttendanceCursor.decode(cursor);
+		int pageSize = pageSize(size);
+		return toPage(merge(attendanceRepository.findPageByBatchIdAndDate(batchId, date, position.id(),
+				Limit.of(pageSize + 1)), attendanceArchiveService.getBatchDatePage(batchId, date, position, pageSize + 1)),
+				pageSize);
+	}
+
+	@Transactional
+	public AttendanceDto updateAttendanceStatus(Long attendanceId, AttendanceStatus status) {
+		Attendance attendance = attendanceRepository.findById(attendanceId)
+				.orElseThrow(() -> notFoundOrArchived(attendanceId));
+
+		AttendanceStatus previousStatus = attendance.getStatus();
+		attendance.setStatus(status);
 		attendance = attendanceRepository.save(attendance);
-		return convertToDto(attendance);
+		attendanceRollupService.recordStatusChange(attendance, previousStatus);
+		recordInMatrix(attendance);
+		return attendanceRepository.findDtoById(attendanceId)
+				.orElseThrow(() -> new ResourceNotFoundException("Attendance record not found"));
 	}
 
-	public List<AttendanceDto> getStudentAttendance(Long studentId) {
+	@Transactional
+	public void deleteAttendance(Long attendanceId) {
+		Attendance attendance = attendanceRepository.findById(attendanceId)
+				.orElseThrow(() -> notFoundOrArchived(attendanceId));
+
+		attendanceRepository.delete(attendance);
+		attendanceRollupService.recordRemoval(attendance);
+		attendanceMarkIndex.unmark(attendance.getAttendanceDate(), attendance.getStudent().getId());
+		if (attendance.getBatch() != null) {
+			attendanceMatrixStore.remove(attendance.getBatch().getId(), attendance.getStudent().getId(),
+					attendance.getAttendanceDate());
+		}
+	}
+
+	private RuntimeException notFoundOrArchived(Long attendanceId) {
+		if (attendanceArchiveService.isArchived(attendanceId)) {
+			return new ValidationException("Attendance record is archived and can no longer be changed");
+		}
+		return new ResourceNotFoundException("Attendance record not found");
+	}
+
+	@Transactional
+	public BulkMarkResponse bulkMarkAttendance(Map<Long, AttendanceStatus> studentAttendanceMap, LocalDate date) {
+		Map<Long, Long> studentBatchIds = new HashMap<>();
+		if (!studentAttendanceMap.isEmpty()) {
+			for (StudentRepository.StudentBatch student : studentRepository
+					.findBatchIdsByIdIn(studentAttendanceMap.keySet())) {
+				studentBatchIds.put(student.getId(), student.getBatchId());
+			}
+		}
+		return applyBulkMarks(studentAttendanceMap, studentBatchIds, date);
+	}
+
+	@Transactional
+	public BulkMarkResponse markAllBatchStudentsPresent(Long batchId, LocalDate date) {
+		if (!batchRepository.existsById(batchId)) {
+			throw new ResourceNotFoundException("Batch not found");
+		}
+
+		Map<Long, AttendanceStatus> studentAttendanceMap = new LinkedHashMap<>();
+		Map<Long, Long> studentBatchIds = new HashMap<>();
+		for (Long studentId : studentRepository.findIdsByBatchId(batchId)) {
+			studentAttendanceMap.put(studentId, AttendanceStatus.PRESENT);
+			studentBatchIds.put(studentId, batchId);
+		}
+		return applyBulkMarks(studentAttendanceMap, studentBatchIds, date);
+	}
+
+	private BulkMarkResponse applyBulkMarks(Map<Long, AttendanceStatus> studentAttendanceMap,
+			Map<Long, Long> studentBatchIds, LocalDate date) {
+		BulkMarkResponse response = new BulkMarkResponse(date);
+		Map<Long, AttendanceRepository.AttendanceMark> existingMarks = new HashMap<>();
+		if (!studentBatchIds.isEmpty()) {
+			for (AttendanceRepository.AttendanceMark mark : attendanceRepository.findMarksByDateAndStudentIds(date,
+					studentBatchIds.keySet())) {
+				existingMarks.put(mark.getStudentId(), mark);
+			}
+		}
+
+		Map<AttendanceStatus, List<Long>> statusChanges = new EnumMap<>(AttendanceStatus.class);
+		Map<Long, Map<AttendanceStatus, Integer>> rollupDeltas = new HashMap<>();
+		List<Attendance> newRows = new ArrayList<>();
+		LocalDateTime markedAt = LocalDateTime.now();
+
+		for (Map.Entry<Long, AttendanceStatus> entry : studentAttendanceMap.entrySet()) {
+			Long studentId = entry.getKey();
+			AttendanceStatus status = entry.getValue();
+			AttendanceRepository.AttendanceMark existing = existingMarks.get(studentId);
+
+			if (!studentBatchIds.containsKey(studentId)) {
+				response.record(studentId, BulkMarkOutcome.STUDENT_NOT_FOUND);
+			} else if (existing != null && existing.getStatus() == status) {
+				response.record(studentId, BulkMarkOutcome.UNCHANGED);
+			} else if (existing != null) {
+				statusChanges.computeIfAbsent(status, s -> new ArrayList<>()).add(existing.getId());
+				addRollupDelta(rollupDeltas, existing.getBatchId(), existing.getStatus(), -1);
+				addRollupDelta(rollupDeltas, existing.getBatchId(), status, 1);
+				if (existing.getBatchId() != null) {
+					attendanceMatrixStore.record(existing.getBatchId(), studentId, date, status);
+				}
+				response.record(studentId, BulkMarkOutcome.UPDATED);
+			} else if (!attendanceMarkIndex.markIfAbsent(date, studentId)) {
+				// Claimed by a QR scan that is still waiting in the write-behind queue
+				response.record(studentId, BulkMarkOutcome.ALREADY_MARKED);
+			} else {
+				attendanceMarkIndex.unmarkOnRollback(date, studentId);
+				Long batchId = studentBatchIds.get(studentId);
+				Attendance attendance = new Attendance();
+				attendance.setStudent(studentRepository.getReferenceById(studentId));
+				attendance.setBatch(batchId != null ? batchRepository.getReferenceById(batchId) : null);
+				attendance.setAttendanceDate(date);
+				attendance.setStatus(status);
+				attendance.setMarkedAt(markedAt);
+				newRows.add(attendance);
+			}
+		}
+
+		statusChanges.forEach((status, ids) -> attendanceRepository.updateStatusByIdIn(status, ids));
+
+		List<Attendance> inserted = attendanceRepository.insertAllIfAbsent(newRows);
+		for (Attendance attendance : inserted) {
+			Long batchId = attendance.getBatch() != null ? attendance.getBatch().getId() : null;
+			addRollupDelta(rollupDeltas, batchId, attendance.getStatus(), 1);
+			recordInMatrix(attendance);
+			response.record(attendance.getStudent().getId(), BulkMarkOutcome.CREATED);
+		}
+		if (inserted.size() < newRows.size()) {
+			for (Attendance attendance : newRows) {
+				if (attendance.getId() == null) {
+					response.record(attendance.getStudent().getId(), BulkMarkOutcome.ALREADY_MARKED);
+				}
+			}
+		}
+
+		rollupDeltas.forEach((batchId, deltas) -> attendanceRollupService.applyDeltas(date, batchId, deltas));
+		return response;
+	}
+
+	private void addRollupDelta(Map<Long, Map<AttendanceStatus, Integer>> rollupDeltas, Long batchId,
+			AttendanceStatus status, int delta) {
+		rollupDeltas.computeIfAbsent(batchId, id -> new EnumMap<>(AttendanceStatus.class)).merge(status, delta,
+				Integer::sum);
+	}
+
+	public Map<String, Object> getStudentAttendanceAnalytics(Long studentId) {
 		Student student = studentRepository.findById(studentId)
 				.orElseThrow(() -> new ResourceNotFoundException("Student not found"));
+		AttendanceMatrix matrix = matrixForStudent(student);
+		LocalDate today = LocalDate.now();
 
-		return attendanceRepository.findByStudent(student).stream().map(this::convertToDto)
-				.collect(Collectors.toList());
+		Map<String, Object> analytics = new HashMap<>();
+		analytics.put("studentId", student.getId());
+		analytics.put("studentName", student.getUser().getFirstName() + " " + student.getUser().getLastName());
+		analytics.put("batchName", student.getBatch().getBatchName());
+		putCounts(analytics, matrix.count(studentId, matrix.getOrigin(), today));
+		analytics.put("currentStreak", matrix.currentStreak(studentId, today));
+		analytics.put("longestStreak", matrix.longestStreak(studentId));
+		return analytics;
 	}
 
-	public List<AttendanceDto> getAttendanceByDate(LocalDate date) {
-		return attendanceRepository.findByAttendanceDate(date).stream().map(this::convertToDto)
-				.collect(Collectors.toList());
+	public Map<String, Object> getBatchAttendanceAnalytics(Long batchId) {
+		AttendanceMatrix matrix = attendanceMatrixStore.forBatch(batchId);
+		return buildBatchReport(batchId, matrix, matrix.getOrigin(), LocalDate.now());
+	}
+
+	public Map<String, Object> generateStudentAttendanceReport(Long studentId, LocalDate startDate,
+			LocalDate endDate) {
+		Student student = studentRepository.findById(studentId)
+				.orElseThrow(() -> new ResourceNotFoundException("Student not found"));
+		AttendanceMatrix matrix = matrixForStudent(student);
+
+		Map<String, Object> report = new HashMap<>();
+		report.put("studentId", student.getId());
+		report.put("studentName", student.getUser().getFirstName() + " " + student.getUser().getLastName());
+		report.put("batchName", student.getBatch().getBatchName());
+		report.put("startDate", startDate);
+		report.put("endDate", endDate);
+		putCounts(report, matrix.count(studentId, startDate, endDate));
+
+		List<Map<String, Object>> daily = new ArrayList<>();
+		for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+			AttendanceStatus status = matrix.get(studentId, date);
+			if (status != null) {
+				Map<String, Object> day = new HashMap<>();
+				day.put("date", date);
+				day.put("status", status);
+				daily.add(day);
+			}
+		}
+		report.put("daily", daily);
+		return report;
+	}
+
+	public Map<String, Object> generateBatchAttendanceReport(Long batchId, LocalDate startDate, LocalDate endDate) {
+		Map<String, Object> report = buildBatchReport(batchId, attendanceMatrixStore.forBatch(batchId), startDate,
+				endDate);
+		report.put("startDate", startDate);
+		report.put("endDate", endDate);
+		return report;
+	}
+
+	public Map<String, Object> getTodayAttendanceSummary() {
+		return attendanceRollupService.getDaySummary(LocalDate.now());
+	}
+
+	public Map<String, Object> getWeeklyAttendanceSummary() {
+		LocalDate today = LocalDate.now();
+		return attendanceRollupService.getRangeSummary(today.minusDays(6), today);
+	}
+
+	public Map<String, Object> getMonthlyAttendanceSummary() {
+		LocalDate today = LocalDate.now();
+		return attendanceRollupService.getRangeSummary(today.withDayOfMonth(1), today);
+	}
+
+	public Map<String, Object> getOverallAttendanceAnalytics() {
+		return attendanceRollupService.getOverallSummary();
+	}
+
+	public int rebuildAttendanceRollups(LocalDate startDate, LocalDate endDate) {
+		return attendanceRollupService.rebuild(startDate, endDate);
+	}
+
+	private int pageSize(Integer requested) {
+		if (requested == null || requested <= 0) {
+			return defaultPageSize;
+		}
+		return Math.min(requested, maxPageSize);
+	}
+
+	/**
+	 * Both tiers return up to pageSize + 1 rows past the cursor in the same
+	 * order, so the first pageSize + 1 of their union is the next page. A row
+	 * of a batch whose archiving has not finished deleting it comes from both;
+	 * the hot copy is kept.
+	 */
+	private List<AttendanceDto> merge(List<AttendanceDto> hotRows, List<AttendanceDto> archivedRows) {
+		if (archivedRows.isEmpty()) {
+			return hotRows;
+		}
+		List<AttendanceDto> rows = new ArrayList<>(hotRows);
+		rows.addAll(archivedRows);
+		rows.sort(AttendanceArchiveService.NEWEST_FIRST);
+		return AttendanceArchiveService.distinctById(rows);
+	}
+
+	/**
+	 * Rows are fetched with a limit of pageSize + 1; the extra row only signals
+	 * that another page exists.
+	 */
+	private CursorPage<AttendanceDto> toPage(List<AttendanceDto> rows, int pageSize) {
+		if (rows.size() <= pageSize) {
+			return new CursorPage<>(rows, null);
+		}
+		List<AttendanceDto> items = new ArrayList<>(rows.subList(0, pageSize));
+		return new CursorPage<>(items, AttendanceCursor.after(items.get(pageSize - 1)).encode());
+	}
+
+	private AttendanceMatrix matrixForStudent(Student student) {
+		if (student.getBatch() == null) {
+			throw new ValidationException("Student is not assigned to a batch");
+		}
+		return attendanceMatrixStore.forBatch(student.getBatch().getId());
+	}
+
+	private Map<String, Object> buildBatchReport(Long batchId, AttendanceMatrix matrix, LocalDate startDate,
+			LocalDate endDate) {
+		Batch batch = batchRepository.findById(batchId)
+				.orElseThrow(() -> new ResourceNotFoundException("Batch not found"));
+		Map<Long, AttendanceMatrix.Counts> countsByStudent = matrix.countByStudent(startDate, endDate);
+
+		Map<String, Object> report = new HashMap<>();
+		report.put("batchId", batch.getId());
+		report.put("batchName", batch.getBatchName());
+		report.put("totalStudents", countsByStudent.size());
+		putCounts(report, matrix.countAll(startDate, endDate));
+
+		List<Map<String, Object>> students = new ArrayList<>();
+		for (StudentRepository.StudentName student : studentRepository.findNamesByBatchId(batchId)) {
+			Map<String, Object> studentReport = new HashMap<>();
+			studentReport.put("studentId", student.getId());
+			studentReport.put("studentName", student.getName());
+			putCounts(studentReport, countsByStudent.getOrDefault(student.getId(), AttendanceMatrix.Counts.EMPTY));
+			students.add(studentReport);
+		}
+		report.put("students", students);
+		return report;
+	}
+
+	private void putCounts(Map<String, Object> map, AttendanceMatrix.Counts counts) {
+		map.put("present", counts.present());
+		map.put("absent", counts.absent());
+		map.put("late", counts.late());
+		map.put("totalDays", counts.total());
+		map.put("attendancePercentage", counts.attendancePercentage());
+	}
+
+	private void recordInMatrix(Attendance attendance) {
+		if (attendance.getBatch() != null) {
+			attendanceMatrixStore.record(attendance.getBatch().getId(), attendance.getStudent().getId(),
+					attendance.getAttendanceDate(), attendance.getStatus());
+		}
 	}
 
 	private AttendanceDto convertToDto(Attendance attendance) {
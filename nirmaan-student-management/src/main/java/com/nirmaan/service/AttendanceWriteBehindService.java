@@ -0,0 +1,200 @@
+package com.nirmaan.service;
+
+import com.nirmaan.cache.AttendanceMarkIndex;
+import com.nirmaan.cache.AttendanceMatrixStore;
+import com.nirmaan.entity.Attendance;
+import com.nirmaan.entity.Batch;
+import com.nirmaan.entity.Student;
+import com.nirmaan.enums.AttendanceStatus;
+import com.nirmaan.repository.AttendanceRepository;
+import com.nirmaan.util.AttendanceJournal;
+import com.nirmaan.util.DataAccessFailures;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind path for QR attendance marks. A mark is acknowledged once it is
+ * in the on-disk journal; a scheduled writer then inserts the pending rows
+ * with multi-row inserts that skip marks already stored, and checkpoints the
+ * journal. A chunk that fails for a reason
+ * other than a database outage is written row by row, and rows that still
+ * fail are logged and dropped so that they cannot hold up later marks.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttendanceWriteBehindService {
+
+	private final AttendanceJournal attendanceJournal;
+	private final AttendanceMarkIndex attendanceMarkIndex;
+	private final AttendanceRepository attendanceRepository;
+	private final AttendanceRollupService attendanceRollupService;
+	private final AttendanceMatrixStore attendanceMatrixStore;
+	private final EntityManager entityManager;
+	private final TransactionTemplate transactionTemplate;
+
+	private final Deque<AttendanceJournal.Entry> pending = new ConcurrentLinkedDeque<>();
+	private final Object enqueueLock = new Object();
+	private final LongAdder flushed = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+
+	@Value("${app.attendance.write-behind.enabled:false}")
+	private boolean enabled;
+
+	@Value("${app.attendance.write-behind.batch-size:200}")
+	private int batchSize;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void enqueue(Student student, String qrCodeId, LocalDate attendanceDate, LocalDateTime markedAt) {
+		Long batchId = student.getBatch() != null ? student.getBatch().getId() : null;
+		// Journal order and queue order must agree so that checkpoints never skip an entry
+		synchronized (enqueueLock) {
+			pending.add(attendanceJournal.append(student.getId(), batchId, attendanceDate, markedAt, qrCodeId));
+		}
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void recover() {
+		List<AttendanceJournal.Entry> entries = attendanceJournal.recover();
+		for (AttendanceJournal.Entry entry : entries) {
+			attendanceMarkIndex.markIfAbsent(entry.attendanceDate(), entry.studentId());
+			pending.add(entry);
+		}
+		if (!entries.isEmpty()) {
+			log.info("Recovered {} unflushed attendance marks from journal", entries.size());
+			flush();
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${app.attendance.write-behind.flush-interval-ms:500}")
+	public synchronized void flush() {
+		List<AttendanceJournal.Entry> chunk;
+		while (!(chunk = drain()).isEmpty()) {
+			try {
+				writeChunk(chunk);
+			} catch (RuntimeException e) {
+				if (DataAccessFailures.isTransient(e)) {
+					retryLater(chunk, 0, e);
+					return;
+				}
+				if (!writeEach(chunk)) {
+					return;
+				}
+				continue;
+			}
+			attendanceJournal.checkpoint(chunk.get(chunk.size() - 1).sequence());
+			flushed.add(chunk.size());
+		}
+	}
+
+	/**
+	 * Writes the entries of a failed chunk one at a time; returns false if a
+	 * transient failure put the unwritten rest back in the queue.
+	 */
+	private boolean writeEach(List<AttendanceJournal.Entry> chunk) {
+		for (int i = 0; i < chunk.size(); i++) {
+			AttendanceJournal.Entry entry = chunk.get(i);
+			try {
+				writeChunk(List.of(entry));
+				flushed.increment();
+			} catch (RuntimeException e) {
+				if (DataAccessFailures.isTransient(e)) {
+					if (i > 0) {
+						attendanceJournal.checkpoint(chunk.get(i - 1).sequence());
+					}
+					retryLater(chunk, i, e);
+					return false;
+				}
+				dropped.increment();
+				log.error("Dropping attendance mark of student {} for {} (QR code {}, marked at {}): {}",
+						entry.studentId(), entry.attendanceDate(), entry.qrCodeId(), entry.markedAt(), e.getMessage());
+			}
+		}
+		attendanceJournal.checkpoint(chunk.get(chunk.size() - 1).sequence());
+		return true;
+	}
+
+	private void retryLater(List<AttendanceJournal.Entry> chunk, int from, RuntimeException e) {
+		for (int i = chunk.size() - 1; i >= from; i--) {
+			pending.addFirst(chunk.get(i));
+		}
+		log.warn("Attendance write-behind flush failed, {} marks will be retried", pending.size(), e);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		flush();
+	}
+
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new HashMap<>();
+		stats.put("enabled", enabled);
+		stats.put("pending", pending.size());
+		stats.put("flushed", flushed.sum());
+		stats.put("dropped", dropped.sum());
+		return stats;
+	}
+
+	private List<AttendanceJournal.Entry> drain() {
+		List<AttendanceJournal.Entry> chunk = new ArrayList<>(batchSize);
+		AttendanceJournal.Entry entry;
+		while (chunk.size() < batchSize && (entry = pending.poll()) != null) {
+			chunk.add(entry);
+		}
+		return chunk;
+	}
+
+	private void writeChunk(List<AttendanceJournal.Entry> chunk) {
+		transactionTemplate.executeWithoutResult(status -> {
+			List<Attendance> rows = new ArrayList<>(chunk.size());
+			for (AttendanceJournal.Entry entry : chunk) {
+				Attendance attendance = new Attendance();
+				attendance.setStudent(entityManager.getReference(Student.class, entry.studentId()));
+				if (entry.batchId() != null) {
+					attendance.setBatch(entityManager.getReference(Batch.class, entry.batchId()));
+				}
+				attendance.setAttendanceDate(entry.attendanceDate());
+				attendance.setStatus(AttendanceStatus.PRESENT);
+				attendance.setMarkedAt(entry.markedAt());
+				attendance.setQrCodeId(entry.qrCodeId());
+				rows.add(attendance);
+			}
+
+			// A replayed journal may contain marks that reached the database before a crash;
+			// the unique key skips them and only the rows actually written are counted
+			List<Attendance> inserted = attendanceRepository.insertAllIfAbsent(rows);
+
+			Map<List<Object>, Integer> counts = new HashMap<>();
+			for (Attendance attendance : inserted) {
+				Long batchId = attendance.getBatch() != null ? attendance.getBatch().getId() : null;
+				attendanceMatrixStore.record(batchId, attendance.getStudent().getId(), attendance.getAttendanceDate(),
+						attendance.getStatus());
+				counts.merge(Arrays.asList(attendance.getAttendanceDate(), batchId), 1, Integer::sum);
+			}
+			counts.forEach((key, count) -> attendanceRollupService.applyDelta((LocalDate) key.get(0),
+					(Long) key.get(1), AttendanceStatus.PRESENT, count));
+		});
+	}
+}
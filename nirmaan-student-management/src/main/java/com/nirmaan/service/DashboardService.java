@@ -19,8 +19,8 @@ public class DashboardService {
     private final CourseRepository courseRepository;
     private final BatchRepository batchRepository;
     private final QuizRepository quizRepository;
-    private final AttendanceRepository attendanceRepository;
     private final FeedbackRepository feedbackRepository;
+    private final AttendanceRollupService attendanceRollupService;
 
     public Map<String, Object> getAdminDashboardData() {
         Map<String, Object> data = new HashMap<>();
@@ -42,7 +42,7 @@ public class DashboardService {
         data.put("activeQuizzes", quizRepository.findByActiveTrue().size());
         
         // Today's attendance
-        data.put("todayAttendance", attendanceRepository.findByAttendanceDate(LocalDate.now()).size());
+        data.put("todayAttendance", attendanceRollupService.countMarks(LocalDate.now()));
         
         // Total feedback
         data.put("totalFeedback", feedbackRepository.count());
@@ -56,7 +56,7 @@ public class DashboardService {
         // Basic statistics
         data.put("totalBatches", batchRepository.findByActiveTrue().size());
         data.put("totalQuizzes", quizRepository.findByActiveTrue().size());
-        data.put("todayAttendance", attendanceRepository.findByAttendanceDate(LocalDate.now()).size());
+        data.put("todayAttendance", attendanceRollupService.countMarks(LocalDate.now()));
         
         return data;
     }
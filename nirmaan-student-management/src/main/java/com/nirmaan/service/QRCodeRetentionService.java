@@ -0,0 +1,92 @@
+package com.nirmaan.service;
+
+import com.nirmaan.dto.QRRetentionReport;
+import com.nirmaan.repository.QRCodeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Keeps qr_codes down to recent days: expired codes are flipped inactive and
+ * codes older than the retention horizon are copied to qr_codes_archive and
+ * deleted. Every step works on one small chunk of ids per transaction, with
+ * a short pause in between, so row locks are held only briefly.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QRCodeRetentionService {
+
+	private final QRCodeRepository qrCodeRepository;
+	private final TransactionTemplate transactionTemplate;
+
+	@Value("${app.qr.retention.archive-after-days:30}")
+	private int archiveAfterDays;
+
+	@Value("${app.qr.retention.chunk-size:500}")
+	private int chunkSize;
+
+	@Value("${app.qr.retention.pause-ms:50}")
+	private long pauseMs;
+
+	@Scheduled(cron = "${app.qr.retention.cron:0 15 1 * * *}") // Outside class hours
+	public synchronized QRRetentionReport runRetention() {
+		long started = System.nanoTime();
+		LocalDateTime now = LocalDateTime.now();
+		LocalDate archiveBefore = LocalDate.now().minusDays(archiveAfterDays);
+		AtomicInteger chunks = new AtomicInteger();
+
+		int deactivated = inChunks(chunks, qrCodeRepository::deactivateByIdIn,
+				() -> qrCodeRepository.findExpiredActiveIds(now, Limit.of(chunkSize)));
+		int archived = inChunks(chunks, ids -> {
+			qrCodeRepository.archiveByIdIn(ids);
+			return qrCodeRepository.deleteByIdIn(ids);
+		}, () -> qrCodeRepository.findIdsValidBefore(archiveBefore, Limit.of(chunkSize)));
+
+		QRRetentionReport report = new QRRetentionReport(deactivated, archived, chunks.get(), archiveBefore,
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+		log.info("QR retention: {} deactivated, {} archived before {} in {} chunks, {} ms", deactivated, archived,
+				archiveBefore, report.getChunks(), report.getDurationMs());
+		return report;
+	}
+
+	private int inChunks(AtomicInteger chunks, Function<List<Long>, Integer> action,
+			Supplier<List<Long>> nextChunk) {
+		int processed = 0;
+		while (true) {
+			Integer count = transactionTemplate.execute(status -> {
+				List<Long> ids = nextChunk.get();
+				return ids.isEmpty() ? 0 : action.apply(ids);
+			});
+			if (count == null || count == 0) {
+				return processed;
+			}
+			processed += count;
+			chunks.incrementAndGet();
+			if (count < chunkSize) {
+				return processed;
+			}
+			pause();
+		}
+	}
+
+	private void pause() {
+		try {
+			Thread.sleep(pauseMs);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -1,55 +1,229 @@
 package com.nirmaan.service;
 
+import com.nirmaan.cache.QRCodeDayCache;
+import com.nirmaan.cache.QRCodeValidityCache;
+import com.nirmaan.cache.QRImageCache;
+import com.nirmaan.dto.QRGenerationReport;
 import com.nirmaan.entity.QRCode;
-import com.nirmaan.entity.Batch;
+import com.nirmaan.enums.QRImageFormat;
+import com.nirmaan.enums.QRImageSize;
 import com.nirmaan.repository.QRCodeRepository;
 import com.nirmaan.repository.BatchRepository;
-import com.nirmaan.util.QRCodeGenerator;
+import com.nirmaan.exception.ResourceNotFoundException;
+import com.nirmaan.util.QRTokenSigner;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class QRCodeService {
 
+	// Daily codes can be deactivated, so screens re-check at least this often
+	private static final long DAILY_IMAGE_MAX_AGE_SECONDS = 60;
+	private static final int RENDER_QUEUE_CAPACITY = 256;
+	private static final int CREATE_ATTEMPTS = 3;
+
 	private final QRCodeRepository qrCodeRepository;
 	private final BatchRepository batchRepository;
-	private final QRCodeGenerator qrCodeGenerator;
+	private final QRTokenSigner qrTokenSigner;
+	private final QRCodeValidityCache qrCodeValidityCache;
+	private final QRCodeDayCache qrCodeDayCache;
+	private final QRImageCache qrImageCache;
+	private final QRRotationService qrRotationService;
+	private final TransactionTemplate transactionTemplate;
+
+	@Value("${app.qr.generation.render-threads:4}")
+	private int renderThreads;
+
+	private ExecutorService renderPool;
+
+	@PostConstruct
+	void startRenderPool() {
+		renderPool = new ThreadPoolExecutor(renderThreads, renderThreads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(RENDER_QUEUE_CAPACITY), new ThreadPoolExecutor.CallerRunsPolicy());
+	}
+
+	@PreDestroy
+	void stopRenderPool() {
+		renderPool.shutdown();
+	}
 
+	/**
+	 * Creates the day's code for every running batch without an active one,
+	 * in one batched insert, then pre-renders the images on the bounded
+	 * render pool. Safe to re-run, and to run on several instances at once:
+	 * batches with an active code for the date are skipped, and a batch
+	 * another instance covered meanwhile trips the (batch, active date) key
+	 * and is skipped on the next pass. A batch whose code was deactivated gets
+	 * a fresh one, so re-running is also how a code is regenerated. Nothing is
+	 * generated while codes rotate, since a day-long code would outlive every
+	 * rotating one.
+	 */
 	@Scheduled(cron = "0 0 8 * * *") // Generate daily at 8 AM
-	public void generateDailyQRCodes() {
-		List<Batch> activeBatches = batchRepository.findByActiveTrue();
+	public synchronized QRGenerationReport generateDailyQRCodes() {
+		long started = System.nanoTime();
 		LocalDate today = LocalDate.now();
+		if (qrRotationService.isEnabled()) {
+			log.info("Daily QR codes for {} skipped, codes rotate", today);
+			return new QRGenerationReport(today, 0, 0, 0, 0, 0, 0);
+		}
+
+		List<QRCode> created = new ArrayList<>();
+		int runningBatches;
+		for (int attempt = 1;; attempt++) {
+			try {
+				runningBatches = createMissing(today, created);
+				break;
+			} catch (DataIntegrityViolationException e) {
+				created.clear();
+				if (attempt == CREATE_ATTEMPTS) {
+					throw e;
+				}
+				log.info("Daily QR codes for {} were partly created elsewhere, retrying", today);
+			}
+		}
+		created.forEach(qrCodeDayCache::put);
+
+		AtomicInteger renderFailures = new AtomicInteger();
+		List<CompletableFuture<Void>> renders = new ArrayList<>();
+		for (QRCode qrCode : created) {
+			for (QRImageSize size : QRImageSize.values()) {
+				renders.add(CompletableFuture.runAsync(() -> {
+					try {
+						qrImageCache.render(qrCode.getQrCodeData(), size, QRImageFormat.PNG);
+					} catch (RuntimeException e) {
+						renderFailures.incrementAndGet();
+						log.warn("Pre-rendering QR code {} failed", qrCode.getId(), e);
+					}
+				}, renderPool));
+			}
+		}
+		CompletableFuture.allOf(renders.toArray(new CompletableFuture[0])).join();
+
+		QRGenerationReport report = new QRGenerationReport(today, runningBatches, created.size(),
+				runningBatches - created.size(), renders.size() - renderFailures.get(), renderFailures.get(),
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+		log.info("Daily QR codes for {}: {} created, {} already present, {} images rendered in {} ms", today,
+				report.getCreated(), report.getSkipped(), report.getRendered(), report.getDurationMs());
+		return report;
+	}
+
+	/**
+	 * Inserts codes for the running batches without an active one for the
+	 * date and adds them to {@code created}; returns the number of running
+	 * batches.
+	 */
+	private int createMissing(LocalDate today, List<QRCode> created) {
+		return transactionTemplate.execute(status -> {
+			List<Long> runningBatchIds = batchRepository.findActiveIdsRunningOn(today);
+			Set<Long> covered = new HashSet<>(qrCodeRepository.findBatchIdsWithActiveCodeOn(today));
 
-		for (Batch batch : activeBatches) {
-			String qrCodeId = UUID.randomUUID().toString();
-			String qrCodeData = qrCodeGenerator.generateQRCodeData(batch.getId(), today);
+			LocalDateTime generatedAt = LocalDateTime.now();
+			LocalDateTime expiresAt = generatedAt.plusHours(10); // Expires after 10 hours
+			for (Long batchId : runningBatchIds) {
+				if (covered.contains(batchId)) {
+					continue;
+				}
+				String token = qrTokenSigner.sign(batchId, generatedAt, expiresAt);
 
-			QRCode qrCode = new QRCode();
-			qrCode.setQrCodeId(qrCodeId);
-			qrCode.setQrCodeData(qrCodeData);
-			qrCode.setBatch(batch);
-			qrCode.setValidDate(today);
-			qrCode.setGeneratedAt(LocalDateTime.now());
-			qrCode.setExpiresAt(LocalDateTime.now().plusHours(10)); // Expires after 10 hours
-			qrCode.setActive(true);
+				QRCode qrCode = new QRCode();
+				qrCode.setQrCodeId(token);
+				qrCode.setQrCodeData(token);
+				qrCode.setBatch(batchRepository.getReferenceById(batchId));
+				qrCode.setValidDate(today);
+				qrCode.setActiveDate(today);
+				qrCode.setGeneratedAt(generatedAt);
+				qrCode.setExpiresAt(expiresAt);
+				qrCode.setActive(true);
+				created.add(qrCode);
+			}
+			qrCodeRepository.saveAll(created);
+			return runningBatchIds.size();
+		});
+	}
+
+	public void deactivateQRCode(String qrCodeId) {
+		QRCode qrCode = qrCodeRepository.findByQrCodeId(qrCodeId)
+				.orElseThrow(() -> new ResourceNotFoundException("QR Code not found"));
 
-			qrCodeRepository.save(qrCode);
+		qrCode.setActive(false);
+		qrCode.setActiveDate(null);
+		qrCodeRepository.save(qrCode);
+		qrCodeValidityCache.evict(qrCodeId);
+		qrCodeValidityCache.revoke(qrCodeId, qrCode.getExpiresAt());
+		if (qrCode.getBatch() != null) {
+			qrCodeDayCache.evict(qrCode.getBatch().getId(), qrCode.getValidDate());
 		}
 	}
 
+	public Map<String, Object> getCacheStats() {
+		Map<String, Object> stats = new HashMap<>(qrCodeValidityCache.getStats());
+		stats.put("images", qrImageCache.getStats());
+		stats.put("dayCodes", qrCodeDayCache.size());
+		return stats;
+	}
+
+	/**
+	 * The image a projector should show right now: the batch's rotating code
+	 * when rotation is on, otherwise today's daily code. refreshAt bounds how
+	 * long a client may cache it.
+	 */
+	public Optional<DisplayedQRCode> getDisplayedQRCode(Long batchId, QRImageSize size, QRImageFormat format) {
+		Optional<QRRotationService.Rotation> rotation = qrRotationService.currentFor(batchId);
+		if (rotation.isPresent()) {
+			return Optional.of(new DisplayedQRCode(qrImageCache.get(rotation.get().token(), size, format),
+					rotation.get().rotatesAt()));
+		}
+
+		if (qrRotationService.isEnabled()) {
+			return Optional.empty();
+		}
+		QRCode qrCode = getQRCodeForBatch(batchId, LocalDate.now());
+		if (qrCode == null) {
+			return Optional.empty();
+		}
+		LocalDateTime refreshAt = LocalDateTime.now().plusSeconds(DAILY_IMAGE_MAX_AGE_SECONDS);
+		return Optional.of(new DisplayedQRCode(qrImageCache.get(qrCode.getQrCodeData(), size, format),
+				qrCode.getExpiresAt().isBefore(refreshAt) ? qrCode.getExpiresAt() : refreshAt));
+	}
+
+	public String getQRCodeImage(QRCode qrCode) {
+		return Base64.getEncoder().encodeToString(qrImageCache.get(qrCode.getQrCodeData()).bytes());
+	}
+
+	public boolean isRotationEnabled() {
+		return qrRotationService.isEnabled();
+	}
+
 	public QRCode getQRCodeForBatch(Long batchId, LocalDate date) {
-		Batch batch = batchRepository.findById(batchId).orElse(null);
-		if (batch == null)
-			return null;
+		return qrCodeDayCache.lookup(batchId, date).orElse(null);
+	}
 
-		return qrCodeRepository.findByBatch(batch).stream()
-				.filter(qr -> qr.getValidDate().equals(date) && qr.isActive()).findFirst().orElse(null);
+	public record DisplayedQRCode(QRImageCache.Image image, LocalDateTime refreshAt) {
 	}
 }
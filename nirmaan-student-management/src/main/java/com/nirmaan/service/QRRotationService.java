@@ -0,0 +1,107 @@
+package com.nirmaan.service;
+
+import com.nirmaan.cache.QRImageCache;
+import com.nirmaan.enums.QRImageFormat;
+import com.nirmaan.enums.QRImageSize;
+import com.nirmaan.repository.BatchRepository;
+import com.nirmaan.util.QRTokenSigner;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issues a fresh signed code for every running batch each interval during the
+ * session window and pre-renders its PNG. Each token is valid for two
+ * intervals, so a scan of the code that was on screen just before the
+ * rotation is still accepted while older photos are not.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QRRotationService {
+
+	private final BatchRepository batchRepository;
+	private final QRTokenSigner qrTokenSigner;
+	private final QRImageCache qrImageCache;
+
+	private final Map<Long, Rotation> current = new ConcurrentHashMap<>();
+
+	@Value("${app.qr.rotation.enabled:false}")
+	private boolean enabled;
+
+	@Value("${app.qr.rotation.interval-seconds:30}")
+	private long intervalSeconds;
+
+	@Value("#{T(java.time.LocalTime).parse('${app.qr.rotation.session-start:08:00}')}")
+	private LocalTime sessionStart;
+
+	@Value("#{T(java.time.LocalTime).parse('${app.qr.rotation.session-end:18:00}')}")
+	private LocalTime sessionEnd;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Scheduled(fixedRateString = "${app.qr.rotation.interval-seconds:30}", timeUnit = TimeUnit.SECONDS)
+	public void rotate() {
+		if (!enabled) {
+			return;
+		}
+
+		LocalDateTime now = LocalDateTime.now();
+		if (now.toLocalTime().isBefore(sessionStart) || !now.toLocalTime().isBefore(sessionEnd)) {
+			current.clear();
+			return;
+		}
+
+		List<Long> batchIds = batchRepository.findActiveIdsRunningOn(LocalDate.now());
+		Set<Long> running = new HashSet<>(batchIds);
+		for (Long batchId : batchIds) {
+			try {
+				String token = qrTokenSigner.sign(batchId, now, now.plusSeconds(2 * intervalSeconds));
+				for (QRImageSize size : QRImageSize.values()) {
+					qrImageCache.render(token, size, QRImageFormat.PNG);
+				}
+				current.put(batchId, new Rotation(token, now.plusSeconds(intervalSeconds)));
+			} catch (RuntimeException e) {
+				log.warn("QR rotation failed for batch {}", batchId, e);
+			}
+		}
+		current.keySet().retainAll(running);
+	}
+
+	/**
+	 * Whether a scanned code may mark attendance under the current mode. While
+	 * rotation is on only tokens valid for at most two intervals pass, so a
+	 * photo of a long-lived daily code (or a legacy code, {@code null}) is
+	 * refused.
+	 */
+	public boolean accepts(QRTokenSigner.Token token) {
+		if (!enabled) {
+			return true;
+		}
+		return token != null
+				&& Duration.between(token.validFrom(), token.validUntil()).getSeconds() <= 2 * intervalSeconds;
+	}
+
+	public Optional<Rotation> currentFor(Long batchId) {
+		return Optional.ofNullable(current.get(batchId));
+	}
+
+	public record Rotation(String token, LocalDateTime rotatesAt) {
+	}
+}
@@ -0,0 +1,264 @@
+package com.nirmaan.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.fasterxml.jackson.core.exc.StreamConstraintsException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nirmaan.cache.QuizSnapshot;
+import com.nirmaan.cache.QuizSnapshotCache;
+import com.nirmaan.dto.QuestionDto;
+import com.nirmaan.dto.QuestionImportReport;
+import com.nirmaan.entity.Question;
+import com.nirmaan.entity.Quiz;
+import com.nirmaan.enums.QuestionBankFormat;
+import com.nirmaan.exception.ResourceNotFoundException;
+import com.nirmaan.exception.ValidationException;
+import com.nirmaan.repository.QuestionRepository;
+import com.nirmaan.repository.QuizRepository;
+import com.nirmaan.util.CsvRecordReader;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Imports a question bank into a quiz while reading it, one row at a time.
+ * Valid rows are inserted in JDBC batches within a single transaction; rows
+ * that fail validation are skipped and listed in the report. Input that
+ * cannot be read at all fails the import and rolls back every batch.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QuestionImportService {
+
+	private static final int MAX_OPTION_LENGTH = 255;
+	private static final int MAX_TEXT_LENGTH = 16000;
+	private static final int MAX_FIELD_LENGTH = 65535;
+	private static final List<String> REQUIRED_COLUMNS = List.of("questiontext", "optiona", "optionb", "correctanswer");
+
+	private final QuizRepository quizRepository;
+	private final QuestionRepository questionRepository;
+	private final QuizSnapshotCache quizSnapshotCache;
+	private final EntityManager entityManager;
+	private final ObjectMapper objectMapper;
+
+	@Value("${app.quiz.import.batch-size:500}")
+	private int batchSize;
+
+	@Value("${app.quiz.import.max-questions:5000}")
+	private int maxQuestions;
+
+	@Value("${app.quiz.import.max-errors:100}")
+	private int maxErrors;
+
+	private final JsonFactory jsonFactory = JsonFactory.builder()
+			.streamReadConstraints(StreamReadConstraints.builder().maxStringLength(MAX_FIELD_LENGTH).build()).build();
+
+	@Transactional
+	public QuestionImportReport importQuestions(Long quizId, InputStream input, QuestionBankFormat format) {
+		if (!quizRepository.existsById(quizId)) {
+			throw new ResourceNotFoundException("Quiz not found");
+		}
+		// Before any batch is written; the cache drops the quiz again once the transaction ends
+		quizSnapshotCache.invalidate(quizId);
+		long started = System.currentTimeMillis();
+		Import run = new Import(quizId);
+		try {
+			if (format == QuestionBankFormat.JSON) {
+				readJson(input, run);
+			} else {
+				readCsv(input, run);
+			}
+		} catch (IOException e) {
+			throw new ValidationException("Question bank could not be read: " + e.getMessage());
+		}
+		run.flush();
+
+		run.report.setDurationMs(System.currentTimeMillis() - started);
+		log.info("Imported {} of {} questions into quiz {} in {} ms", run.report.getImported(),
+				run.report.getRowsRead(), quizId, run.report.getDurationMs());
+		return run.report;
+	}
+
+	private void readCsv(InputStream input, Import run) throws IOException {
+		CsvRecordReader reader = new CsvRecordReader(
+				new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)), MAX_FIELD_LENGTH);
+		List<String> header = reader.next();
+		if (header == null) {
+			return;
+		}
+		Map<String, Integer> columns = new HashMap<>();
+		for (int i = 0; i < header.size(); i++) {
+			columns.put(header.get(i).trim().replace("\uFEFF", "").toLowerCase(), i);
+		}
+		List<String> missing = REQUIRED_COLUMNS.stream().filter(column -> !columns.containsKey(column)).toList();
+		if (!missing.isEmpty()) {
+			throw new ValidationException("Question bank is missing columns: " + String.join(", ", missing));
+		}
+
+		List<String> record;
+		while ((record = reader.next()) != null) {
+			if (record.stream().allMatch(String::isBlank)) {
+				continue;
+			}
+			long row = reader.getRecordLine();
+			QuestionDto question = new QuestionDto();
+			question.setQuestionText(field(record, columns, "questiontext"));
+			question.setOptionA(field(record, columns, "optiona"));
+			question.setOptionB(field(record, columns, "optionb"));
+			question.setOptionC(field(record, columns, "optionc"));
+			question.setOptionD(field(record, columns, "optiond"));
+			question.setCorrectAnswer(field(record, columns, "correctanswer"));
+			String marks = field(record, columns, "marks");
+			try {
+				question.setMarks(marks != null ? Integer.valueOf(marks.trim()) : null);
+			} catch (NumberFormatException e) {
+				run.reject(row, "marks must be a whole number");
+				continue;
+			}
+			run.accept(row, question);
+		}
+	}
+
+	private void readJson(InputStream input, Import run) throws IOException {
+		try (MappingIterator<QuestionDto> questions = objectMapper.readerFor(QuestionDto.class).with(jsonFactory)
+				.readValues(input)) {
+			long row = 0;
+			while (true) {
+				row++;
+				try {
+					if (!questions.hasNextValue()) {
+						return;
+					}
+					run.accept(row, questions.nextValue());
+				} catch (JsonParseException | StreamConstraintsException e) {
+					// The rest of the document cannot be located reliably after a syntax error
+					throw new ValidationException("Malformed JSON at question " + row + ": " + e.getOriginalMessage());
+				} catch (JsonMappingException e) {
+					run.reject(row, "Invalid question: " + e.getOriginalMessage());
+				}
+			}
+		}
+	}
+
+	private String field(List<String> record, Map<String, Integer> columns, String column) {
+		Integer index = columns.get(column);
+		if (index == null || index >= record.size() || record.get(index).isBlank()) {
+			return null;
+		}
+		return record.get(index);
+	}
+
+	private String validate(QuestionDto question) {
+		if (question.getQuestionText() == null || question.getQuestionText().isBlank()) {
+			return "questionText is required";
+		}
+		if (question.getQuestionText().length() > MAX_TEXT_LENGTH) {
+			return "questionText is longer than " + MAX_TEXT_LENGTH + " characters";
+		}
+		if (isBlank(question.getOptionA()) || isBlank(question.getOptionB())) {
+			return "optionA and optionB are required";
+		}
+		String[] options = { question.getOptionA(), question.getOptionB(), question.getOptionC(), question.getOptionD() };
+		for (int i = 0; i < options.length; i++) {
+			if (options[i] != null && options[i].length() > MAX_OPTION_LENGTH) {
+				return "option" + (char) ('A' + i) + " is longer than " + MAX_OPTION_LENGTH + " characters";
+			}
+		}
+		String answer = question.getCorrectAnswer() != null ? question.getCorrectAnswer().trim().toUpperCase() : null;
+		byte option = QuizSnapshot.encode(answer);
+		if (option == QuizSnapshot.NO_ANSWER || isBlank(options[option])) {
+			return "correctAnswer must be one of A, B, C or D and name a non-empty option";
+		}
+		question.setCorrectAnswer(answer);
+		if (question.getMarks() != null && question.getMarks() < 1) {
+			return "marks must be at least 1";
+		}
+		return null;
+	}
+
+	private static boolean isBlank(String value) {
+		return value == null || value.isBlank();
+	}
+
+	/**
+	 * State of one import: the report and the questions waiting for the next
+	 * batch insert.
+	 */
+	private final class Import {
+		private final Long quizId;
+		private final QuestionImportReport report = new QuestionImportReport();
+		private final List<Question> pending = new ArrayList<>();
+
+		private Import(Long quizId) {
+			this.quizId = quizId;
+			report.setQuizId(quizId);
+		}
+
+		private void accept(long row, QuestionDto dto) {
+			String error = dto != null ? validate(dto) : "Question is empty";
+			if (error != null) {
+				reject(row, error);
+				return;
+			}
+			if (report.getImported() + pending.size() >= maxQuestions) {
+				throw new ValidationException("Question bank has more than " + maxQuestions + " questions");
+			}
+			report.setRowsRead(report.getRowsRead() + 1);
+			Question question = new Question();
+			question.setQuestionText(dto.getQuestionText());
+			question.setOptionA(dto.getOptionA());
+			question.setOptionB(dto.getOptionB());
+			question.setOptionC(dto.getOptionC());
+			question.setOptionD(dto.getOptionD());
+			question.setCorrectAnswer(dto.getCorrectAnswer());
+			if (dto.getMarks() != null) {
+				question.setMarks(dto.getMarks());
+			}
+			pending.add(question);
+			if (pending.size() >= batchSize) {
+				flush();
+			}
+		}
+
+		private void reject(long row, String message) {
+			report.setRowsRead(report.getRowsRead() + 1);
+			report.setRejected(report.getRejected() + 1);
+			if (report.getErrors().size() < maxErrors) {
+				report.getErrors().add(new QuestionImportReport.RowError(row, message));
+			} else {
+				report.setErrorsTruncated(true);
+			}
+		}
+
+		private void flush() {
+			if (pending.isEmpty()) {
+				return;
+			}
+			// A fresh reference each time, since the persistence context is cleared below
+			Quiz quiz = entityManager.getReference(Quiz.class, quizId);
+			pending.forEach(question -> question.setQuiz(quiz));
+			questionRepository.saveAll(pending);
+			entityManager.flush();
+			entityManager.clear();
+			report.setImported(report.getImported() + pending.size());
+			pending.clear();
+		}
+	}
+}
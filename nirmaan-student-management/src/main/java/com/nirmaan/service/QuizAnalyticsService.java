@@ -0,0 +1,195 @@
+package com.nirmaan.service;
+
+import com.nirmaan.cache.QuizAnswerCodec;
+import com.nirmaan.cache.QuizItemStats;
+import com.nirmaan.cache.QuizSnapshot;
+import com.nirmaan.cache.QuizSnapshotCache;
+import com.nirmaan.entity.QuizItemAnalytics;
+import com.nirmaan.repository.QuizItemAnalyticsRepository;
+import com.nirmaan.repository.StudentQuizAttemptRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-question item analytics of quizzes, kept as running {@link QuizItemStats}
+ * that take in each attempt as it is scored. Stats are saved periodically and
+ * caught up whenever a quiz is viewed: when the number of attempts counted
+ * differs from the number stored, the attempts whose ids the stats have not
+ * seen are read and taken in. Attempt ids come from a pooled sequence and
+ * are not committed in id order across instances, so nothing relies on it.
+ * A change to the questions or answer key rebuilds the stats from every
+ * attempt. Each quiz's stats are guarded by their own monitor, which the
+ * submission writer takes for every scored attempt; attempts are read from
+ * the database without holding it and merged under it one chunk at a time.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QuizAnalyticsService {
+
+	private final QuizSnapshotCache quizSnapshotCache;
+	private final QuizItemAnalyticsRepository quizItemAnalyticsRepository;
+	private final StudentQuizAttemptRepository studentQuizAttemptRepository;
+
+	private final Map<Long, QuizItemStats> live = new ConcurrentHashMap<>();
+	private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+	@Value("${app.quiz.analytics.chunk-size:1000}")
+	private int chunkSize;
+
+	public Map<String, Object> getAnalytics(Long quizId) {
+		QuizSnapshot snapshot = quizSnapshotCache.forQuiz(quizId);
+		QuizItemStats stats = live.get(quizId);
+		if (stats == null || stats.getKeyHash() != snapshot.getKeyHash()) {
+			QuizItemStats loaded = load(quizId, snapshot);
+			catchUp(quizId, loaded, snapshot);
+			stats = install(quizId, loaded, snapshot, false);
+		}
+		// Picks up attempts that were not recorded through this instance
+		catchUp(quizId, stats, snapshot);
+		Map<String, Object> analytics;
+		synchronized (stats) {
+			analytics = stats.toMap(snapshot);
+		}
+		analytics.put("quizId", quizId);
+		return analytics;
+	}
+
+	/**
+	 * Takes in a committed attempt. Quizzes nobody has viewed yet are skipped;
+	 * they catch up from the attempts table when first viewed.
+	 */
+	public void recordAttempt(Long quizId, Long attemptId, byte[] answerCodes, int score) {
+		QuizItemStats stats = live.get(quizId);
+		if (stats == null) {
+			return;
+		}
+		QuizSnapshot snapshot = quizSnapshotCache.forQuiz(quizId);
+		synchronized (stats) {
+			if (stats.add(attemptId, answerCodes, snapshot, score)) {
+				dirty.add(quizId);
+			}
+		}
+	}
+
+	public long rebuild(Long quizId) {
+		QuizSnapshot snapshot = quizSnapshotCache.forQuiz(quizId);
+		QuizItemStats stats = new QuizItemStats(snapshot.getKeyHash(), snapshot.getQuestionCount());
+		catchUp(quizId, stats, snapshot);
+		install(quizId, stats, snapshot, true);
+		// Attempts the writer recorded into the replaced stats while these were being built
+		catchUp(quizId, stats, snapshot);
+		long attempts;
+		synchronized (stats) {
+			attempts = stats.getAttempts();
+		}
+		log.info("Rebuilt item analytics of quiz {} from {} attempts", quizId, attempts);
+		return attempts;
+	}
+
+	public void evict(Long quizId) {
+		live.remove(quizId);
+		dirty.remove(quizId);
+		quizItemAnalyticsRepository.deleteById(quizId);
+	}
+
+	@Scheduled(fixedDelayString = "${app.quiz.analytics.persist-interval-ms:60000}")
+	@PreDestroy
+	public void persistDirty() {
+		for (Long quizId : List.copyOf(dirty)) {
+			QuizItemAnalytics row = new QuizItemAnalytics();
+			QuizItemStats stats = live.get(quizId);
+			dirty.remove(quizId);
+			if (stats == null) {
+				continue;
+			}
+			synchronized (stats) {
+				row.setQuizId(quizId);
+				row.setAttemptCount(stats.getAttempts());
+				row.setStats(stats.toBytes());
+				row.setUpdatedAt(LocalDateTime.now());
+			}
+			try {
+				quizItemAnalyticsRepository.save(row);
+			} catch (RuntimeException e) {
+				dirty.add(quizId);
+				log.warn("Could not save item analytics of quiz {}", quizId, e);
+			}
+		}
+	}
+
+	/**
+	 * Saved stats, unless they were written for another answer key or count
+	 * more attempts than remain stored.
+	 */
+	private QuizItemStats load(Long quizId, QuizSnapshot snapshot) {
+		return quizItemAnalyticsRepository.findById(quizId)
+				.map(row -> QuizItemStats.fromBytes(row.getStats()))
+				.filter(saved -> saved.getKeyHash() == snapshot.getKeyHash()
+						&& saved.getAttempts() <= studentQuizAttemptRepository.countByQuizId(quizId))
+				.orElseGet(() -> new QuizItemStats(snapshot.getKeyHash(), snapshot.getQuestionCount()));
+	}
+
+	/**
+	 * Makes loaded or rebuilt stats the live ones; unless replacing, stats
+	 * another caller installed first for the same answer key are kept.
+	 */
+	private QuizItemStats install(Long quizId, QuizItemStats stats, QuizSnapshot snapshot, boolean replace) {
+		QuizItemStats installed = live.compute(quizId, (id, current) -> !replace && current != null
+				&& current.getKeyHash() == snapshot.getKeyHash() ? current : stats);
+		dirty.add(quizId);
+		return installed;
+	}
+
+	private void catchUp(Long quizId, QuizItemStats stats, QuizSnapshot snapshot) {
+		synchronized (stats) {
+			if (stats.getAttempts() == studentQuizAttemptRepository.countByQuizId(quizId)) {
+				return;
+			}
+		}
+		List<Long> unseen = new ArrayList<>();
+		List<Long> attemptIds = studentQuizAttemptRepository.findIdsByQuizId(quizId);
+		synchronized (stats) {
+			for (Long attemptId : attemptIds) {
+				if (!stats.contains(attemptId)) {
+					unseen.add(attemptId);
+				}
+			}
+		}
+		for (int from = 0; from < unseen.size(); from += chunkSize) {
+			List<StudentQuizAttemptRepository.ScoredAnswers> chunk = studentQuizAttemptRepository
+					.findScoredAnswersByIdIn(unseen.subList(from, Math.min(from + chunkSize, unseen.size())));
+			List<byte[]> codes = chunk.stream().map(attempt -> answerCodesOf(attempt, snapshot)).toList();
+			synchronized (stats) {
+				for (int i = 0; i < chunk.size(); i++) {
+					StudentQuizAttemptRepository.ScoredAnswers attempt = chunk.get(i);
+					// The writer may have recorded it meanwhile
+					if (stats.add(attempt.getId(), codes.get(i), snapshot,
+							attempt.getScore() != null ? attempt.getScore() : 0)) {
+						dirty.add(quizId);
+					}
+				}
+			}
+		}
+	}
+
+	private byte[] answerCodesOf(StudentQuizAttemptRepository.ScoredAnswers attempt, QuizSnapshot snapshot) {
+		if (attempt.getAnswerCodes() != null) {
+			return attempt.getAnswerCodes();
+		}
+		return attempt.getAnswers() != null
+				? QuizAnswerCodec.encode(snapshot, QuizAnswerCodec.decodeLegacy(attempt.getAnswers()))
+				: null;
+	}
+}
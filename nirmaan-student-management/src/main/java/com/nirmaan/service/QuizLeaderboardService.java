@@ -0,0 +1,125 @@
+package com.nirmaan.service;
+
+import com.nirmaan.cache.QuizLeaderboard;
+import com.nirmaan.dto.LeaderboardEntryDto;
+import com.nirmaan.exception.ResourceNotFoundException;
+import com.nirmaan.repository.StudentQuizAttemptRepository;
+import com.nirmaan.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Live per-quiz leaderboards. A quiz's board is built from its attempts the
+ * first time it is asked for, then kept current as the submission writer
+ * commits attempts; boards nobody has looked at for a while are dropped. A
+ * board is built inside the map's computeIfAbsent and attempts are added
+ * through computeIfPresent, so an attempt committed while its board is being
+ * built waits for it and is then added, never missed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QuizLeaderboardService {
+
+	private final StudentQuizAttemptRepository studentQuizAttemptRepository;
+	private final StudentRepository studentRepository;
+
+	private final Map<Long, Board> boards = new ConcurrentHashMap<>();
+
+	@Value("${app.quiz.leaderboard.max-size:100}")
+	private int maxSize;
+
+	@Value("${app.quiz.leaderboard.idle-minutes:120}")
+	private int idleMinutes;
+
+	public List<LeaderboardEntryDto> getTop(Long quizId, int limit) {
+		QuizLeaderboard leaderboard = boardFor(quizId);
+		List<QuizLeaderboard.Standing> top = leaderboard.top(Math.max(1, Math.min(limit, maxSize)));
+		int total = leaderboard.size();
+		Map<Long, String> names = studentRepository
+				.findNamesByIdIn(top.stream().map(QuizLeaderboard.Standing::studentId).collect(Collectors.toList()))
+				.stream().collect(Collectors.toMap(StudentRepository.StudentName::getId,
+						StudentRepository.StudentName::getName));
+		return top.stream().map(standing -> toDto(standing, names.get(standing.studentId()), total))
+				.collect(Collectors.toList());
+	}
+
+	public LeaderboardEntryDto getStanding(Long quizId, Long studentId) {
+		QuizLeaderboard leaderboard = boardFor(quizId);
+		QuizLeaderboard.Standing standing = leaderboard.standingOf(studentId)
+				.orElseThrow(() -> new ResourceNotFoundException("No attempt found for this quiz"));
+		return toDto(standing, null, leaderboard.size());
+	}
+
+	/**
+	 * Adds a committed attempt to the quiz's board if it is loaded; otherwise
+	 * the attempt is read with the rest when the board is first built.
+	 */
+	public void recordAttempt(Long quizId, Long studentId, int score, LocalDateTime submittedAt) {
+		boards.computeIfPresent(quizId, (id, board) -> {
+			board.leaderboard.add(studentId, score, submittedAt);
+			return board;
+		});
+	}
+
+	public void evict(Long quizId) {
+		boards.remove(quizId);
+	}
+
+	@Scheduled(fixedDelay = 600000)
+	public void evictIdle() {
+		long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(idleMinutes);
+		boards.entrySet().removeIf(entry -> entry.getValue().lastAccess < cutoff);
+	}
+
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new HashMap<>();
+		stats.put("boards", boards.size());
+		stats.put("entries", boards.values().stream().mapToLong(board -> board.leaderboard.size()).sum());
+		return stats;
+	}
+
+	private QuizLeaderboard boardFor(Long quizId) {
+		Board board = boards.computeIfAbsent(quizId, this::load);
+		board.lastAccess = System.currentTimeMillis();
+		return board.leaderboard;
+	}
+
+	private Board load(Long quizId) {
+		long started = System.nanoTime();
+		QuizLeaderboard leaderboard = new QuizLeaderboard();
+		for (StudentQuizAttemptRepository.Standing standing : studentQuizAttemptRepository.findStandingsByQuizId(quizId)) {
+			leaderboard.add(standing.getStudentId(), standing.getScore() != null ? standing.getScore() : 0,
+					standing.getSubmittedAt());
+		}
+		log.debug("Built leaderboard of quiz {} with {} attempts in {} ms", quizId, leaderboard.size(),
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+		return new Board(leaderboard);
+	}
+
+	private LeaderboardEntryDto toDto(QuizLeaderboard.Standing standing, String studentName, int total) {
+		double percentile = total > 1 ? (total - standing.rank()) * 100.0 / (total - 1) : 100.0;
+		return new LeaderboardEntryDto(standing.rank(), standing.studentId(), studentName, standing.score(),
+				standing.submittedAt(), total, percentile);
+	}
+
+	private static final class Board {
+		private final QuizLeaderboard leaderboard;
+		private volatile long lastAccess = System.currentTimeMillis();
+
+		private Board(QuizLeaderboard leaderboard) {
+			this.leaderboard = leaderboard;
+		}
+	}
+}
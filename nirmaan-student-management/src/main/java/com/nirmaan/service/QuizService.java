@@ -1,7 +1,17 @@
 package com.nirmaan.service;
 
+import com.nirmaan.cache.QuizAnswerCodec;
+import com.nirmaan.cache.QuizLayoutStore;
+import com.nirmaan.cache.QuizSnapshot;
+import com.nirmaan.cache.QuizSnapshotCache;
+import com.nirmaan.cache.QuizSubmittedIndex;
+import com.nirmaan.cache.QuizWindowIndex;
+import com.nirmaan.dto.LeaderboardEntryDto;
+import com.nirmaan.dto.QuizAttemptDto;
 import com.nirmaan.dto.QuizDto;
 import com.nirmaan.dto.QuestionDto;
+import com.nirmaan.dto.QuizSubmissionReceipt;
+import com.nirmaan.dto.QuizSummaryDto;
 import com.nirmaan.entity.Quiz;
 import com.nirmaan.entity.Question;
 import com.nirmaan.entity.Trainer;
@@ -21,6 +31,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -35,6 +47,13 @@ public class QuizService {
 	private final BatchRepository batchRepository;
 	private final StudentQuizAttemptRepository studentQuizAttemptRepository;
 	private final StudentRepository studentRepository;
+	private final QuizSnapshotCache quizSnapshotCache;
+	private final QuizLayoutStore quizLayoutStore;
+	private final QuizWindowIndex quizWindowIndex;
+	private final QuizSubmissionService quizSubmissionService;
+	private final QuizAnalyticsService quizAnalyticsService;
+	private final QuizLeaderboardService quizLeaderboardService;
+	private final QuizSubmittedIndex quizSubmittedIndex;
 
 	@Transactional
 	public QuizDto createQuiz(QuizDto quizDto, Long trainerId) {
@@ -57,25 +76,99 @@ public class QuizService {
 
 		quiz = quizRepository.save(quiz);
 
-		// Create questions
+		// Create questions; pooled ids let these go out as JDBC batches
 		if (quizDto.getQuestions() != null) {
+			List<Question> questions = new ArrayList<>(quizDto.getQuestions().size());
 			for (QuestionDto questionDto : quizDto.getQuestions()) {
 				Question question = new Question();
 				question.setQuiz(quiz);
-				question.setQuestionText(questionDto.getQuestionText());
-				question.setOptionA(questionDto.getOptionA());
-				question.setOptionB(questionDto.getOptionB());
-				question.setOptionC(questionDto.getOptionC());
-				question.setOptionD(questionDto.getOptionD());
-				question.setCorrectAnswer(questionDto.getCorrectAnswer());
-				question.setMarks(questionDto.getMarks());
-				questionRepository.save(question);
+				copyQuestion(questionDto, question);
+				questions.add(question);
 			}
+			questionRepository.saveAll(questions);
 		}
 
+		quizWindowIndex.refresh(quiz.getId());
 		return convertToDto(quiz);
 	}
 
+	@Transactional
+	public QuizDto updateQuiz(Long quizId, QuizDto quizDto, Long trainerId) {
+		Quiz quiz = quizRepository.findById(quizId).orElseThrow(() -> new ResourceNotFoundException("Quiz not found"));
+		if (quiz.getTrainer() != null && !quiz.getTrainer().getId().equals(trainerId)) {
+			throw new ValidationException("Quiz belongs to another trainer");
+		}
+
+		quiz.setTitle(quizDto.getTitle());
+		quiz.setDescription(quizDto.getDescription());
+		quiz.setCourseType(quizDto.getCourseType());
+		if (quizDto.getBatchName() != null) {
+			quiz.setBatch(batchRepository.findById(Long.parseLong(quizDto.getBatchName())).orElse(null));
+		}
+		quiz.setTimeLimit(quizDto.getTimeLimit());
+		quiz.setStartTime(quizDto.getStartTime());
+		quiz.setEndTime(quizDto.getEndTime());
+		quiz.setActive(quizDto.isActive());
+
+		quiz = quizRepository.save(quiz);
+		quizSnapshotCache.invalidate(quizId);
+		quizWindowIndex.refresh(quizId);
+		return convertToDto(quiz);
+	}
+
+	@Transactional
+	public void deleteQuiz(Long quizId) {
+		Quiz quiz = quizRepository.findById(quizId).orElseThrow(() -> new ResourceNotFoundException("Quiz not found"));
+		quizRepository.delete(quiz);
+		quizAnalyticsService.evict(quizId);
+		quizLeaderboardService.evict(quizId);
+		quizSubmittedIndex.forget(quizId);
+		quizSnapshotCache.invalidate(quizId);
+		quizWindowIndex.refresh(quizId);
+	}
+
+	@Transactional
+	public void activateQuiz(Long quizId) {
+		setActive(quizId, true);
+	}
+
+	@Transactional
+	public void deactivateQuiz(Long quizId) {
+		setActive(quizId, false);
+	}
+
+	@Transactional
+	public QuestionDto addQuestionToQuiz(Long quizId, QuestionDto questionDto) {
+		Quiz quiz = quizRepository.findById(quizId).orElseThrow(() -> new ResourceNotFoundException("Quiz not found"));
+
+		Question question = new Question();
+		question.setQuiz(quiz);
+		copyQuestion(questionDto, question);
+		question = questionRepository.save(question);
+		quizSnapshotCache.invalidate(quizId);
+		return convertQuestionToDto(question);
+	}
+
+	@Transactional
+	public QuestionDto updateQuestion(Long questionId, QuestionDto questionDto) {
+		Question question = questionRepository.findById(questionId)
+				.orElseThrow(() -> new ResourceNotFoundException("Question not found"));
+
+		copyQuestion(questionDto, question);
+		question = questionRepository.save(question);
+		quizSnapshotCache.invalidate(question.getQuiz().getId());
+		return convertQuestionToDto(question);
+	}
+
+	@Transactional
+	public void deleteQuestion(Long questionId) {
+		Question question = questionRepository.findById(questionId)
+				.orElseThrow(() -> new ResourceNotFoundException("Question not found"));
+
+		questionRepository.delete(question);
+		quizSnapshotCache.invalidate(question.getQuiz().getId());
+	}
+
 	public List<QuizDto> getQuizzesByTrainer(Long trainerId) {
 		Trainer trainer = trainerRepository.findById(trainerId)
 				.orElseThrow(() -> new ResourceNotFoundException("Trainer not found"));
@@ -83,48 +176,122 @@ public class QuizService {
 		return quizRepository.findByTrainer(trainer).stream().map(this::convertToDto).collect(Collectors.toList());
 	}
 
-	public List<QuizDto> getAvailableQuizzes() {
-		return quizRepository.findByActiveTrue().stream()
-				.filter(quiz -> quiz.getStartTime().isBefore(LocalDateTime.now())
-						&& quiz.getEndTime().isAfter(LocalDateTime.now()))
-				.map(this::convertToDto).collect(Collectors.toList());
+	public List<QuizSummaryDto> getAvailableQuizzes() {
+		return quizWindowIndex.openAt(LocalDateTime.now());
 	}
 
-	public StudentQuizAttempt submitQuizAttempt(Long studentId, Long quizId, Map<Long, String> answers) {
-		Student student = studentRepository.findById(studentId)
-				.orElseThrow(() -> new ResourceNotFoundException("Student not found"));
+	public List<QuizSummaryDto> getAvailableQuizzesForStudent(Long studentId) {
+		List<StudentRepository.StudentBatch> students = studentRepository.findBatchIdsByIdIn(List.of(studentId));
+		if (students.isEmpty()) {
+			throw new ResourceNotFoundException("Student not found");
+		}
+		return quizWindowIndex.openAt(LocalDateTime.now(), students.get(0).getBatchId());
+	}
 
-		Quiz quiz = quizRepository.findById(quizId).orElseThrow(() -> new ResourceNotFoundException("Quiz not found"));
+	/**
+	 * Accepts the submission for asynchronous scoring; the receipt is
+	 * completed by {@link QuizSubmissionService} once the attempt is saved.
+	 */
+	public QuizSubmissionReceipt submitQuizAttempt(Long studentId, Long quizId, Map<Long, String> answers) {
+		return quizSubmissionService.submit(studentId, quizId, answers);
+	}
+
+	/**
+	 * Array form of {@link #submitQuizAttempt}: one option per question in
+	 * question id order, the order in which quiz questions are listed.
+	 */
+	public QuizSubmissionReceipt submitQuizAnswerSheet(Long studentId, Long quizId, List<String> answers) {
+		return quizSubmissionService.submit(studentId, quizId, answers);
+	}
 
-		if (studentQuizAttemptRepository.findByStudentAndQuiz(student, quiz).isPresent()) {
-			throw new ValidationException("Quiz already attempted");
+	/**
+	 * Score distribution and per-question item statistics, served from the
+	 * running analytics rather than a scan of every attempt.
+	 */
+	public Map<String, Object> getQuizAnalytics(Long quizId) {
+		if (!quizRepository.existsById(quizId)) {
+			throw new ResourceNotFoundException("Quiz not found");
 		}
+		return quizAnalyticsService.getAnalytics(quizId);
+	}
 
-		List<Question> questions = questionRepository.findByQuiz(quiz);
-		int correctAnswers = 0;
-		int totalQuestions = questions.size();
+	public long rebuildQuizAnalytics(Long quizId) {
+		if (!quizRepository.existsById(quizId)) {
+			throw new ResourceNotFoundException("Quiz not found");
+		}
+		return quizAnalyticsService.rebuild(quizId);
+	}
 
-		for (Question question : questions) {
-			String studentAnswer = answers.get(question.getId());
-			if (studentAnswer != null && studentAnswer.equals(question.getCorrectAnswer())) {
-				correctAnswers++;
-			}
+	public List<Map<String, Object>> getQuizResults(Long quizId) {
+		if (!quizRepository.existsById(quizId)) {
+			throw new ResourceNotFoundException("Quiz not found");
 		}
+		List<Map<String, Object>> results = new ArrayList<>();
+		for (StudentQuizAttemptRepository.Result result : studentQuizAttemptRepository.findResultsByQuizId(quizId)) {
+			Map<String, Object> row = new LinkedHashMap<>();
+			row.put("attemptId", result.getAttemptId());
+			row.put("studentId", result.getStudentId());
+			row.put("rollNumber", result.getRollNumber());
+			row.put("studentName", result.getStudentName());
+			row.put("score", result.getScore());
+			row.put("correctAnswers", result.getCorrectAnswers());
+			row.put("totalQuestions", result.getTotalQuestions());
+			row.put("submittedAt", result.getSubmittedAt());
+			results.add(row);
+		}
+		return results;
+	}
 
-		int score = (correctAnswers * 100) / totalQuestions;
+	public List<QuizAttemptDto> getStudentQuizAttempts(Long studentId) {
+		return toAttemptDtos(studentQuizAttemptRepository.findViewsByStudentId(studentId));
+	}
 
-		StudentQuizAttempt attempt = new StudentQuizAttempt();
-		attempt.setStudent(student);
-		attempt.setQuiz(quiz);
-		attempt.setStartTime(LocalDateTime.now().minusMinutes(quiz.getTimeLimit()));
-		attempt.setEndTime(LocalDateTime.now());
-		attempt.setTotalQuestions(totalQuestions);
-		attempt.setCorrectAnswers(correctAnswers);
-		attempt.setScore(score);
-		attempt.setAnswers(answers.toString()); // Convert to JSON in real implementation
-		attempt.setCompleted(true);
+	public List<QuizAttemptDto> getQuizAttempts(Long quizId) {
+		if (!quizRepository.existsById(quizId)) {
+			throw new ResourceNotFoundException("Quiz not found");
+		}
+		return toAttemptDtos(studentQuizAttemptRepository.findViewsByQuizId(quizId));
+	}
 
-		return studentQuizAttemptRepository.save(attempt);
+	public List<LeaderboardEntryDto> getLeaderboard(Long quizId, int limit) {
+		if (!quizRepository.existsById(quizId)) {
+			throw new ResourceNotFoundException("Quiz not found");
+		}
+		return quizLeaderboardService.getTop(quizId, limit);
+	}
+
+	public LeaderboardEntryDto getLeaderboardStanding(Long quizId, Long studentId) {
+		if (!quizRepository.existsById(quizId)) {
+			throw new ResourceNotFoundException("Quiz not found");
+		}
+		return quizLeaderboardService.getStanding(quizId, studentId);
+	}
+
+	private List<QuizAttemptDto> toAttemptDtos(List<StudentQuizAttemptRepository.AttemptView> views) {
+		List<QuizAttemptDto> attempts = new ArrayList<>(views.size());
+		for (StudentQuizAttemptRepository.AttemptView view : views) {
+			attempts.add(new QuizAttemptDto(view.getId(), view.getStudentId(), view.getStudentName(), view.getQuizId(),
+					view.getQuizTitle(), view.getStartTime(), view.getEndTime(), view.getTotalQuestions(),
+					view.getCorrectAnswers(), view.getScore(), Boolean.TRUE.equals(view.getCompleted()),
+					answersOf(view)));
+		}
+		return attempts;
+	}
+
+	/**
+	 * Readable answers of an attempt, decoded against the question layout it
+	 * was scored with; the current snapshot covers attempts saved before
+	 * layouts were stored, as long as the questions have not changed since.
+	 */
+	private Map<Long, String> answersOf(StudentQuizAttemptRepository.AttemptView view) {
+		byte[] codes = view.getAnswerCodes();
+		if (codes == null) {
+			return view.getAnswers() != null ? QuizAnswerCodec.decodeLegacy(view.getAnswers()) : Map.of();
+		}
+		return quizLayoutStore.decode(view.getQuizId(), codes).orElseGet(() -> {
+			QuizSnapshot snapshot = quizSnapshotCache.forQuiz(view.getQuizId());
+			return QuizAnswerCodec.matches(codes, snapshot) ? QuizAnswerCodec.decode(codes, snapshot) : null;
+		});
 	}
 
 	private QuizDto convertToDto(Quiz quiz) {
@@ -145,12 +312,31 @@ public class QuizService {
 		dto.setEndTime(quiz.getEndTime());
 		dto.setActive(quiz.isActive());
 
-		List<Question> questions = questionRepository.findByQuiz(quiz);
+		List<Question> questions = questionRepository.findByQuizOrderByIdAsc(quiz);
 		dto.setQuestions(questions.stream().map(this::convertQuestionToDto).collect(Collectors.toList()));
 
 		return dto;
 	}
 
+	private void setActive(Long quizId, boolean active) {
+		Quiz quiz = quizRepository.findById(quizId).orElseThrow(() -> new ResourceNotFoundException("Quiz not found"));
+		quiz.setActive(active);
+		quizRepository.save(quiz);
+		quizWindowIndex.refresh(quizId);
+	}
+
+	private void copyQuestion(QuestionDto questionDto, Question question) {
+		question.setQuestionText(questionDto.getQuestionText());
+		question.setOptionA(questionDto.getOptionA());
+		question.setOptionB(questionDto.getOptionB());
+		question.setOptionC(questionDto.getOptionC());
+		question.setOptionD(questionDto.getOptionD());
+		question.setCorrectAnswer(questionDto.getCorrectAnswer());
+		if (questionDto.getMarks() != null) {
+			question.setMarks(questionDto.getMarks());
+		}
+	}
+
 	private QuestionDto convertQuestionToDto(Question question) {
 		QuestionDto dto = new QuestionDto();
 		dto.setId(question.getId());
@@ -0,0 +1,458 @@
+package com.nirmaan.service;
+
+import com.nirmaan.cache.QuizAnswerCodec;
+import com.nirmaan.cache.QuizLayoutStore;
+import com.nirmaan.cache.QuizSnapshot;
+import com.nirmaan.cache.QuizSnapshotCache;
+import com.nirmaan.cache.QuizSubmittedIndex;
+import com.nirmaan.cache.QuizWindowIndex;
+import com.nirmaan.dto.QuizSubmissionReceipt;
+import com.nirmaan.dto.QuizSummaryDto;
+import com.nirmaan.entity.Quiz;
+import com.nirmaan.entity.Student;
+import com.nirmaan.entity.StudentQuizAttempt;
+import com.nirmaan.enums.QuizSubmissionStatus;
+import com.nirmaan.exception.ResourceNotFoundException;
+import com.nirmaan.exception.ServiceBusyException;
+import com.nirmaan.exception.ValidationException;
+import com.nirmaan.repository.StudentQuizAttemptRepository;
+import com.nirmaan.util.DataAccessFailures;
+import com.nirmaan.util.QuizSubmissionJournal;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Asynchronous path for quiz submissions. A submission is validated against
+ * in-memory state, appended to the on-disk journal and acknowledged with a
+ * receipt. A single writer thread then scores queued submissions against the
+ * cached answer key, saves them in JDBC batches and completes the receipts.
+ * The queue is bounded; when it is full, submissions are refused with a retry
+ * hint instead of piling onto the database.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QuizSubmissionService {
+
+	private static final String UNIQUE_ATTEMPT = "uk_attempt_student_quiz";
+
+	private final QuizSubmissionJournal quizSubmissionJournal;
+	private final QuizSnapshotCache quizSnapshotCache;
+	private final QuizLayoutStore quizLayoutStore;
+	private final QuizWindowIndex quizWindowIndex;
+	private final StudentQuizAttemptRepository studentQuizAttemptRepository;
+	private final EntityManager entityManager;
+	private final TransactionTemplate transactionTemplate;
+	private final QuizAnalyticsService quizAnalyticsService;
+	private final QuizLeaderboardService quizLeaderboardService;
+	private final QuizSubmittedIndex quizSubmittedIndex;
+
+	private final Object enqueueLock = new Object();
+	private final Map<Key, String> pending = new ConcurrentHashMap<>();
+	private final Map<String, Tracked> receipts = new ConcurrentHashMap<>();
+	private final LongAdder accepted = new LongAdder();
+	private final LongAdder refused = new LongAdder();
+	private final LongAdder scored = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder duplicates = new LongAdder();
+	private final LongAdder batches = new LongAdder();
+	private final LongAdder retries = new LongAdder();
+
+	@Value("${app.quiz.submission.queue-capacity:5000}")
+	private int queueCapacity;
+
+	@Value("${app.quiz.submission.batch-size:200}")
+	private int batchSize;
+
+	@Value("${app.quiz.submission.grace-seconds:30}")
+	private int graceSeconds;
+
+	@Value("${app.quiz.submission.retry-after-seconds:5}")
+	private int retryAfterSeconds;
+
+	@Value("${app.quiz.submission.receipt-ttl-minutes:60}")
+	private int receiptTtlMinutes;
+
+	private BlockingQueue<QuizSubmissionJournal.Entry> queue;
+	private Thread writer;
+	private volatile boolean running;
+	private volatile int lastBatchSize;
+	private volatile long lastBatchMillis;
+
+	@PostConstruct
+	public void init() {
+		queue = new ArrayBlockingQueue<>(queueCapacity);
+	}
+
+	public QuizSubmissionReceipt submit(Long studentId, Long quizId, Map<Long, String> answers) {
+		return enqueue(studentId, quizId, QuizAnswerCodec.encode(openSnapshot(quizId), answers));
+	}
+
+	/**
+	 * Submits answers listed in question id order, {@code null} for a skipped
+	 * question.
+	 */
+	public QuizSubmissionReceipt submit(Long studentId, Long quizId, List<String> answers) {
+		QuizSnapshot snapshot = openSnapshot(quizId);
+		if (answers.size() != snapshot.getQuestionCount()) {
+			throw new ValidationException("Expected " + snapshot.getQuestionCount() + " answers");
+		}
+		return enqueue(studentId, quizId, QuizAnswerCodec.encode(snapshot, answers));
+	}
+
+	private QuizSnapshot openSnapshot(Long quizId) {
+		QuizSummaryDto quiz = quizWindowIndex.find(quizId)
+				.orElseThrow(() -> new ResourceNotFoundException("Quiz not found"));
+		LocalDateTime now = LocalDateTime.now();
+		if ((quiz.getStartTime() != null && now.isBefore(quiz.getStartTime()))
+				|| (quiz.getEndTime() != null && now.isAfter(quiz.getEndTime().plusSeconds(graceSeconds)))) {
+			throw new ValidationException("Quiz is not open for submissions");
+		}
+		QuizSnapshot snapshot = quizSnapshotCache.forQuiz(quizId);
+		if (snapshot.getQuestionCount() == 0) {
+			throw new ValidationException("Quiz has no questions");
+		}
+		return snapshot;
+	}
+
+	private QuizSubmissionReceipt enqueue(Long studentId, Long quizId, byte[] answerCodes) {
+		LocalDateTime now = LocalDateTime.now();
+		if (quizSubmittedIndex.isSubmitted(quizId, studentId)) {
+			duplicates.increment();
+			return duplicateReceipt(null, quizId, now);
+		}
+		Key key = new Key(studentId, quizId);
+		String receiptId = UUID.randomUUID().toString();
+		String queued = pending.putIfAbsent(key, receiptId);
+		if (queued != null) {
+			// A double-click or client retry gets the receipt of the submission already queued
+			duplicates.increment();
+			Tracked tracked = receipts.get(queued);
+			return tracked != null ? tracked.receipt : duplicateReceipt(null, quizId, now);
+		}
+		try {
+			Tracked tracked = new Tracked(studentId, new QuizSubmissionReceipt(receiptId, quizId, now));
+			receipts.put(receiptId, tracked);
+			// Journal order and queue order must agree so that checkpoints never skip an entry
+			synchronized (enqueueLock) {
+				if (queue.remainingCapacity() == 0) {
+					refused.increment();
+					throw new ServiceBusyException("Too many quiz submissions in progress, please retry shortly",
+							retryAfterSeconds);
+				}
+				queue.add(quizSubmissionJournal.append(receiptId, studentId, quizId, now, answerCodes));
+			}
+			accepted.increment();
+			return tracked.receipt;
+		} catch (RuntimeException e) {
+			receipts.remove(receiptId);
+			pending.remove(key, receiptId);
+			throw e;
+		}
+	}
+
+	public QuizSubmissionReceipt getReceipt(String receiptId, Long studentId) {
+		return tracked(receiptId, studentId).receipt;
+	}
+
+	/**
+	 * Completes once the submission is scored or rejected; already complete
+	 * for receipts that are no longer queued.
+	 */
+	public CompletableFuture<QuizSubmissionReceipt> awaitReceipt(String receiptId, Long studentId) {
+		return tracked(receiptId, studentId).result;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		List<QuizSubmissionJournal.Entry> entries = quizSubmissionJournal.recover();
+		for (QuizSubmissionJournal.Entry entry : entries) {
+			pending.put(new Key(entry.studentId(), entry.quizId()), entry.receiptId());
+			receipts.put(entry.receiptId(), new Tracked(entry.studentId(),
+					new QuizSubmissionReceipt(entry.receiptId(), entry.quizId(), entry.submittedAt())));
+		}
+		if (!entries.isEmpty()) {
+			log.info("Recovered {} unsaved quiz submissions from journal", entries.size());
+		}
+
+		// Recovered submissions are written by the writer, ahead of new ones, so a database outage cannot fail startup
+		running = true;
+		writer = new Thread(() -> runWriter(entries), "quiz-submission-writer");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		running = false;
+		if (writer != null) {
+			writer.join(TimeUnit.SECONDS.toMillis(30));
+		}
+	}
+
+	@Scheduled(fixedDelay = 60000)
+	public void evictCompletedReceipts() {
+		long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(receiptTtlMinutes);
+		receipts.values().removeIf(tracked -> tracked.completedAt > 0 && tracked.completedAt < cutoff);
+	}
+
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new HashMap<>();
+		QuizSubmissionJournal.Entry oldest = queue.peek();
+		stats.put("queued", queue.size());
+		stats.put("capacity", queueCapacity);
+		stats.put("oldestQueuedMs", oldest != null
+				? java.time.Duration.between(oldest.submittedAt(), LocalDateTime.now()).toMillis() : 0);
+		stats.put("accepted", accepted.sum());
+		stats.put("refusedBusy", refused.sum());
+		stats.put("scored", scored.sum());
+		stats.put("rejected", rejected.sum());
+		stats.put("duplicates", duplicates.sum());
+		stats.put("batches", batches.sum());
+		stats.put("retries", retries.sum());
+		stats.put("lastBatchSize", lastBatchSize);
+		stats.put("lastBatchMillis", lastBatchMillis);
+		stats.put("trackedReceipts", receipts.size());
+		return stats;
+	}
+
+	private Tracked tracked(String receiptId, Long studentId) {
+		Tracked tracked = receipts.get(receiptId);
+		if (tracked == null || !tracked.studentId.equals(studentId)) {
+			throw new ResourceNotFoundException("Submission receipt not found");
+		}
+		return tracked;
+	}
+
+	private void runWriter(List<QuizSubmissionJournal.Entry> recovered) {
+		List<QuizSubmissionJournal.Entry> chunk = new ArrayList<>(batchSize);
+		int replayed = 0;
+		while (running || !queue.isEmpty() || !chunk.isEmpty()) {
+			try {
+				if (chunk.isEmpty() && replayed < recovered.size()) {
+					int end = Math.min(replayed + batchSize, recovered.size());
+					chunk.addAll(recovered.subList(replayed, end));
+					replayed = end;
+				} else if (chunk.isEmpty()) {
+					QuizSubmissionJournal.Entry first = queue.poll(1, TimeUnit.SECONDS);
+					if (first == null) {
+						continue;
+					}
+					chunk.add(first);
+					queue.drainTo(chunk, batchSize - 1);
+				}
+				write(chunk);
+				chunk.clear();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (RuntimeException e) {
+				retries.increment();
+				if (!running) {
+					// Left in the journal and replayed on the next start
+					log.warn("Quiz submission writer stopping with {} unsaved submissions", chunk.size() + queue.size(), e);
+					return;
+				}
+				log.warn("Quiz submission batch of {} failed, retrying", chunk.size(), e);
+				pause();
+			}
+		}
+	}
+
+	/**
+	 * Saves one chunk and completes its receipts. Only failures the database
+	 * may recover from are thrown for the writer to retry; any other failure
+	 * rejects just the submissions that cause it.
+	 */
+	void write(List<QuizSubmissionJournal.Entry> chunk) {
+		long started = System.nanoTime();
+		List<QuizSubmissionReceipt> results;
+		try {
+			results = save(chunk);
+		} catch (RuntimeException e) {
+			if (DataAccessFailures.isTransient(e)) {
+				throw e;
+			}
+			// Isolate the duplicate, or the submission whose student or quiz is gone, so the rest still save
+			results = new ArrayList<>(chunk.size());
+			for (QuizSubmissionJournal.Entry entry : chunk) {
+				try {
+					results.addAll(save(List.of(entry)));
+				} catch (RuntimeException single) {
+					if (DataAccessFailures.isTransient(single)) {
+						throw single;
+					}
+					if (isDuplicateAttempt(single)) {
+						results.add(duplicateReceipt(entry.receiptId(), entry.quizId(), entry.submittedAt()));
+						continue;
+					}
+					log.warn("Rejecting quiz submission {}: {}", entry.receiptId(), single.getMessage());
+					results.add(rejectedReceipt(entry, "Submission could not be saved"));
+				}
+			}
+		}
+
+		quizSubmissionJournal.checkpoint(chunk.get(chunk.size() - 1).sequence());
+		for (int i = 0; i < chunk.size(); i++) {
+			complete(chunk.get(i), results.get(i));
+		}
+		batches.increment();
+		lastBatchSize = chunk.size();
+		lastBatchMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+	}
+
+	/**
+	 * Scores and inserts one chunk in a single transaction; returns one
+	 * receipt per entry, in order.
+	 */
+	private List<QuizSubmissionReceipt> save(List<QuizSubmissionJournal.Entry> chunk) {
+		return transactionTemplate.execute(status -> {
+			// A replayed journal may contain submissions that were saved before a crash
+			Set<Key> seen = new HashSet<>();
+			List<QuizSubmissionReceipt> results = new ArrayList<>(chunk.size());
+			List<StudentQuizAttempt> attempts = new ArrayList<>(chunk.size());
+			for (QuizSubmissionJournal.Entry entry : chunk) {
+				if (!seen.add(new Key(entry.studentId(), entry.quizId()))
+						|| quizSubmittedIndex.isSubmitted(entry.quizId(), entry.studentId())) {
+					results.add(duplicateReceipt(entry.receiptId(), entry.quizId(), entry.submittedAt()));
+					attempts.add(null);
+					continue;
+				}
+				QuizSnapshot snapshot = quizSnapshotCache.forQuiz(entry.quizId());
+				if (!QuizAnswerCodec.matches(entry.answerCodes(), snapshot)) {
+					// Positions would now point at different questions
+					results.add(rejectedReceipt(entry, "Quiz questions changed after submission, please submit again"));
+					attempts.add(null);
+					continue;
+				}
+				quizLayoutStore.register(snapshot);
+				int totalQuestions = snapshot.getQuestionCount();
+				int correctAnswers = snapshot.score(entry.answerCodes()).correctAnswers();
+				int timeLimit = quizWindowIndex.find(entry.quizId()).map(QuizSummaryDto::getTimeLimit)
+						.filter(minutes -> minutes != null).orElse(0);
+
+				StudentQuizAttempt attempt = new StudentQuizAttempt();
+				attempt.setStudent(entityManager.getReference(Student.class, entry.studentId()));
+				attempt.setQuiz(entityManager.getReference(Quiz.class, entry.quizId()));
+				attempt.setStartTime(entry.submittedAt().minusMinutes(timeLimit));
+				attempt.setEndTime(entry.submittedAt());
+				attempt.setTotalQuestions(totalQuestions);
+				attempt.setCorrectAnswers(correctAnswers);
+				attempt.setScore(totalQuestions == 0 ? 0 : (correctAnswers * 100) / totalQuestions);
+				attempt.setAnswerCodes(entry.answerCodes());
+				attempt.setCompleted(true);
+				attempts.add(attempt);
+				results.add(null);
+			}
+
+			studentQuizAttemptRepository.saveAll(attempts.stream().filter(attempt -> attempt != null).toList());
+			// Through the repository, whose proxy translates constraint failures into DataAccessExceptions
+			studentQuizAttemptRepository.flush();
+
+			for (int i = 0; i < chunk.size(); i++) {
+				StudentQuizAttempt attempt = attempts.get(i);
+				if (attempt != null) {
+					QuizSubmissionJournal.Entry entry = chunk.get(i);
+					results.set(i, new QuizSubmissionReceipt(entry.receiptId(), entry.quizId(),
+							QuizSubmissionStatus.SCORED, QuizSubmissionStatus.SCORED.getMessage(), entry.submittedAt(),
+							attempt.getId(), attempt.getTotalQuestions(), attempt.getCorrectAnswers(),
+							attempt.getScore()));
+				}
+			}
+			return results;
+		});
+	}
+
+	private void complete(QuizSubmissionJournal.Entry entry, QuizSubmissionReceipt receipt) {
+		// Marked before the pending key goes so that a concurrent submit sees one or the other
+		if (receipt.getStatus() == QuizSubmissionStatus.SCORED || receipt.getStatus() == QuizSubmissionStatus.DUPLICATE) {
+			quizSubmittedIndex.markSubmitted(entry.quizId(), entry.studentId());
+		}
+		if (receipt.getStatus() == QuizSubmissionStatus.SCORED) {
+			scored.increment();
+			quizAnalyticsService.recordAttempt(entry.quizId(), receipt.getAttemptId(), entry.answerCodes(),
+					receipt.getScore());
+			quizLeaderboardService.recordAttempt(entry.quizId(), entry.studentId(), receipt.getScore(),
+					entry.submittedAt());
+		} else if (receipt.getStatus() == QuizSubmissionStatus.DUPLICATE) {
+			duplicates.increment();
+		} else {
+			rejected.increment();
+		}
+		pending.remove(new Key(entry.studentId(), entry.quizId()), entry.receiptId());
+		Tracked tracked = receipts.get(entry.receiptId());
+		if (tracked != null) {
+			tracked.receipt = receipt;
+			tracked.completedAt = System.currentTimeMillis();
+			tracked.result.complete(receipt);
+		}
+	}
+
+	private QuizSubmissionReceipt duplicateReceipt(String receiptId, Long quizId, LocalDateTime submittedAt) {
+		return new QuizSubmissionReceipt(receiptId, quizId, QuizSubmissionStatus.DUPLICATE,
+				QuizSubmissionStatus.DUPLICATE.getMessage(), submittedAt, null, null, null, null);
+	}
+
+	private boolean isDuplicateAttempt(RuntimeException e) {
+		for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+			if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+					&& violation.getConstraintName().toLowerCase().contains(UNIQUE_ATTEMPT)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private QuizSubmissionReceipt rejectedReceipt(QuizSubmissionJournal.Entry entry, String message) {
+		return new QuizSubmissionReceipt(entry.receiptId(), entry.quizId(), QuizSubmissionStatus.REJECTED, message,
+				entry.submittedAt(), null, null, null, null);
+	}
+
+	private void pause() {
+		try {
+			Thread.sleep(1000);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private record Key(Long studentId, Long quizId) {
+	}
+
+	private static final class Tracked {
+		private final Long studentId;
+		private final CompletableFuture<QuizSubmissionReceipt> result = new CompletableFuture<>();
+		private volatile QuizSubmissionReceipt receipt;
+		private volatile long completedAt;
+
+		private Tracked(Long studentId, QuizSubmissionReceipt receipt) {
+			this.studentId = studentId;
+			this.receipt = receipt;
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package com.nirmaan.util;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cold tier of attendance: one {@link AttendanceSegment} per archived batch,
+ * mapped at startup and replaced atomically when a batch is re-archived.
+ * Segments are read-only; nothing here touches the database. With no path
+ * configured the store stays empty. A configured path must be absolute, since
+ * the segments are the only copy of archived rows and have to live on storage
+ * that outlasts the node and is visible to every node serving reads.
+ */
+@Component
+@Slf4j
+public class AttendanceColdStore {
+
+	private static final String SEGMENT_PREFIX = "batch-";
+	private static final String SEGMENT_SUFFIX = ".att";
+
+	@Value("${app.attendance.archive.path:}")
+	private String archivePath;
+
+	private Path directory;
+	private final Map<Long, AttendanceSegment> segments = new ConcurrentHashMap<>();
+
+	@PostConstruct
+	public void open() throws IOException {
+		if (archivePath.isBlank()) {
+			return;
+		}
+		directory = Paths.get(archivePath);
+		if (!directory.isAbsolute()) {
+			throw new IllegalStateException(
+					"app.attendance.archive.path must be an absolute path on durable shared storage: " + archivePath);
+		}
+		Files.createDirectories(directory);
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX + "*")) {
+			for (Path file : files) {
+				if (!file.getFileName().toString().endsWith(SEGMENT_SUFFIX)) {
+					// Left behind by a write that did not reach the rename
+					Files.delete(file);
+					continue;
+				}
+				AttendanceSegment segment = AttendanceSegment.open(file);
+				segments.put(segment.getBatchId(), segment);
+			}
+		}
+		log.info("Mapped {} attendance archive segments from {}", segments.size(), directory);
+	}
+
+	public boolean isConfigured() {
+		return directory != null;
+	}
+
+	public boolean isEmpty() {
+		return segments.isEmpty();
+	}
+
+	public Optional<AttendanceSegment> forBatch(Long batchId) {
+		return batchId == null ? Optional.empty() : Optional.ofNullable(segments.get(batchId));
+	}
+
+	public List<AttendanceSegment.Row> rowsForBatch(Long batchId) {
+		List<AttendanceSegment.Row> rows = new ArrayList<>();
+		forBatch(batchId).ifPresent(segment -> segment.forEachRow(rows::add));
+		return rows;
+	}
+
+	public List<AttendanceSegment.Row> rowsForStudent(Long studentId) {
+		List<AttendanceSegment.Row> rows = new ArrayList<>();
+		for (AttendanceSegment segment : segments.values()) {
+			segment.forEachRowOfStudent(studentId, rows::add);
+		}
+		return rows;
+	}
+
+	public List<AttendanceSegment.Row> rowsOn(LocalDate date) {
+		List<AttendanceSegment.Row> rows = new ArrayList<>();
+		for (AttendanceSegment segment : segments.values()) {
+			segment.forEachRowOn(date, rows::add);
+		}
+		return rows;
+	}
+
+	public List<Long> studentIdsOn(LocalDate date) {
+		List<Long> studentIds = new ArrayList<>();
+		for (AttendanceSegment segment : segments.values()) {
+			segment.forEachRowOn(date, row -> studentIds.add(row.studentId()));
+		}
+		return studentIds;
+	}
+
+	public boolean containsId(long id) {
+		for (AttendanceSegment segment : segments.values()) {
+			boolean[] found = new boolean[1];
+			segment.forEachRow(row -> found[0] |= row.id() == id);
+			if (found[0]) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public List<AttendanceSegment> overlapping(LocalDate startDate, LocalDate endDate) {
+		List<AttendanceSegment> matches = new ArrayList<>();
+		for (AttendanceSegment segment : segments.values()) {
+			if (segment.overlaps(startDate, endDate)) {
+				matches.add(segment);
+			}
+		}
+		return matches;
+	}
+
+	/**
+	 * Writes the batch's full set of archived rows and swaps the new segment
+	 * in. Readers holding the old segment keep their mapping until released.
+	 */
+	public synchronized AttendanceSegment publish(Long batchId, List<AttendanceSegment.Row> rows)
+			throws IOException {
+		if (directory == null) {
+			throw new IllegalStateException("No attendance archive path is configured");
+		}
+		Path file = directory.resolve(SEGMENT_PREFIX + batchId + SEGMENT_SUFFIX);
+		AttendanceSegment.write(file, batchId, rows);
+		AttendanceSegment segment = AttendanceSegment.open(file);
+		segments.put(batchId, segment);
+		return segment;
+	}
+
+	public Map<String, Object> getStats() {
+		long rows = 0;
+		long bytes = 0;
+		for (AttendanceSegment segment : segments.values()) {
+			rows += segment.getRowCount();
+			try {
+				bytes += Files.size(segment.getPath());
+			} catch (IOException e) {
+				log.warn("Could not size attendance segment {}", segment.getPath(), e);
+			}
+		}
+		Map<String, Object> stats = new HashMap<>();
+		stats.put("path", String.valueOf(directory));
+		stats.put("segments", segments.size());
+		stats.put("rows", rows);
+		stats.put("bytes", bytes);
+		return stats;
+	}
+}
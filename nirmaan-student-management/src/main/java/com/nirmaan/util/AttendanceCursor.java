@@ -0,0 +1,40 @@
+package com.nirmaan.util;
+
+import com.nirmaan.dto.AttendanceDto;
+import com.nirmaan.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor over (attendance_date, id), newest first. The first
+ * page starts from a sentinel above any stored row.
+ */
+public record AttendanceCursor(LocalDate attendanceDate, long id) {
+
+	public static final AttendanceCursor START = new AttendanceCursor(LocalDate.of(9999, 12, 31), Long.MAX_VALUE);
+
+	public static AttendanceCursor after(AttendanceDto row) {
+		return new AttendanceCursor(row.getAttendanceDate(), row.getId());
+	}
+
+	public static AttendanceCursor decode(String token) {
+		if (token == null || token.isBlank()) {
+			return START;
+		}
+		try {
+			String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			int separator = value.indexOf(':');
+			return new AttendanceCursor(LocalDate.parse(value.substring(0, separator)),
+					Long.parseLong(value.substring(separator + 1)));
+		} catch (RuntimeException e) {
+			throw new ValidationException("Invalid cursor");
+		}
+	}
+
+	public String encode() {
+		String value = attendanceDate + ":" + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,165 @@
+package com.nirmaan.util;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only journal of attendance marks that have been accepted but not yet
+ * written to the database. Each append is forced to disk before it returns; a
+ * checkpoint file records the last sequence flushed to the database, and the
+ * journal is truncated once everything in it has been flushed.
+ */
+@Component
+@Slf4j
+public class AttendanceJournal {
+
+	@Value("${app.attendance.journal.path:data/attendance-journal.log}")
+	private String journalPath;
+
+	private FileChannel channel;
+	private Path journalFile;
+	private Path checkpointFile;
+	private long lastSequence;
+	private long checkpoint;
+
+	@PostConstruct
+	public void open() throws IOException {
+		journalFile = Paths.get(journalPath).toAbsolutePath();
+		Files.createDirectories(journalFile.getParent());
+		checkpointFile = journalFile.resolveSibling(journalFile.getFileName() + ".checkpoint");
+
+		if (Files.exists(checkpointFile)) {
+			checkpoint = Long.parseLong(Files.readString(checkpointFile).trim());
+		}
+		lastSequence = checkpoint;
+		for (Entry entry : readEntries()) {
+			lastSequence = Math.max(lastSequence, entry.sequence());
+		}
+
+		channel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.APPEND);
+		dropTornTail();
+	}
+
+	@PreDestroy
+	public void close() throws IOException {
+		if (channel != null) {
+			channel.close();
+		}
+	}
+
+	public synchronized Entry append(Long studentId, Long batchId, LocalDate attendanceDate,
+			LocalDateTime markedAt, String qrCodeId) {
+		Entry entry = new Entry(lastSequence + 1, studentId, batchId, attendanceDate, markedAt, qrCodeId);
+		try {
+			ByteBuffer buffer = ByteBuffer.wrap(entry.toLine().getBytes(StandardCharsets.UTF_8));
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			channel.force(false);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not append to attendance journal", e);
+		}
+		lastSequence = entry.sequence();
+		return entry;
+	}
+
+	public synchronized void checkpoint(long sequence) {
+		if (sequence <= checkpoint) {
+			return;
+		}
+		try {
+			Path tmp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+			Files.writeString(tmp, Long.toString(sequence));
+			Files.move(tmp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			checkpoint = sequence;
+
+			if (checkpoint == lastSequence) {
+				channel.truncate(0);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not checkpoint attendance journal", e);
+		}
+	}
+
+	/**
+	 * Entries appended after the last checkpoint, i.e. marks that may not have
+	 * reached the database before the previous shutdown.
+	 */
+	public synchronized List<Entry> recover() {
+		List<Entry> pending = new ArrayList<>();
+		for (Entry entry : readEntries()) {
+			if (entry.sequence() > checkpoint) {
+				pending.add(entry);
+			}
+		}
+		return pending;
+	}
+
+	private void dropTornTail() throws IOException {
+		byte[] content = Files.readAllBytes(journalFile);
+		int end = content.length;
+		while (end > 0 && content[end - 1] != '\n') {
+			end--;
+		}
+		if (end < content.length) {
+			log.warn("Dropping {} bytes of incomplete attendance journal entry", content.length - end);
+			channel.truncate(end);
+		}
+	}
+
+	private List<Entry> readEntries() {
+		List<Entry> entries = new ArrayList<>();
+		if (!Files.exists(journalFile)) {
+			return entries;
+		}
+		try (BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				try {
+					entries.add(Entry.parse(line));
+				} catch (RuntimeException e) {
+					log.warn("Skipping unreadable attendance journal line: {}", line);
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not read attendance journal", e);
+		}
+		return entries;
+	}
+
+	public record Entry(long sequence, Long studentId, Long batchId, LocalDate attendanceDate,
+			LocalDateTime markedAt, String qrCodeId) {
+
+		String toLine() {
+			return sequence + "," + studentId + "," + (batchId != null ? batchId : "") + "," + attendanceDate + ","
+					+ markedAt + "," + (qrCodeId != null ? qrCodeId : "") + "\n";
+		}
+
+		static Entry parse(String line) {
+			String[] parts = line.split(",", -1);
+			return new Entry(Long.parseLong(parts[0]), Long.valueOf(parts[1]),
+					parts[2].isEmpty() ? null : Long.valueOf(parts[2]), LocalDate.parse(parts[3]),
+					LocalDateTime.parse(parts[4]), parts[5].isEmpty() ? null : parts[5]);
+		}
+	}
+}
@@ -0,0 +1,297 @@
+package com.nirmaan.util;
+
+import com.nirmaan.enums.AttendanceStatus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Read-only, memory-mapped columnar file holding the archived attendance of
+ * one closed batch. Rows are sorted by (studentId, date, id) and stored as
+ * columns: a student dictionary with row ranges (no per-row student id), date
+ * as a 2-byte day offset, markedAt as seconds from the first day, the QR code
+ * as an index into a per-file dictionary, and status packed 2 bits per row.
+ * That is about 16 bytes per row, read in place with absolute gets. The QR
+ * index takes 2 bytes while the dictionary fits in them and 4 bytes, marked
+ * by a second format version, once rotating codes outgrow it.
+ */
+public final class AttendanceSegment {
+
+	private static final int MAGIC = 0x4E415454; // "NATT"
+	private static final int VERSION = 1;
+	private static final int WIDE_QR_INDEX_VERSION = 2;
+	private static final int HEADER_BYTES = 4 + 4 + 8 + 4 + 4 + 4 + 4 + 4;
+	private static final char NO_QR_CODE = 0xFFFF;
+	private static final int NO_WIDE_QR_CODE = -1;
+	private static final int NO_MARKED_AT = Integer.MIN_VALUE;
+	private static final AttendanceStatus[] STATUS_BY_CODE = { null, AttendanceStatus.PRESENT,
+			AttendanceStatus.ABSENT, AttendanceStatus.LATE };
+
+	private final Path path;
+	private final MappedByteBuffer buffer;
+	private final long batchId;
+	private final int rowCount;
+	private final int studentCount;
+	private final int firstEpochDay;
+	private final int lastEpochDay;
+	private final int studentIdsAt;
+	private final int studentRowsAt;
+	private final int idsAt;
+	private final int datesAt;
+	private final int markedAtAt;
+	private final int qrIndexAt;
+	private final boolean wideQrIndex;
+	private final int statusAt;
+	private final String[] qrCodes;
+	private final Map<Long, Integer> studentIndex = new HashMap<>();
+
+	private AttendanceSegment(Path path, MappedByteBuffer buffer) {
+		this.path = path;
+		this.buffer = buffer;
+		int version = buffer.getInt(4);
+		if (buffer.getInt(0) != MAGIC || (version != VERSION && version != WIDE_QR_INDEX_VERSION)) {
+			throw new IllegalStateException("Not an attendance segment: " + path);
+		}
+		wideQrIndex = version == WIDE_QR_INDEX_VERSION;
+		batchId = buffer.getLong(8);
+		rowCount = buffer.getInt(16);
+		studentCount = buffer.getInt(20);
+		int qrCodeCount = buffer.getInt(24);
+		firstEpochDay = buffer.getInt(28);
+		lastEpochDay = buffer.getInt(32);
+
+		studentIdsAt = HEADER_BYTES;
+		studentRowsAt = studentIdsAt + 8 * studentCount;
+		idsAt = studentRowsAt + 4 * (studentCount + 1);
+		datesAt = idsAt + 8 * rowCount;
+		markedAtAt = datesAt + 2 * rowCount;
+		qrIndexAt = markedAtAt + 4 * rowCount;
+		statusAt = qrIndexAt + (wideQrIndex ? 4 : 2) * rowCount;
+		int qrCodesAt = statusAt + 8 * ((rowCount + 31) / 32);
+
+		for (int i = 0; i < studentCount; i++) {
+			studentIndex.put(buffer.getLong(studentIdsAt + 8 * i), i);
+		}
+		qrCodes = new String[qrCodeCount];
+		int position = qrCodesAt;
+		for (int i = 0; i < qrCodeCount; i++) {
+			int length = buffer.getShort(position) & 0xFFFF;
+			byte[] bytes = new byte[length];
+			buffer.get(position + 2, bytes);
+			qrCodes[i] = new String(bytes, StandardCharsets.UTF_8);
+			position += 2 + length;
+		}
+	}
+
+	public static AttendanceSegment open(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			return new AttendanceSegment(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	/**
+	 * Writes the rows to a temp file, forces it to disk and moves it over
+	 * target atomically, so readers only ever map complete segments.
+	 */
+	public static void write(Path target, long batchId, List<Row> rows) throws IOException {
+		List<Row> sorted = new ArrayList<>(rows);
+		sorted.sort(Comparator.comparingLong(Row::studentId).thenComparing(Row::attendanceDate)
+				.thenComparingLong(Row::id));
+
+		Map<Long, int[]> studentRows = new LinkedHashMap<>();
+		Map<String, Integer> qrCodeIndex = new LinkedHashMap<>();
+		int firstEpochDay = Integer.MAX_VALUE;
+		int lastEpochDay = Integer.MIN_VALUE;
+		for (int i = 0; i < sorted.size(); i++) {
+			Row row = sorted.get(i);
+			int index = i;
+			studentRows.computeIfAbsent(row.studentId(), id -> new int[] { index, index })[1] = i + 1;
+			if (row.qrCodeId() != null) {
+				qrCodeIndex.putIfAbsent(row.qrCodeId(), qrCodeIndex.size());
+			}
+			firstEpochDay = (int) Math.min(firstEpochDay, row.attendanceDate().toEpochDay());
+			lastEpochDay = (int) Math.max(lastEpochDay, row.attendanceDate().toEpochDay());
+		}
+		if (!sorted.isEmpty() && lastEpochDay - firstEpochDay >= Character.MAX_VALUE) {
+			throw new IllegalStateException("Attendance dates span too many days for one segment");
+		}
+		boolean wideQrIndex = qrCodeIndex.size() >= NO_QR_CODE;
+
+		int rowCount = sorted.size();
+		int size = HEADER_BYTES + 8 * studentRows.size() + 4 * (studentRows.size() + 1)
+				+ (wideQrIndex ? 18 : 16) * rowCount + 8 * ((rowCount + 31) / 32);
+		for (String qrCode : qrCodeIndex.keySet()) {
+			size += 2 + qrCode.getBytes(StandardCharsets.UTF_8).length;
+		}
+
+		ByteBuffer out = ByteBuffer.allocate(size);
+		out.putInt(MAGIC).putInt(wideQrIndex ? WIDE_QR_INDEX_VERSION : VERSION).putLong(batchId).putInt(rowCount).putInt(studentRows.size())
+				.putInt(qrCodeIndex.size()).putInt(rowCount == 0 ? 0 : firstEpochDay)
+				.putInt(rowCount == 0 ? -1 : lastEpochDay);
+		studentRows.keySet().forEach(out::putLong);
+		out.putInt(0);
+		studentRows.values().forEach(range -> out.putInt(range[1]));
+		sorted.forEach(row -> out.putLong(row.id()));
+		for (Row row : sorted) {
+			out.putChar((char) (row.attendanceDate().toEpochDay() - firstEpochDay));
+		}
+		long firstSecond = (long) firstEpochDay * 86400;
+		for (Row row : sorted) {
+			out.putInt(row.markedAt() == null ? NO_MARKED_AT
+					: Math.toIntExact(row.markedAt().toEpochSecond(ZoneOffset.UTC) - firstSecond));
+		}
+		for (Row row : sorted) {
+			if (wideQrIndex) {
+				out.putInt(row.qrCodeId() == null ? NO_WIDE_QR_CODE : qrCodeIndex.get(row.qrCodeId()));
+			} else {
+				out.putChar(row.qrCodeId() == null ? NO_QR_CODE : (char) (int) qrCodeIndex.get(row.qrCodeId()));
+			}
+		}
+		long[] statusWords = new long[(rowCount + 31) / 32];
+		for (int i = 0; i < rowCount; i++) {
+			statusWords[i >>> 5] |= (long) codeOf(sorted.get(i).status()) << ((i & 31) << 1);
+		}
+		for (long word : statusWords) {
+			out.putLong(word);
+		}
+		for (String qrCode : qrCodeIndex.keySet()) {
+			byte[] bytes = qrCode.getBytes(StandardCharsets.UTF_8);
+			out.putShort((short) bytes.length).put(bytes);
+		}
+
+		Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			out.flip();
+			while (out.hasRemaining()) {
+				channel.write(out);
+			}
+			channel.force(true);
+		}
+		Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	public Path getPath() {
+		return path;
+	}
+
+	public long getBatchId() {
+		return batchId;
+	}
+
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	public boolean containsStudent(Long studentId) {
+		return studentIndex.containsKey(studentId);
+	}
+
+	public boolean overlaps(LocalDate startDate, LocalDate endDate) {
+		return rowCount > 0 && startDate.toEpochDay() <= lastEpochDay && endDate.toEpochDay() >= firstEpochDay;
+	}
+
+	public void forEachRow(Consumer<Row> action) {
+		for (int student = 0; student < studentCount; student++) {
+			forEachRowOf(student, action);
+		}
+	}
+
+	public void forEachRowOfStudent(Long studentId, Consumer<Row> action) {
+		Integer student = studentIndex.get(studentId);
+		if (student != null) {
+			forEachRowOf(student, action);
+		}
+	}
+
+	/**
+	 * Scans only the date column and materialises matching rows.
+	 */
+	public void forEachRowOn(LocalDate date, Consumer<Row> action) {
+		if (!overlaps(date, date)) {
+			return;
+		}
+		long offset = date.toEpochDay() - firstEpochDay;
+		for (int student = 0; student < studentCount; student++) {
+			long studentId = buffer.getLong(studentIdsAt + 8 * student);
+			int from = buffer.getInt(studentRowsAt + 4 * student);
+			int to = buffer.getInt(studentRowsAt + 4 * (student + 1));
+			for (int row = from; row < to; row++) {
+				if (buffer.getChar(datesAt + 2 * row) == offset) {
+					action.accept(readRow(row, studentId));
+				}
+			}
+		}
+	}
+
+	public boolean hasRow(Long studentId, LocalDate date) {
+		Integer student = studentIndex.get(studentId);
+		if (student == null || !overlaps(date, date)) {
+			return false;
+		}
+		long offset = date.toEpochDay() - firstEpochDay;
+		int from = buffer.getInt(studentRowsAt + 4 * student);
+		int to = buffer.getInt(studentRowsAt + 4 * (student + 1));
+		for (int row = from; row < to; row++) {
+			if (buffer.getChar(datesAt + 2 * row) == offset) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void forEachRowOf(int student, Consumer<Row> action) {
+		long studentId = buffer.getLong(studentIdsAt + 8 * student);
+		int from = buffer.getInt(studentRowsAt + 4 * student);
+		int to = buffer.getInt(studentRowsAt + 4 * (student + 1));
+		for (int row = from; row < to; row++) {
+			action.accept(readRow(row, studentId));
+		}
+	}
+
+	private Row readRow(int row, long studentId) {
+		LocalDate date = LocalDate.ofEpochDay(firstEpochDay + buffer.getChar(datesAt + 2 * row));
+		int markedAt = buffer.getInt(markedAtAt + 4 * row);
+		int qrIndex = wideQrIndex ? buffer.getInt(qrIndexAt + 4 * row) : buffer.getChar(qrIndexAt + 2 * row);
+		int status = (int) (buffer.getLong(statusAt + 8 * (row >>> 5)) >>> ((row & 31) << 1)) & 3;
+		return new Row(buffer.getLong(idsAt + 8 * row), studentId, batchId, date, STATUS_BY_CODE[status],
+				markedAt == NO_MARKED_AT ? null
+						: LocalDateTime.ofEpochSecond((long) firstEpochDay * 86400 + markedAt, 0, ZoneOffset.UTC),
+				qrIndex == (wideQrIndex ? NO_WIDE_QR_CODE : NO_QR_CODE) ? null : qrCodes[qrIndex]);
+	}
+
+	private static int codeOf(AttendanceStatus status) {
+		if (status == null) {
+			return 0;
+		}
+		switch (status) {
+		case PRESENT:
+			return 1;
+		case ABSENT:
+			return 2;
+		default:
+			return 3;
+		}
+	}
+
+	public record Row(long id, long studentId, long batchId, LocalDate attendanceDate, AttendanceStatus status,
+			LocalDateTime markedAt, String qrCodeId) {
+	}
+}
@@ -0,0 +1,101 @@
+package com.nirmaan.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads CSV one record at a time from a character stream, so a file is never
+ * held in memory whole. Quoted fields may contain commas, line breaks and
+ * doubled quotes; both LF and CRLF line endings are accepted. Fields are
+ * capped in length so that a stray quote cannot buffer the rest of the input.
+ */
+public class CsvRecordReader {
+
+	private final Reader reader;
+	private final int maxFieldLength;
+	private int peeked = -2;
+	private long line = 1;
+	private long recordLine;
+
+	public CsvRecordReader(Reader reader) {
+		this(reader, Integer.MAX_VALUE);
+	}
+
+	public CsvRecordReader(Reader reader, int maxFieldLength) {
+		this.reader = reader;
+		this.maxFieldLength = maxFieldLength;
+	}
+
+	/**
+	 * Fields of the next record, or {@code null} at the end of input.
+	 */
+	public List<String> next() throws IOException {
+		int c = read();
+		if (c == -1) {
+			return null;
+		}
+		recordLine = line;
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		while (true) {
+			if (quoted) {
+				if (c == -1) {
+					throw new IOException("Unterminated quoted field starting on line " + recordLine);
+				}
+				if (c == '"') {
+					if (peek() == '"') {
+						read();
+						field.append('"');
+					} else {
+						quoted = false;
+					}
+				} else {
+					field.append((char) c);
+				}
+			} else if (c == '"' && field.length() == 0) {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else if (c == '\r' && peek() == '\n') {
+				// Handled with the '\n'
+			} else if (c == '\n' || c == -1) {
+				fields.add(field.toString());
+				return fields;
+			} else {
+				field.append((char) c);
+			}
+			if (field.length() > maxFieldLength) {
+				throw new IOException("Field in record on line " + recordLine + " is longer than " + maxFieldLength
+						+ " characters");
+			}
+			c = read();
+		}
+	}
+
+	/**
+	 * Line on which the record last returned by {@link #next()} starts.
+	 */
+	public long getRecordLine() {
+		return recordLine;
+	}
+
+	private int read() throws IOException {
+		int c = peeked != -2 ? peeked : reader.read();
+		peeked = -2;
+		if (c == '\n') {
+			line++;
+		}
+		return c;
+	}
+
+	private int peek() throws IOException {
+		if (peeked == -2) {
+			peeked = reader.read();
+		}
+		return peeked;
+	}
+}
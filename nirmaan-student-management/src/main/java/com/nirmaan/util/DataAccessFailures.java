@@ -0,0 +1,21 @@
+package com.nirmaan.util;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+/**
+ * Tells failures that retrying the same write may fix (lost connections,
+ * lock timeouts) from those it never will (constraint violations, bad data).
+ */
+public final class DataAccessFailures {
+
+	private DataAccessFailures() {
+	}
+
+	public static boolean isTransient(RuntimeException e) {
+		return e instanceof TransientDataAccessException || e instanceof RecoverableDataAccessException
+				|| e instanceof DataAccessResourceFailureException || e instanceof CannotCreateTransactionException;
+	}
+}
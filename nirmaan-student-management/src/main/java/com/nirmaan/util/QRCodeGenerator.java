@@ -1,48 +1,199 @@
 package com.nirmaan.util;
 
-import com.google.zxing.BarcodeFormat;
-import com.google.zxing.EncodeHintType;
 import com.google.zxing.WriterException;
-import com.google.zxing.common.BitMatrix;
-import com.google.zxing.qrcode.QRCodeWriter;
 import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.ByteMatrix;
+import com.google.zxing.qrcode.encoder.Encoder;
 import org.springframework.stereotype.Component;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.time.LocalDate;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
 
+/**
+ * Renders QR codes straight from the module matrix into a 1-bit grayscale PNG
+ * (or SVG) without going through BufferedImage/ImageIO. Scanlines are packed
+ * 8 pixels per byte into a per-thread buffer that is reused across calls,
+ * and each distinct module row is built once and copied for its repeats.
+ */
 @Component
 public class QRCodeGenerator {
 
-	public String generateQRCodeData(Long batchId, LocalDate date) {
-		return "BATCH:" + batchId + ":DATE:" + date.toString() + ":TIME:" + System.currentTimeMillis();
-	}
+	public static final int DEFAULT_SIZE = 300;
+
+	private static final int QUIET_ZONE = 4;
+	private static final byte[] PNG_SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+
+	private final ThreadLocal<RenderBuffers> buffers = ThreadLocal.withInitial(RenderBuffers::new);
 
 	public String generateQRCodeImage(String data) throws WriterException, IOException {
-		QRCodeWriter qrCodeWriter = new QRCodeWriter();
+		return Base64.getEncoder().encodeToString(generateQRCodePng(data));
+	}
+
+	public byte[] generateQRCodePng(String data) throws WriterException, IOException {
+		return generateQRCodePng(data, DEFAULT_SIZE);
+	}
+
+	public byte[] generateQRCodePng(String data, int size) throws WriterException, IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+		writeQRCodePng(data, size, out);
+		return out.toByteArray();
+	}
 
-		Map<EncodeHintType, Object> hints = new HashMap<>();
-		hints.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.M);
+	/**
+	 * Writes a size x size PNG, or larger if the code needs more than one
+	 * pixel per module plus quiet zone. Modules are scaled by the largest
+	 * whole multiple that fits and centred, as zxing's writer does.
+	 */
+	public void writeQRCodePng(String data, int size, OutputStream out) throws WriterException, IOException {
+		ByteMatrix modules = encode(data);
+		int moduleCount = modules.getWidth();
+		int imageSize = Math.max(size, moduleCount + 2 * QUIET_ZONE);
+		int scale = imageSize / (moduleCount + 2 * QUIET_ZONE);
+		int offset = (imageSize - moduleCount * scale) / 2;
+		int stride = (imageSize + 7) / 8 + 1;
 
-		BitMatrix bitMatrix = qrCodeWriter.encode(data, BarcodeFormat.QR_CODE, 300, 300, hints);
+		RenderBuffers render = buffers.get();
+		byte[] raw = render.raw(stride * imageSize);
 
-		BufferedImage image = new BufferedImage(300, 300, BufferedImage.TYPE_INT_RGB);
-		for (int x = 0; x < 300; x++) {
-			for (int y = 0; y < 300; y++) {
-				image.setRGB(x, y, bitMatrix.get(x, y) ? 0x000000 : 0xFFFFFF);
+		// White quiet-zone row (filter byte 0 followed by all-ones pixels)
+		raw[0] = 0;
+		Arrays.fill(raw, 1, stride, (byte) 0xFF);
+		for (int y = 1; y < offset; y++) {
+			System.arraycopy(raw, 0, raw, y * stride, stride);
+		}
+		for (int moduleY = 0; moduleY < moduleCount; moduleY++) {
+			int rowStart = (offset + moduleY * scale) * stride;
+			raw[rowStart] = 0;
+			Arrays.fill(raw, rowStart + 1, rowStart + stride, (byte) 0xFF);
+			for (int moduleX = 0; moduleX < moduleCount; moduleX++) {
+				if (modules.get(moduleX, moduleY) == 1) {
+					clearBits(raw, rowStart + 1, offset + moduleX * scale, scale);
+				}
+			}
+			for (int repeat = 1; repeat < scale; repeat++) {
+				System.arraycopy(raw, rowStart, raw, rowStart + repeat * stride, stride);
 			}
 		}
+		for (int y = offset + moduleCount * scale; y < imageSize; y++) {
+			System.arraycopy(raw, 0, raw, y * stride, stride);
+		}
+
+		Deflater deflater = render.deflater;
+		deflater.reset();
+		deflater.setInput(raw, 0, stride * imageSize);
+		deflater.finish();
+		int compressed = 0;
+		while (!deflater.finished()) {
+			compressed += deflater.deflate(render.compressed(compressed + 4096), compressed, 4096);
+		}
 
-		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-		ImageIO.write(image, "PNG", outputStream);
-		byte[] imageBytes = outputStream.toByteArray();
+		byte[] header = render.header;
+		writeInt(header, 0, imageSize);
+		writeInt(header, 4, imageSize);
+		header[8] = 1; // bit depth
+		header[9] = 0; // grayscale
+		header[10] = 0;
+		header[11] = 0;
+		header[12] = 0;
+
+		out.write(PNG_SIGNATURE);
+		writeChunk(out, render, "IHDR", header, 13);
+		writeChunk(out, render, "IDAT", render.compressed, compressed);
+		writeChunk(out, render, "IEND", header, 0);
+	}
 
-		return Base64.getEncoder().encodeToString(imageBytes);
+	/**
+	 * One path with a sub-path per horizontal run of dark modules, in module
+	 * units so the client scales it to any display size.
+	 */
+	public String generateQRCodeSvg(String data) throws WriterException {
+		ByteMatrix modules = encode(data);
+		int moduleCount = modules.getWidth();
+		int viewSize = moduleCount + 2 * QUIET_ZONE;
+
+		StringBuilder svg = new StringBuilder(moduleCount * moduleCount);
+		svg.append("<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 ").append(viewSize).append(' ')
+				.append(viewSize).append("\" shape-rendering=\"crispEdges\">")
+				.append("<rect width=\"100%\" height=\"100%\" fill=\"#fff\"/><path fill=\"#000\" d=\"");
+		for (int y = 0; y < moduleCount; y++) {
+			int x = 0;
+			while (x < moduleCount) {
+				if (modules.get(x, y) != 1) {
+					x++;
+					continue;
+				}
+				int start = x;
+				while (x < moduleCount && modules.get(x, y) == 1) {
+					x++;
+				}
+				svg.append('M').append(start + QUIET_ZONE).append(',').append(y + QUIET_ZONE).append('h')
+						.append(x - start).append("v1h-").append(x - start).append('z');
+			}
+		}
+		return svg.append("\"/></svg>").toString();
+	}
+
+	private ByteMatrix encode(String data) throws WriterException {
+		return Encoder.encode(data, ErrorCorrectionLevel.M).getMatrix();
+	}
+
+	private static void clearBits(byte[] row, int rowOffset, int fromPixel, int count) {
+		for (int pixel = fromPixel; pixel < fromPixel + count; pixel++) {
+			row[rowOffset + (pixel >> 3)] &= (byte) ~(0x80 >>> (pixel & 7));
+		}
+	}
+
+	private static void writeChunk(OutputStream out, RenderBuffers render, String type, byte[] data, int length)
+			throws IOException {
+		byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+		byte[] word = render.word;
+
+		writeInt(word, 0, length);
+		out.write(word, 0, 4);
+		out.write(typeBytes);
+		out.write(data, 0, length);
+
+		CRC32 crc = render.crc;
+		crc.reset();
+		crc.update(typeBytes);
+		crc.update(data, 0, length);
+		writeInt(word, 0, (int) crc.getValue());
+		out.write(word, 0, 4);
+	}
+
+	private static void writeInt(byte[] target, int offset, int value) {
+		target[offset] = (byte) (value >>> 24);
+		target[offset + 1] = (byte) (value >>> 16);
+		target[offset + 2] = (byte) (value >>> 8);
+		target[offset + 3] = (byte) value;
+	}
+
+	private static final class RenderBuffers {
+		private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		private final CRC32 crc = new CRC32();
+		private final byte[] header = new byte[13];
+		private final byte[] word = new byte[4];
+		private byte[] raw = new byte[0];
+		private byte[] compressed = new byte[4096];
+
+		private byte[] raw(int length) {
+			if (raw.length < length) {
+				raw = new byte[length];
+			}
+			return raw;
+		}
+
+		private byte[] compressed(int length) {
+			if (compressed.length < length) {
+				compressed = Arrays.copyOf(compressed, Math.max(length, compressed.length * 2));
+			}
+			return compressed;
+		}
 	}
 }
@@ -0,0 +1,160 @@
+package com.nirmaan.util;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Signs and verifies the compact QR attendance token:
+ * version | key id | batch id | valid-from | valid-until | nonce | HMAC-SHA256
+ * truncated to 12 bytes, base64url encoded (48 characters). Verification is
+ * pure CPU; any configured key verifies, only the active key signs, so keys
+ * can be rotated by adding a new id, switching the active id and removing the
+ * old key once its codes have expired.
+ */
+@Component
+public class QRTokenSigner {
+
+	private static final byte VERSION = 1;
+	private static final int PAYLOAD_LENGTH = 1 + 1 + 8 + 4 + 4 + 6;
+	private static final int MAC_LENGTH = 12;
+	private static final int TOKEN_LENGTH = PAYLOAD_LENGTH + MAC_LENGTH;
+	private static final int ENCODED_LENGTH = TOKEN_LENGTH * 4 / 3;
+	private static final String ALGORITHM = "HmacSHA256";
+
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+	private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+	private final SecureRandom random = new SecureRandom();
+	private final Map<Integer, SecretKeySpec> keys = new HashMap<>();
+	private final ThreadLocal<Map<Integer, Mac>> macs = ThreadLocal.withInitial(HashMap::new);
+
+	@Value("${app.qr.signing.keys}")
+	private String configuredKeys;
+
+	@Value("${app.qr.signing.active-key-id}")
+	private int activeKeyId;
+
+	@PostConstruct
+	void loadKeys() {
+		for (String pair : configuredKeys.split(",")) {
+			int separator = pair.indexOf(':');
+			if (separator <= 0) {
+				throw new IllegalStateException("QR signing keys must be configured as id:secret[,id:secret]");
+			}
+			int keyId = Integer.parseInt(pair.substring(0, separator).trim());
+			if (keyId < 0 || keyId > 255) {
+				throw new IllegalStateException("QR signing key id must be between 0 and 255: " + keyId);
+			}
+			keys.put(keyId, new SecretKeySpec(pair.substring(separator + 1).trim().getBytes(StandardCharsets.UTF_8),
+					ALGORITHM));
+		}
+		if (!keys.containsKey(activeKeyId)) {
+			throw new IllegalStateException("Active QR signing key " + activeKeyId + " is not configured");
+		}
+	}
+
+	public String sign(Long batchId, LocalDateTime validFrom, LocalDateTime validUntil) {
+		byte[] nonce = new byte[6];
+		random.nextBytes(nonce);
+
+		ByteBuffer token = ByteBuffer.allocate(TOKEN_LENGTH);
+		token.put(VERSION)
+				.put((byte) activeKeyId)
+				.putLong(batchId)
+				.putInt((int) toEpochSecond(validFrom))
+				.putInt((int) toEpochSecond(validUntil))
+				.put(nonce);
+		token.put(mac(activeKeyId, token.array()), 0, MAC_LENGTH);
+		return ENCODER.encodeToString(token.array());
+	}
+
+	/**
+	 * Returns the decoded token when the signature checks out, empty for
+	 * anything malformed, signed with an unknown key or tampered with. Expiry
+	 * is left to the caller via {@link Token#isValidAt}.
+	 */
+	public Optional<Token> verify(String value) {
+		if (!isTokenFormat(value)) {
+			return Optional.empty();
+		}
+
+		byte[] token;
+		try {
+			token = DECODER.decode(value);
+		} catch (IllegalArgumentException e) {
+			return Optional.empty();
+		}
+
+		int keyId = token[1] & 0xFF;
+		if (token.length != TOKEN_LENGTH || token[0] != VERSION || !keys.containsKey(keyId)) {
+			return Optional.empty();
+		}
+
+		byte[] expected = mac(keyId, token);
+		byte[] actual = new byte[MAC_LENGTH];
+		System.arraycopy(token, PAYLOAD_LENGTH, actual, 0, MAC_LENGTH);
+		if (!MessageDigest.isEqual(actual, Arrays.copyOf(expected, MAC_LENGTH))) {
+			return Optional.empty();
+		}
+
+		ByteBuffer payload = ByteBuffer.wrap(token, 2, PAYLOAD_LENGTH - 2);
+		long batchId = payload.getLong();
+		LocalDateTime validFrom = fromEpochSecond(Integer.toUnsignedLong(payload.getInt()));
+		LocalDateTime validUntil = fromEpochSecond(Integer.toUnsignedLong(payload.getInt()));
+		return Optional.of(new Token(batchId, validFrom, validUntil));
+	}
+
+	/**
+	 * Legacy qrCodeIds are 36-character UUIDs, so anything of token length is
+	 * treated as a token and never looked up in the database.
+	 */
+	public boolean isTokenFormat(String value) {
+		return value != null && value.length() == ENCODED_LENGTH;
+	}
+
+	private byte[] mac(int keyId, byte[] token) {
+		Mac mac = macs.get().computeIfAbsent(keyId, id -> {
+			try {
+				Mac instance = Mac.getInstance(ALGORITHM);
+				instance.init(keys.get(id));
+				return instance;
+			} catch (GeneralSecurityException e) {
+				throw new IllegalStateException("Unable to initialise QR token signer", e);
+			}
+		});
+		mac.update(token, 0, PAYLOAD_LENGTH);
+		return mac.doFinal();
+	}
+
+	private long toEpochSecond(LocalDateTime time) {
+		return time.atZone(ZoneId.systemDefault()).toEpochSecond();
+	}
+
+	private LocalDateTime fromEpochSecond(long epochSecond) {
+		return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault());
+	}
+
+	public record Token(Long batchId, LocalDateTime validFrom, LocalDateTime validUntil) {
+
+		public boolean isValidAt(LocalDateTime time) {
+			return !time.isBefore(validFrom) && time.isBefore(validUntil);
+		}
+	}
+}
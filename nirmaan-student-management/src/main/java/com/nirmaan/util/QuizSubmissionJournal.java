@@ -0,0 +1,171 @@
+package com.nirmaan.util;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Append-only journal of quiz submissions that have been accepted but not yet
+ * scored and saved. Works like {@link AttendanceJournal}: every append is
+ * forced to disk before the receipt is returned, a checkpoint file records the
+ * last sequence written to the database, and the journal is truncated once it
+ * is fully checkpointed.
+ */
+@Component
+@Slf4j
+public class QuizSubmissionJournal {
+
+	@Value("${app.quiz.submission.journal.path:data/quiz-submissions.log}")
+	private String journalPath;
+
+	private static final Base64.Encoder CODES_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+	private FileChannel channel;
+	private Path journalFile;
+	private Path checkpointFile;
+	private long lastSequence;
+	private long checkpoint;
+
+	@PostConstruct
+	public void open() throws IOException {
+		journalFile = Paths.get(journalPath).toAbsolutePath();
+		Files.createDirectories(journalFile.getParent());
+		checkpointFile = journalFile.resolveSibling(journalFile.getFileName() + ".checkpoint");
+
+		if (Files.exists(checkpointFile)) {
+			checkpoint = Long.parseLong(Files.readString(checkpointFile).trim());
+		}
+		lastSequence = checkpoint;
+		for (Entry entry : readEntries()) {
+			lastSequence = Math.max(lastSequence, entry.sequence());
+		}
+
+		channel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.APPEND);
+		dropTornTail();
+	}
+
+	@PreDestroy
+	public void close() throws IOException {
+		if (channel != null) {
+			channel.close();
+		}
+	}
+
+	public synchronized Entry append(String receiptId, Long studentId, Long quizId, LocalDateTime submittedAt,
+			byte[] answerCodes) {
+		Entry entry = new Entry(lastSequence + 1, receiptId, studentId, quizId, submittedAt, answerCodes);
+		try {
+			ByteBuffer buffer = ByteBuffer.wrap(entry.toLine().getBytes(StandardCharsets.UTF_8));
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			channel.force(false);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not append to quiz submission journal", e);
+		}
+		lastSequence = entry.sequence();
+		return entry;
+	}
+
+	public synchronized void checkpoint(long sequence) {
+		if (sequence <= checkpoint) {
+			return;
+		}
+		try {
+			Path tmp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+			Files.writeString(tmp, Long.toString(sequence));
+			Files.move(tmp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			checkpoint = sequence;
+
+			if (checkpoint == lastSequence) {
+				channel.truncate(0);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not checkpoint quiz submission journal", e);
+		}
+	}
+
+	/**
+	 * Submissions appended after the last checkpoint, i.e. ones that may not
+	 * have reached the database before the previous shutdown.
+	 */
+	public synchronized List<Entry> recover() {
+		List<Entry> pending = new ArrayList<>();
+		for (Entry entry : readEntries()) {
+			if (entry.sequence() > checkpoint) {
+				pending.add(entry);
+			}
+		}
+		return pending;
+	}
+
+	private void dropTornTail() throws IOException {
+		byte[] content = Files.readAllBytes(journalFile);
+		int end = content.length;
+		while (end > 0 && content[end - 1] != '\n') {
+			end--;
+		}
+		if (end < content.length) {
+			log.warn("Dropping {} bytes of incomplete quiz submission journal entry", content.length - end);
+			channel.truncate(end);
+		}
+	}
+
+	private List<Entry> readEntries() {
+		List<Entry> entries = new ArrayList<>();
+		if (!Files.exists(journalFile)) {
+			return entries;
+		}
+		try (BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				try {
+					entries.add(Entry.parse(line));
+				} catch (RuntimeException e) {
+					log.warn("Skipping unreadable quiz submission journal line: {}", line);
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not read quiz submission journal", e);
+		}
+		return entries;
+	}
+
+	/**
+	 * One submission; {@code answerCodes} are in
+	 * {@link com.nirmaan.cache.QuizAnswerCodec} form.
+	 */
+	public record Entry(long sequence, String receiptId, Long studentId, Long quizId, LocalDateTime submittedAt,
+			byte[] answerCodes) {
+
+		String toLine() {
+			return sequence + "," + receiptId + "," + studentId + "," + quizId + "," + submittedAt + ","
+					+ CODES_ENCODER.encodeToString(answerCodes) + "\n";
+		}
+
+		static Entry parse(String line) {
+			String[] parts = line.split(",", -1);
+			return new Entry(Long.parseLong(parts[0]), parts[1], Long.valueOf(parts[2]), Long.valueOf(parts[3]),
+					LocalDateTime.parse(parts[4]), Base64.getUrlDecoder().decode(parts[5]));
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package com.nirmaan.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.nirmaan.repository.AttendanceRepository;
+import com.nirmaan.util.AttendanceColdStore;
+
+class AttendanceMarkIndexTests {
+
+	private static final LocalDate TODAY = LocalDate.now();
+	private static final LocalDate YESTERDAY = TODAY.minusDays(1);
+
+	private final AttendanceRepository attendanceRepository = mock(AttendanceRepository.class);
+	private final AttendanceColdStore attendanceColdStore = mock(AttendanceColdStore.class);
+	private final AttendanceMarkIndex index = new AttendanceMarkIndex(attendanceRepository, attendanceColdStore);
+
+	@Test
+	void seedsADateFromTheTableAndTheArchiveOnFirstUse() {
+		when(attendanceRepository.findStudentIdsByAttendanceDate(YESTERDAY)).thenReturn(List.of(3L, 70_000L));
+		when(attendanceColdStore.studentIdsOn(YESTERDAY)).thenReturn(List.of(9L));
+
+		assertThat(index.isMarked(YESTERDAY, 3L)).isTrue();
+		assertThat(index.isMarked(YESTERDAY, 70_000L)).isTrue();
+		assertThat(index.isMarked(YESTERDAY, 9L)).isTrue();
+		assertThat(index.isMarked(YESTERDAY, 4L)).isFalse();
+		verify(attendanceRepository, times(1)).findStudentIdsByAttendanceDate(YESTERDAY);
+	}
+
+	@Test
+	void marksEachStudentOncePerDate() {
+		when(attendanceRepository.findStudentIdsByAttendanceDate(TODAY)).thenReturn(List.of());
+		when(attendanceColdStore.studentIdsOn(TODAY)).thenReturn(List.of());
+
+		assertThat(index.markIfAbsent(TODAY, 5L)).isTrue();
+		assertThat(index.markIfAbsent(TODAY, 5L)).isFalse();
+		index.unmark(TODAY, 5L);
+
+		assertThat(index.isMarked(TODAY, 5L)).isFalse();
+		assertThat(index.markIfAbsent(TODAY, 5L)).isTrue();
+	}
+
+	@Test
+	void rolloverDropsPastDatesAndKeepsToday() {
+		when(attendanceRepository.findStudentIdsByAttendanceDate(YESTERDAY)).thenReturn(List.of(1L));
+		when(attendanceRepository.findStudentIdsByAttendanceDate(TODAY)).thenReturn(List.of());
+		when(attendanceColdStore.studentIdsOn(YESTERDAY)).thenReturn(List.of());
+		when(attendanceColdStore.studentIdsOn(TODAY)).thenReturn(List.of());
+		index.isMarked(YESTERDAY, 1L);
+		index.markIfAbsent(TODAY, 2L);
+
+		index.rollover();
+
+		assertThat(index.isMarked(TODAY, 2L)).isTrue();
+		verify(attendanceRepository, times(1)).findStudentIdsByAttendanceDate(TODAY);
+		assertThat(index.isMarked(YESTERDAY, 1L)).isTrue();
+		verify(attendanceRepository, times(2)).findStudentIdsByAttendanceDate(YESTERDAY);
+	}
+}
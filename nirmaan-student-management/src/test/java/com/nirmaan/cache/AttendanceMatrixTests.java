@@ -0,0 +1,97 @@
+package com.nirmaan.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.nirmaan.enums.AttendanceStatus;
+
+class AttendanceMatrixTests {
+
+	private static final LocalDate ORIGIN = LocalDate.of(2024, 1, 1);
+	private static final AttendanceStatus[] CELLS = { null, AttendanceStatus.PRESENT, AttendanceStatus.ABSENT,
+			AttendanceStatus.LATE };
+
+	private final AttendanceMatrix matrix = new AttendanceMatrix(ORIGIN);
+
+	@Test
+	void packsEachCellIntoItsOwnTwoBits() {
+		matrix.set(1L, ORIGIN, AttendanceStatus.LATE);
+		matrix.set(1L, ORIGIN.plusDays(31), AttendanceStatus.ABSENT);
+		matrix.set(1L, ORIGIN.plusDays(32), AttendanceStatus.PRESENT);
+		matrix.set(1L, ORIGIN.plusDays(200), AttendanceStatus.LATE);
+		matrix.set(1L, ORIGIN.plusDays(200), AttendanceStatus.PRESENT);
+
+		assertThat(matrix.get(1L, ORIGIN)).isEqualTo(AttendanceStatus.LATE);
+		assertThat(matrix.get(1L, ORIGIN.plusDays(1))).isNull();
+		assertThat(matrix.get(1L, ORIGIN.plusDays(31))).isEqualTo(AttendanceStatus.ABSENT);
+		assertThat(matrix.get(1L, ORIGIN.plusDays(32))).isEqualTo(AttendanceStatus.PRESENT);
+		assertThat(matrix.get(1L, ORIGIN.plusDays(200))).isEqualTo(AttendanceStatus.PRESENT);
+		assertThat(matrix.get(1L, ORIGIN.minusDays(1))).isNull();
+		assertThat(matrix.get(1L, ORIGIN.plusDays(5000))).isNull();
+		assertThat(matrix.get(2L, ORIGIN)).isNull();
+	}
+
+	@Test
+	void countsMatchACellByCellTally() {
+		Random random = new Random(42);
+		AttendanceStatus[][] cells = new AttendanceStatus[3][150];
+		for (int student = 0; student < cells.length; student++) {
+			for (int day = 0; day < cells[student].length; day++) {
+				cells[student][day] = CELLS[random.nextInt(CELLS.length)];
+				matrix.set((long) student, ORIGIN.plusDays(day), cells[student][day]);
+			}
+		}
+
+		int[][] ranges = { { 0, 149 }, { 0, 31 }, { 31, 32 }, { 5, 5 }, { 17, 96 }, { 63, 64 }, { 120, 400 } };
+		for (int[] range : ranges) {
+			AttendanceMatrix.Counts all = AttendanceMatrix.Counts.EMPTY;
+			for (int student = 0; student < cells.length; student++) {
+				AttendanceMatrix.Counts expected = tally(cells[student], range[0], range[1]);
+				assertThat(matrix.count((long) student, ORIGIN.plusDays(range[0]), ORIGIN.plusDays(range[1])))
+						.as("student %d, days %d-%d", student, range[0], range[1]).isEqualTo(expected);
+				all = all.plus(expected);
+			}
+			assertThat(matrix.countAll(ORIGIN.plusDays(range[0]), ORIGIN.plusDays(range[1]))).isEqualTo(all);
+		}
+		assertThat(matrix.countByStudent(ORIGIN, ORIGIN.plusDays(149))).hasSize(3)
+				.containsEntry(1L, tally(cells[1], 0, 149));
+		assertThat(matrix.count(9L, ORIGIN, ORIGIN.plusDays(149))).isEqualTo(AttendanceMatrix.Counts.EMPTY);
+	}
+
+	@Test
+	void streaksSkipDaysWithoutARecordAndBreakOnAbsence() {
+		matrix.set(1L, ORIGIN, AttendanceStatus.PRESENT);
+		matrix.set(1L, ORIGIN.plusDays(1), AttendanceStatus.LATE);
+		matrix.set(1L, ORIGIN.plusDays(2), AttendanceStatus.PRESENT);
+		matrix.set(1L, ORIGIN.plusDays(3), AttendanceStatus.ABSENT);
+		matrix.set(1L, ORIGIN.plusDays(30), AttendanceStatus.PRESENT);
+		// Days 31-39 have no session
+		matrix.set(1L, ORIGIN.plusDays(40), AttendanceStatus.PRESENT);
+
+		assertThat(matrix.currentStreak(1L, ORIGIN.plusDays(45))).isEqualTo(2);
+		assertThat(matrix.currentStreak(1L, ORIGIN.plusDays(3))).isZero();
+		assertThat(matrix.currentStreak(1L, ORIGIN.plusDays(2))).isEqualTo(3);
+		assertThat(matrix.longestStreak(1L)).isEqualTo(3);
+		assertThat(matrix.longestStreak(2L)).isZero();
+	}
+
+	private static AttendanceMatrix.Counts tally(AttendanceStatus[] cells, int first, int last) {
+		int present = 0;
+		int absent = 0;
+		int late = 0;
+		for (int day = first; day <= Math.min(last, cells.length - 1); day++) {
+			if (cells[day] == AttendanceStatus.PRESENT) {
+				present++;
+			} else if (cells[day] == AttendanceStatus.ABSENT) {
+				absent++;
+			} else if (cells[day] == AttendanceStatus.LATE) {
+				late++;
+			}
+		}
+		return new AttendanceMatrix.Counts(present, absent, late);
+	}
+}
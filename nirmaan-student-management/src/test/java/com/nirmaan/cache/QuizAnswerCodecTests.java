@@ -0,0 +1,83 @@
+package com.nirmaan.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.nirmaan.entity.StudentQuizAttempt;
+
+class QuizAnswerCodecTests {
+
+	private final QuizSnapshot snapshot = QuizSnapshot.of(1L,
+			List.of(new QuizSnapshot.Key(10L, "A", 1), new QuizSnapshot.Key(11L, "C", 2),
+					new QuizSnapshot.Key(12L, "D", 1), new QuizSnapshot.Key(13L, "B", 1),
+					new QuizSnapshot.Key(14L, "B", 1)));
+
+	@Test
+	void roundTripsAnswersInHalfAByteEach() {
+		Map<Long, String> answers = new HashMap<>();
+		answers.put(10L, "A");
+		answers.put(11L, "B");
+		answers.put(13L, "B");
+		answers.put(14L, "E");
+		answers.put(99L, "A");
+
+		byte[] codes = QuizAnswerCodec.encode(snapshot, answers);
+
+		assertThat(codes).hasSize(8);
+		assertThat(QuizAnswerCodec.matches(codes, snapshot)).isTrue();
+		assertThat(QuizAnswerCodec.decode(codes, snapshot)).containsOnly(Map.entry(10L, "A"), Map.entry(11L, "B"),
+				Map.entry(13L, "B"));
+		assertThat(snapshot.score(codes)).isEqualTo(snapshot.score(answers));
+	}
+
+	@Test
+	void encodesPositionalAnswers() {
+		byte[] codes = QuizAnswerCodec.encode(snapshot, Arrays.asList("A", "C", null, "D", "B"));
+
+		assertThat(QuizAnswerCodec.optionAt(codes, 2)).isEqualTo(QuizSnapshot.NO_ANSWER);
+		assertThat(QuizAnswerCodec.optionAt(codes, 3)).isEqualTo((byte) 3);
+		assertThat(snapshot.score(codes).correctAnswers()).isEqualTo(3);
+		assertThatThrownBy(() -> QuizAnswerCodec.encode(snapshot, List.of("A")))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void detectsChangedQuestionLayout() {
+		byte[] codes = QuizAnswerCodec.encode(snapshot, Map.of(10L, "A"));
+		QuizSnapshot edited = QuizSnapshot.of(1L, List.of(new QuizSnapshot.Key(10L, "A", 1),
+				new QuizSnapshot.Key(11L, "C", 2), new QuizSnapshot.Key(12L, "D", 1),
+				new QuizSnapshot.Key(13L, "B", 1), new QuizSnapshot.Key(15L, "B", 1)));
+
+		assertThat(QuizAnswerCodec.matches(codes, edited)).isFalse();
+		assertThatThrownBy(() -> QuizAnswerCodec.decode(codes, edited)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void decodesAgainstTheLayoutTheCodesWereWrittenWith() {
+		byte[] codes = QuizAnswerCodec.encode(snapshot, Map.of(10L, "A", 14L, "C"));
+		long[] layout = snapshot.getQuestionIds();
+
+		assertThat(QuizAnswerCodec.layoutHash(codes)).isEqualTo(snapshot.getLayoutHash());
+		assertThat(QuizAnswerCodec.decode(codes, layout)).containsOnly(Map.entry(10L, "A"), Map.entry(14L, "C"));
+		assertThatThrownBy(() -> QuizAnswerCodec.decode(codes, new long[] { 10L, 11L, 12L, 13L, 15L }))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> QuizAnswerCodec.layoutHash(new byte[] { 9 }))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void readsLegacyTextAnswers() {
+		StudentQuizAttempt attempt = new StudentQuizAttempt();
+		attempt.setAnswers("{10=A, 12=null, 11=C}");
+
+		assertThat(QuizAnswerCodec.decode(attempt, snapshot)).containsOnly(Map.entry(10L, "A"),
+				Map.entry(11L, "C"));
+	}
+}
@@ -0,0 +1,94 @@
+package com.nirmaan.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class QuizItemStatsTests {
+
+	private final QuizSnapshot snapshot = QuizSnapshot.of(1L, List.of(new QuizSnapshot.Key(10L, "A", 1),
+			new QuizSnapshot.Key(11L, "B", 1), new QuizSnapshot.Key(12L, "C", 1)));
+
+	@Test
+	void tracksCorrectRatesChoicesAndScores() {
+		QuizItemStats stats = statsOf(sheet("A", "B", "C"), sheet("A", "B", "D"), sheet("A", null, "D"),
+				sheet("B", "C", "D"));
+
+		Map<String, Object> analytics = stats.toMap(snapshot);
+		List<Map<String, Object>> questions = questions(analytics);
+
+		assertThat(analytics.get("totalAttempts")).isEqualTo(4L);
+		assertThat(analytics.get("highestScore")).isEqualTo(100);
+		assertThat(analytics.get("lowestScore")).isEqualTo(0);
+		assertThat(questions.get(0).get("correctRate")).isEqualTo(0.75);
+		assertThat(questions.get(1).get("choices")).isEqualTo(Map.of("unanswered", 1L, "A", 0L, "B", 2L, "C", 1L, "D", 0L));
+		assertThat((Double) questions.get(0).get("discrimination")).isPositive();
+		assertThat(questions.get(2).get("discrimination")).isNotNull();
+	}
+
+	@Test
+	void survivesARoundTripThroughBytes() {
+		QuizItemStats stats = statsOf(sheet("A", "B", "C"), sheet("B", "B", "A"));
+
+		QuizItemStats restored = QuizItemStats.fromBytes(stats.toBytes());
+
+		assertThat(restored.contains(1L)).isTrue();
+		assertThat(restored.contains(2L)).isTrue();
+		assertThat(restored.toMap(snapshot)).isEqualTo(stats.toMap(snapshot));
+	}
+
+	@Test
+	void countsScoresButNotItemsForAnotherAnswerKey() {
+		QuizItemStats stats = statsOf(sheet("A", "B", "C"));
+		QuizSnapshot rekeyed = QuizSnapshot.of(1L, List.of(new QuizSnapshot.Key(10L, "D", 1),
+				new QuizSnapshot.Key(11L, "B", 1), new QuizSnapshot.Key(12L, "C", 1)));
+
+		stats.add(9L, QuizAnswerCodec.encode(rekeyed, Arrays.asList("D", "B", "C")), rekeyed, 100);
+
+		Map<String, Object> analytics = stats.toMap(snapshot);
+		assertThat(analytics.get("totalAttempts")).isEqualTo(2L);
+		assertThat(analytics.get("itemAttempts")).isEqualTo(1L);
+	}
+
+	@Test
+	void countsEachAttemptOnceWhateverOrderIdsArriveIn() {
+		QuizItemStats stats = new QuizItemStats(snapshot.getKeyHash(), snapshot.getQuestionCount());
+		byte[] codes = sheet("A", "B", "C");
+
+		assertThat(stats.add(51L, codes, snapshot, 100)).isTrue();
+		assertThat(stats.add(3L, codes, snapshot, 100)).isTrue();
+		assertThat(stats.add(51L, codes, snapshot, 100)).isFalse();
+		for (long attemptId = 100; attemptId > 80; attemptId--) {
+			stats.add(attemptId, codes, snapshot, 100);
+		}
+		QuizItemStats restored = QuizItemStats.fromBytes(stats.toBytes());
+
+		assertThat(restored.getAttempts()).isEqualTo(22L);
+		assertThat(restored.add(3L, codes, snapshot, 100)).isFalse();
+		assertThat(restored.add(4L, codes, snapshot, 100)).isTrue();
+		assertThat(restored.toMap(snapshot).get("itemAttempts")).isEqualTo(23L);
+	}
+
+	private QuizItemStats statsOf(byte[]... sheets) {
+		QuizItemStats stats = new QuizItemStats(snapshot.getKeyHash(), snapshot.getQuestionCount());
+		long attemptId = 1;
+		for (byte[] codes : sheets) {
+			int correct = snapshot.score(codes).correctAnswers();
+			stats.add(attemptId++, codes, snapshot, correct * 100 / snapshot.getQuestionCount());
+		}
+		return stats;
+	}
+
+	private byte[] sheet(String... answers) {
+		return QuizAnswerCodec.encode(snapshot, Arrays.asList(answers));
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Map<String, Object>> questions(Map<String, Object> analytics) {
+		return (List<Map<String, Object>>) analytics.get("questions");
+	}
+}
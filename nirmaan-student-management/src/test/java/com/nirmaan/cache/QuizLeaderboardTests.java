@@ -0,0 +1,65 @@
+package com.nirmaan.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+class QuizLeaderboardTests {
+
+	private static final LocalDateTime START = LocalDateTime.of(2024, 6, 3, 10, 0);
+
+	private final QuizLeaderboard leaderboard = new QuizLeaderboard();
+
+	@Test
+	void ranksByScoreThenEarlierSubmission() {
+		leaderboard.add(1L, 80, START.plusMinutes(5));
+		leaderboard.add(2L, 90, START.plusMinutes(9));
+		leaderboard.add(3L, 80, START.plusMinutes(2));
+		leaderboard.add(4L, 40, START.plusMinutes(1));
+
+		assertThat(leaderboard.top(3)).extracting(QuizLeaderboard.Standing::studentId).containsExactly(2L, 3L, 1L);
+		assertThat(leaderboard.standingOf(1L)).get().extracting(QuizLeaderboard.Standing::rank).isEqualTo(3);
+		assertThat(leaderboard.standingOf(4L).get().submittedAt()).isEqualTo(START.plusMinutes(1));
+		assertThat(leaderboard.standingOf(5L)).isEmpty();
+	}
+
+	@Test
+	void keepsTheFirstAttemptOfAStudent() {
+		assertThat(leaderboard.add(1L, 50, START)).isTrue();
+		assertThat(leaderboard.add(1L, 100, START.plusMinutes(1))).isFalse();
+
+		assertThat(leaderboard.size()).isEqualTo(1);
+		assertThat(leaderboard.standingOf(1L).get().score()).isEqualTo(50);
+	}
+
+	@Test
+	void matchesASortedListForShuffledArrivals() {
+		Random random = new Random(7);
+		List<QuizLeaderboard.Standing> attempts = new ArrayList<>();
+		for (long studentId = 1; studentId <= 3000; studentId++) {
+			attempts.add(new QuizLeaderboard.Standing(0, studentId, random.nextInt(101),
+					START.plusSeconds(random.nextInt(600))));
+		}
+		Collections.shuffle(attempts, random);
+		attempts.forEach(attempt -> leaderboard.add(attempt.studentId(), attempt.score(), attempt.submittedAt()));
+
+		List<Long> expected = attempts.stream()
+				.sorted(Comparator.comparingInt(QuizLeaderboard.Standing::score).reversed()
+						.thenComparing(QuizLeaderboard.Standing::submittedAt)
+						.thenComparingLong(QuizLeaderboard.Standing::studentId))
+				.map(QuizLeaderboard.Standing::studentId).collect(Collectors.toList());
+
+		assertThat(leaderboard.top(3000)).extracting(QuizLeaderboard.Standing::studentId).isEqualTo(expected);
+		for (int rank = 1; rank <= expected.size(); rank += 97) {
+			assertThat(leaderboard.standingOf(expected.get(rank - 1)).get().rank()).isEqualTo(rank);
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package com.nirmaan.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class QuizSnapshotTests {
+
+	private final QuizSnapshot snapshot = QuizSnapshot.of(1L,
+			List.of(new QuizSnapshot.Key(10L, "A", 1), new QuizSnapshot.Key(11L, "C", 2),
+					new QuizSnapshot.Key(12L, "D", null), new QuizSnapshot.Key(13L, null, 5)));
+
+	@Test
+	void scoresMatchingAnswersOnly() {
+		Map<Long, String> answers = new HashMap<>();
+		answers.put(10L, "A");
+		answers.put(11L, "C");
+		answers.put(12L, "B");
+		answers.put(13L, "A");
+		answers.put(99L, "A");
+
+		QuizSnapshot.Score score = snapshot.score(answers);
+
+		assertThat(score.correctAnswers()).isEqualTo(2);
+		assertThat(score.earnedMarks()).isEqualTo(3);
+	}
+
+	@Test
+	void ignoresMalformedAnswers() {
+		Map<Long, String> answers = new HashMap<>();
+		answers.put(10L, "a");
+		answers.put(11L, "CC");
+		answers.put(12L, null);
+
+		assertThat(snapshot.score(answers).correctAnswers()).isZero();
+	}
+
+	@Test
+	void exposesQuestionLayout() {
+		assertThat(snapshot.getQuestionCount()).isEqualTo(4);
+		assertThat(snapshot.getTotalMarks()).isEqualTo(9);
+		assertThat(snapshot.positionOf(12L)).isEqualTo(2);
+		assertThat(snapshot.positionOf(14L)).isNegative();
+	}
+}
@@ -0,0 +1,44 @@
+package com.nirmaan.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.nirmaan.repository.StudentQuizAttemptRepository;
+
+class QuizSubmittedIndexTests {
+
+	private final StudentQuizAttemptRepository repository = mock(StudentQuizAttemptRepository.class);
+	private final QuizSubmittedIndex index = new QuizSubmittedIndex(repository);
+
+	@Test
+	void readsEachQuizOnceAndTracksNewAttempts() {
+		when(repository.findStudentIdsByQuizId(1L)).thenReturn(List.of(3L, 70000L));
+
+		assertThat(index.isSubmitted(1L, 3L)).isTrue();
+		assertThat(index.isSubmitted(1L, 4L)).isFalse();
+		index.markSubmitted(1L, 4L);
+		assertThat(index.isSubmitted(1L, 4L)).isTrue();
+		assertThat(index.isSubmitted(1L, 70000L)).isTrue();
+
+		verify(repository, times(1)).findStudentIdsByQuizId(1L);
+	}
+
+	@Test
+	void ignoresMarksForQuizzesNotLoadedYet() {
+		when(repository.findStudentIdsByQuizId(2L)).thenReturn(List.of());
+
+		index.markSubmitted(2L, 5L);
+		assertThat(index.size()).isZero();
+		assertThat(index.isSubmitted(2L, 5L)).isFalse();
+
+		index.forget(2L);
+		assertThat(index.size()).isZero();
+	}
+}
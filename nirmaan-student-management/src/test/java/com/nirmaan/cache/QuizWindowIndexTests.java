@@ -0,0 +1,84 @@
+package com.nirmaan.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.nirmaan.dto.QuizSummaryDto;
+import com.nirmaan.repository.QuizRepository;
+
+class QuizWindowIndexTests {
+
+	private static final LocalDateTime NOON = LocalDateTime.of(2024, 6, 3, 12, 0);
+
+	private final QuizRepository quizRepository = mock(QuizRepository.class);
+	private final QuizWindowIndex index = new QuizWindowIndex(quizRepository);
+	private final List<QuizSummaryDto> quizzes = new ArrayList<>();
+
+	@BeforeEach
+	void load() {
+		quizzes.add(quiz(1L, 1L, NOON.minusHours(2), NOON.minusHours(1)));
+		quizzes.add(quiz(2L, 1L, NOON.minusHours(1), NOON.plusHours(1)));
+		quizzes.add(quiz(3L, 2L, NOON.minusDays(3), NOON.plusDays(3)));
+		quizzes.add(quiz(4L, null, NOON.minusMinutes(5), NOON.plusMinutes(5)));
+		quizzes.add(quiz(5L, 1L, NOON.plusMinutes(1), NOON.plusHours(2)));
+		quizzes.add(quiz(6L, 2L, null, null));
+		for (long id = 100; id < 300; id++) {
+			quizzes.add(quiz(id, id % 3, NOON.minusDays(id), NOON.minusDays(id).plusHours(1)));
+		}
+		when(quizRepository.findActiveSummaries()).thenReturn(quizzes);
+		index.reload();
+	}
+
+	@Test
+	void findsExactlyTheOpenWindows() {
+		assertThat(ids(index.openAt(NOON))).containsExactly(6L, 3L, 2L, 4L);
+		assertThat(ids(index.openAt(NOON))).isEqualTo(bruteForce(NOON));
+		assertThat(ids(index.openAt(NOON.plusHours(1).plusMinutes(30)))).containsExactly(6L, 3L, 5L);
+		assertThat(ids(index.openAt(NOON.minusDays(150).plusMinutes(30)))).containsExactly(6L, 150L);
+	}
+
+	@Test
+	void filtersByBatchKeepingQuizzesForEveryBatch() {
+		assertThat(ids(index.openAt(NOON, 1L))).containsExactly(2L, 4L);
+		assertThat(ids(index.openAt(NOON, 2L))).containsExactly(6L, 3L, 4L);
+	}
+
+	@Test
+	void refreshDropsDeactivatedQuizzes() {
+		when(quizRepository.findActiveSummaryById(2L)).thenReturn(Optional.empty());
+		when(quizRepository.findActiveSummaryById(7L))
+				.thenReturn(Optional.of(quiz(7L, 1L, NOON.minusMinutes(1), NOON.plusMinutes(1))));
+
+		index.refresh(2L);
+		index.refresh(7L);
+
+		assertThat(ids(index.openAt(NOON, 1L))).containsExactly(4L, 7L);
+	}
+
+	private List<Long> bruteForce(LocalDateTime time) {
+		return quizzes.stream()
+				.filter(quiz -> (quiz.getStartTime() == null || quiz.getStartTime().isBefore(time))
+						&& (quiz.getEndTime() == null || quiz.getEndTime().isAfter(time)))
+				.sorted((a, b) -> a.getStartTime() == null ? -1
+						: b.getStartTime() == null ? 1 : a.getStartTime().compareTo(b.getStartTime()))
+				.map(QuizSummaryDto::getId).collect(Collectors.toList());
+	}
+
+	private List<Long> ids(List<QuizSummaryDto> summaries) {
+		return summaries.stream().map(QuizSummaryDto::getId).collect(Collectors.toList());
+	}
+
+	private QuizSummaryDto quiz(Long id, Long batchId, LocalDateTime start, LocalDateTime end) {
+		return new QuizSummaryDto(id, "Quiz " + id, null, null, null, batchId, null, 30, start, end);
+	}
+}
@@ -0,0 +1,216 @@
+package com.nirmaan.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.nirmaan.config.SecurityConfig;
+import com.nirmaan.dto.AttendanceDto;
+import com.nirmaan.dto.StudentDto;
+import com.nirmaan.entity.User;
+import com.nirmaan.enums.AttendanceStatus;
+import com.nirmaan.enums.Role;
+import com.nirmaan.exception.ResourceNotFoundException;
+import com.nirmaan.exception.ValidationException;
+import com.nirmaan.security.JwtAuthenticationEntryPoint;
+import com.nirmaan.security.JwtTokenProvider;
+import com.nirmaan.security.UserPrincipal;
+import com.nirmaan.service.AttendanceArchiveService;
+import com.nirmaan.service.AttendanceExportService;
+import com.nirmaan.service.AttendanceService;
+import com.nirmaan.service.AttendanceWriteBehindService;
+import com.nirmaan.service.StudentService;
+import com.nirmaan.service.UserService;
+
+@WebMvcTest(AttendanceController.class)
+@Import({ SecurityConfig.class, JwtAuthenticationEntryPoint.class })
+@MockBean(JpaMetamodelMappingContext.class)
+class AttendanceControllerTests {
+
+	private static final LocalDate START = LocalDate.of(2024, 1, 1);
+	private static final LocalDate END = LocalDate.of(2024, 1, 4);
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockBean
+	private AttendanceService attendanceService;
+
+	@MockBean
+	private StudentService studentService;
+
+	@MockBean
+	private AttendanceWriteBehindService attendanceWriteBehindService;
+
+	@MockBean
+	private AttendanceExportService attendanceExportService;
+
+	@MockBean
+	private AttendanceArchiveService attendanceArchiveService;
+
+	@MockBean
+	private JwtTokenProvider jwtTokenProvider;
+
+	@MockBean
+	private UserService userService;
+
+	@Test
+	@WithMockUser(roles = "TRAINER")
+	void studentRangeReturnsProjectedRows() throws Exception {
+		given(attendanceService.getStudentAttendanceByDateRange(7L, START, END))
+				.willReturn(List.of(row(11L, START, AttendanceStatus.PRESENT), row(12L, END, AttendanceStatus.ABSENT)));
+
+		mockMvc.perform(get("/api/attendance/student/7/range").param("startDate", "2024-01-01")
+				.param("endDate", "2024-01-04"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.success").value(true))
+				.andExpect(jsonPath("$.message").value("Student attendance for date range retrieved successfully"))
+				.andExpect(jsonPath("$.nextCursor").doesNotExist())
+				.andExpect(jsonPath("$.data.length()").value(2))
+				.andExpect(jsonPath("$.data[0].id").value(11))
+				.andExpect(jsonPath("$.data[0].studentId").value(7))
+				.andExpect(jsonPath("$.data[0].studentName").value("Student 0"))
+				.andExpect(jsonPath("$.data[0].batchName").value("Java Full Stack - Jan"))
+				.andExpect(jsonPath("$.data[0].attendanceDate").value("2024-01-01"))
+				.andExpect(jsonPath("$.data[0].status").value("PRESENT"))
+				.andExpect(jsonPath("$.data[0].markedAt").value("2024-01-01T09:00:00"))
+				.andExpect(jsonPath("$.data[1].status").value("ABSENT"));
+	}
+
+	@Test
+	@WithMockUser(roles = "TRAINER")
+	void studentRangeRejectsReversedDates() throws Exception {
+		given(attendanceService.getStudentAttendanceByDateRange(7L, END, START))
+				.willThrow(new ValidationException("Start date must not be after end date"));
+
+		mockMvc.perform(get("/api/attendance/student/7/range").param("startDate", "2024-01-04")
+				.param("endDate", "2024-01-01"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.success").value(false))
+				.andExpect(jsonPath("$.message").value("Start date must not be after end date"));
+	}
+
+	@Test
+	@WithMockUser(roles = "TRAINER")
+	void studentRangeReportsUnknownStudent() throws Exception {
+		given(attendanceService.getStudentAttendanceByDateRange(99L, START, END))
+				.willThrow(new ResourceNotFoundException("Student not found"));
+
+		mockMvc.perform(get("/api/attendance/student/99/range").param("startDate", "2024-01-01")
+				.param("endDate", "2024-01-04"))
+				.andExpect(status().isNotFound())
+				.andExpect(jsonPath("$.success").value(false))
+				.andExpect(jsonPath("$.message").value("Student not found"));
+	}
+
+	@Test
+	@WithMockUser(roles = "STUDENT")
+	void studentRangeIsNotOpenToStudents() throws Exception {
+		mockMvc.perform(get("/api/attendance/student/7/range").param("startDate", "2024-01-01")
+				.param("endDate", "2024-01-04"))
+				.andExpect(status().isForbidden())
+				.andExpect(jsonPath("$.success").value(false));
+
+		verify(attendanceService, never()).getStudentAttendanceByDateRange(anyLong(), any(), any());
+	}
+
+	@Test
+	void myRangeResolvesTheSignedInStudent() throws Exception {
+		User account = new User();
+		account.setId(3L);
+		account.setUsername("student0");
+		account.setRole(Role.STUDENT);
+		account.setActive(true);
+		StudentDto student = new StudentDto();
+		student.setId(7L);
+		given(studentService.getStudentByUserId(3L)).willReturn(student);
+		given(attendanceService.getStudentAttendanceByDateRange(7L, START, END))
+				.willReturn(List.of(row(11L, START, AttendanceStatus.LATE)));
+
+		mockMvc.perform(get("/api/attendance/my-attendance/range").param("startDate", "2024-01-01")
+				.param("endDate", "2024-01-04").with(user(new UserPrincipal(account))))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.success").value(true))
+				.andExpect(jsonPath("$.data.length()").value(1))
+				.andExpect(jsonPath("$.data[0].studentId").value(7))
+				.andExpect(jsonPath("$.data[0].batchName").value("Java Full Stack - Jan"))
+				.andExpect(jsonPath("$.data[0].status").value("LATE"));
+	}
+
+	@Test
+	void myRangeRequiresAuthentication() throws Exception {
+		mockMvc.perform(get("/api/attendance/my-attendance/range").param("startDate", "2024-01-01")
+				.param("endDate", "2024-01-04"))
+				.andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	@WithMockUser(roles = "ADMIN")
+	void updateReturnsProjectedRow() throws Exception {
+		given(attendanceService.updateAttendanceStatus(11L, AttendanceStatus.ABSENT))
+				.willReturn(row(11L, START, AttendanceStatus.ABSENT));
+
+		mockMvc.perform(put("/api/attendance/11").param("status", "ABSENT"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.success").value(true))
+				.andExpect(jsonPath("$.message").value("Attendance updated successfully"))
+				.andExpect(jsonPath("$.data.id").value(11))
+				.andExpect(jsonPath("$.data.studentName").value("Student 0"))
+				.andExpect(jsonPath("$.data.batchName").value("Java Full Stack - Jan"))
+				.andExpect(jsonPath("$.data.status").value("ABSENT"));
+	}
+
+	@Test
+	@WithMockUser(roles = "ADMIN")
+	void updateReportsUnknownRecord() throws Exception {
+		given(attendanceService.updateAttendanceStatus(404L, AttendanceStatus.PRESENT))
+				.willThrow(new ResourceNotFoundException("Attendance record not found"));
+
+		mockMvc.perform(put("/api/attendance/404").param("status", "PRESENT"))
+				.andExpect(status().isNotFound())
+				.andExpect(jsonPath("$.success").value(false))
+				.andExpect(jsonPath("$.message").value("Attendance record not found"));
+	}
+
+	@Test
+	@WithMockUser(roles = "TRAINER")
+	void exportStreamsWithTheExportTimeout() throws Exception {
+		MvcResult result = mockMvc.perform(get("/api/attendance/export/batch/3"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(600_000L);
+		mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Content-Disposition", "attachment; filename=\"attendance-batch-3.csv\""));
+		verify(attendanceExportService).exportByBatch(any(), any(), any(), any(), any());
+	}
+
+	private static AttendanceDto row(Long id, LocalDate date, AttendanceStatus status) {
+		return new AttendanceDto(id, 7L, "Student 0", "Java Full Stack - Jan", date, status, date.atTime(9, 0));
+	}
+}
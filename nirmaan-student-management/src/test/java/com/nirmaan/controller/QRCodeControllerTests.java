@@ -0,0 +1,97 @@
+package com.nirmaan.controller;
+
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.nirmaan.cache.QRImageCache;
+import com.nirmaan.config.SecurityConfig;
+import com.nirmaan.enums.QRImageFormat;
+import com.nirmaan.enums.QRImageSize;
+import com.nirmaan.security.JwtAuthenticationEntryPoint;
+import com.nirmaan.security.JwtTokenProvider;
+import com.nirmaan.service.QRCodeRetentionService;
+import com.nirmaan.service.QRCodeService;
+import com.nirmaan.service.UserService;
+
+@WebMvcTest(QRCodeController.class)
+@Import({ SecurityConfig.class, JwtAuthenticationEntryPoint.class })
+@MockBean(JpaMetamodelMappingContext.class)
+@WithMockUser(roles = "TRAINER")
+class QRCodeControllerTests {
+
+	private static final String ETAG = "\"0123456789abcdef01234567\"";
+	private static final byte[] PNG = { (byte) 0x89, 'P', 'N', 'G' };
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockBean
+	private QRCodeService qrCodeService;
+
+	@MockBean
+	private QRCodeRetentionService qrCodeRetentionService;
+
+	@MockBean
+	private JwtTokenProvider jwtTokenProvider;
+
+	@MockBean
+	private UserService userService;
+
+	@BeforeEach
+	void setUp() {
+		QRImageCache.Image image = new QRImageCache.Image(PNG, "image/png", ETAG);
+		given(qrCodeService.getDisplayedQRCode(7L, QRImageSize.PHONE, QRImageFormat.PNG))
+				.willReturn(Optional.of(new QRCodeService.DisplayedQRCode(image, LocalDateTime.now().plusSeconds(30))));
+	}
+
+	@Test
+	void servesTheImageWithItsETag() throws Exception {
+		mockMvc.perform(get("/api/qrcode/batch/7/image"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, ETAG))
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/png"))
+				.andExpect(content().bytes(PNG));
+	}
+
+	@Test
+	void answersNotModifiedForAnyMatchingIfNoneMatchForm() throws Exception {
+		for (String ifNoneMatch : List.of(ETAG, "W/" + ETAG, "\"stale\", " + ETAG)) {
+			mockMvc.perform(get("/api/qrcode/batch/7/image").header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch))
+					.andExpect(status().isNotModified())
+					.andExpect(header().stringValues(HttpHeaders.ETAG, ETAG))
+					.andExpect(header().exists(HttpHeaders.CACHE_CONTROL))
+					.andExpect(content().bytes(new byte[0]));
+		}
+	}
+
+	@Test
+	void servesTheImageAgainOnceItChanged() throws Exception {
+		mockMvc.perform(get("/api/qrcode/batch/7/image").header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+				.andExpect(status().isOk())
+				.andExpect(content().bytes(PNG));
+	}
+
+	@Test
+	void reportsABatchWithoutACode() throws Exception {
+		mockMvc.perform(get("/api/qrcode/batch/8/image"))
+				.andExpect(status().isNotFound());
+	}
+}
@@ -0,0 +1,60 @@
+package com.nirmaan.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.nirmaan.dto.ApiResponse;
+import com.nirmaan.dto.QuizSubmissionReceipt;
+import com.nirmaan.enums.QuizSubmissionStatus;
+
+class QuizSubmissionResponsesTests {
+
+	private static final LocalDateTime SUBMITTED_AT = LocalDateTime.of(2024, 6, 3, 10, 0);
+
+	@Test
+	void acceptsAQueuedSubmission() {
+		ResponseEntity<ApiResponse<QuizSubmissionReceipt>> response = QuizSubmissionResponses
+				.of(new QuizSubmissionReceipt("r1", 5L, SUBMITTED_AT));
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+		assertThat(response.getBody().isSuccess()).isTrue();
+	}
+
+	@Test
+	void reportsARetryThatWasAlreadyScoredAsScored() {
+		ResponseEntity<ApiResponse<QuizSubmissionReceipt>> response = QuizSubmissionResponses
+				.of(receipt(QuizSubmissionStatus.SCORED, QuizSubmissionStatus.SCORED.getMessage()));
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getBody().isSuccess()).isTrue();
+		assertThat(response.getBody().getMessage()).isEqualTo("Quiz submission scored");
+	}
+
+	@Test
+	void reportsARetryThatWasRejectedAsAFailure() {
+		ResponseEntity<ApiResponse<QuizSubmissionReceipt>> response = QuizSubmissionResponses
+				.of(receipt(QuizSubmissionStatus.REJECTED, "Quiz not found"));
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+		assertThat(response.getBody().isSuccess()).isFalse();
+		assertThat(response.getBody().getMessage()).isEqualTo("Quiz not found");
+	}
+
+	@Test
+	void reportsADuplicateAsAConflict() {
+		ResponseEntity<ApiResponse<QuizSubmissionReceipt>> response = QuizSubmissionResponses
+				.of(receipt(QuizSubmissionStatus.DUPLICATE, QuizSubmissionStatus.DUPLICATE.getMessage()));
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+		assertThat(response.getBody().isSuccess()).isFalse();
+	}
+
+	private static QuizSubmissionReceipt receipt(QuizSubmissionStatus status, String message) {
+		return new QuizSubmissionReceipt("r1", 5L, status, message, SUBMITTED_AT, null, null, null, null);
+	}
+}
@@ -0,0 +1,120 @@
+package com.nirmaan.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.nirmaan.entity.Attendance;
+import com.nirmaan.entity.Batch;
+import com.nirmaan.entity.Student;
+import com.nirmaan.entity.User;
+import com.nirmaan.enums.AttendanceStatus;
+import com.nirmaan.enums.Role;
+
+// MySQL mode, for the ON DUPLICATE KEY clause of the native insert
+@DataJpaTest(properties = { "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.datasource.url=jdbc:h2:mem:insert-if-absent;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver", "spring.datasource.username=sa",
+		"spring.datasource.password=" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class AttendanceInsertIfAbsentTests {
+
+	private static final LocalDate DAY = LocalDate.of(2024, 1, 1);
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private AttendanceRepository attendanceRepository;
+
+	private Batch batch;
+	private final List<Student> students = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		batch = new Batch();
+		batch.setBatchName("Java Full Stack - Jan");
+		entityManager.persist(batch);
+
+		for (int i = 0; i < 3; i++) {
+			User user = new User();
+			user.setUsername("student" + i);
+			user.setEmail("student" + i + "@nirmaan.test");
+			user.setPassword("secret");
+			user.setFirstName("Student");
+			user.setLastName(String.valueOf(i));
+			user.setRole(Role.STUDENT);
+			entityManager.persist(user);
+
+			Student student = new Student();
+			student.setUser(user);
+			student.setBatch(batch);
+			entityManager.persist(student);
+			students.add(student);
+		}
+		entityManager.flush();
+	}
+
+	@Test
+	void insertsOnceAndSkipsTheDuplicate() {
+		Attendance first = mark(students.get(0), AttendanceStatus.PRESENT);
+		Attendance second = mark(students.get(0), AttendanceStatus.LATE);
+
+		assertThat(attendanceRepository.insertIfAbsent(first)).isTrue();
+		assertThat(first.getId()).isNotNull();
+		assertThat(attendanceRepository.insertIfAbsent(second)).isFalse();
+		assertThat(second.getId()).isNull();
+
+		entityManager.clear();
+		assertThat(attendanceRepository.findStudentIdsByAttendanceDate(DAY)).containsExactly(students.get(0).getId());
+		assertThat(attendanceRepository.findById(first.getId())).get()
+				.extracting(Attendance::getStatus).isEqualTo(AttendanceStatus.PRESENT);
+	}
+
+	@Test
+	void returnsOnlyTheRowsThatWereWritten() {
+		attendanceRepository.insertIfAbsent(mark(students.get(0), AttendanceStatus.PRESENT));
+		Attendance alreadyStored = mark(students.get(0), AttendanceStatus.PRESENT);
+		Attendance fresh = mark(students.get(1), AttendanceStatus.PRESENT);
+		Attendance repeated = mark(students.get(1), AttendanceStatus.ABSENT);
+		Attendance other = mark(students.get(2), AttendanceStatus.LATE);
+
+		List<Attendance> inserted = attendanceRepository
+				.insertAllIfAbsent(List.of(alreadyStored, fresh, repeated, other));
+
+		assertThat(inserted).containsExactly(fresh, other).allSatisfy(row -> assertThat(row.getId()).isNotNull());
+		assertThat(alreadyStored.getId()).isNull();
+		assertThat(repeated.getId()).isNull();
+		assertThat(attendanceRepository.findStudentIdsByAttendanceDate(DAY)).hasSize(3);
+	}
+
+	@Test
+	void stillFailsOnAMissingStudent() {
+		Student missing = new Student();
+		missing.setId(999_999L);
+
+		assertThatThrownBy(() -> attendanceRepository.insertIfAbsent(mark(missing, AttendanceStatus.PRESENT)))
+				.isInstanceOf(DataIntegrityViolationException.class);
+	}
+
+	private Attendance mark(Student student, AttendanceStatus status) {
+		Attendance attendance = new Attendance();
+		attendance.setStudent(student);
+		attendance.setBatch(batch);
+		attendance.setAttendanceDate(DAY);
+		attendance.setStatus(status);
+		attendance.setMarkedAt(DAY.atTime(9, 0));
+		return attendance;
+	}
+}
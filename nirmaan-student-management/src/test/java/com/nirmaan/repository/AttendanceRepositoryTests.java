@@ -0,0 +1,160 @@
+package com.nirmaan.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import com.nirmaan.dto.AttendanceDto;
+import com.nirmaan.entity.Attendance;
+import com.nirmaan.entity.Batch;
+import com.nirmaan.entity.Student;
+import com.nirmaan.entity.User;
+import com.nirmaan.enums.AttendanceStatus;
+import com.nirmaan.enums.Role;
+import com.nirmaan.util.AttendanceCursor;
+
+@DataJpaTest(properties = { "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.generate_statistics=true" })
+class AttendanceRepositoryTests {
+
+	private static final int STUDENTS = 5;
+	private static final int DAYS = 4;
+	private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+	private static final AttendanceCursor START = AttendanceCursor.START;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private AttendanceRepository attendanceRepository;
+
+	private Statistics statistics;
+	private Batch batch;
+	private Student student;
+	private Long attendanceId;
+
+	@BeforeEach
+	void setUp() {
+		batch = new Batch();
+		batch.setBatchName("Java Full Stack - Jan");
+		entityManager.persist(batch);
+
+		List<Student> students = new ArrayList<>();
+		for (int i = 0; i < STUDENTS; i++) {
+			User user = new User();
+			user.setUsername("student" + i);
+			user.setEmail("student" + i + "@nirmaan.test");
+			user.setPassword("secret");
+			user.setFirstName("Student");
+			user.setLastName(String.valueOf(i));
+			user.setRole(Role.STUDENT);
+			entityManager.persist(user);
+
+			Student s = new Student();
+			s.setUser(user);
+			s.setBatch(batch);
+			entityManager.persist(s);
+			students.add(s);
+		}
+		student = students.get(0);
+
+		for (int day = 0; day < DAYS; day++) {
+			for (Student s : students) {
+				Attendance attendance = new Attendance();
+				attendance.setStudent(s);
+				attendance.setBatch(batch);
+				attendance.setAttendanceDate(FIRST_DAY.plusDays(day));
+				attendance.setStatus(AttendanceStatus.PRESENT);
+				attendance.setMarkedAt(FIRST_DAY.plusDays(day).atTime(9, 0));
+				entityManager.persist(attendance);
+				attendanceId = attendance.getId();
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		statistics = entityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class)
+				.getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void studentPageIsSingleStatement() {
+		List<AttendanceDto> page = attendanceRepository.findPageByStudentId(student.getId(), START.attendanceDate(),
+				START.id(), Limit.of(50));
+
+		assertThat(page).hasSize(DAYS).allSatisfy(this::assertPopulated);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void datePageIsSingleStatement() {
+		List<AttendanceDto> page = attendanceRepository.findPageByDate(FIRST_DAY, START.id(), Limit.of(50));
+
+		assertThat(page).hasSize(STUDENTS).allSatisfy(this::assertPopulated);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void batchPageIsSingleStatement() {
+		List<AttendanceDto> page = attendanceRepository.findPageByBatchId(batch.getId(), START.attendanceDate(), START.id(),
+				Limit.of(50));
+
+		assertThat(page).hasSize(STUDENTS * DAYS).allSatisfy(this::assertPopulated);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void batchDatePageIsSingleStatement() {
+		List<AttendanceDto> page = attendanceRepository.findPageByBatchIdAndDate(batch.getId(), FIRST_DAY, START.id(),
+				Limit.of(50));
+
+		assertThat(page).hasSize(STUDENTS).allSatisfy(this::assertPopulated);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void studentDateRangeIsSingleStatement() {
+		List<AttendanceDto> rows = attendanceRepository.findDtosByStudentIdAndDateRange(student.getId(), FIRST_DAY,
+				FIRST_DAY.plusDays(1));
+
+		assertThat(rows).hasSize(2).allSatisfy(this::assertPopulated);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void singleRecordIsSingleStatement() {
+		assertThat(attendanceRepository.findDtoById(attendanceId)).get().satisfies(this::assertPopulated);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void loadingEntityDoesNotCascadeIntoAssociations() {
+		Attendance attendance = attendanceRepository.findById(attendanceId).orElseThrow();
+
+		assertThat(attendance.getStudent().getId()).isNotNull();
+		assertThat(attendance.getBatch().getId()).isEqualTo(batch.getId());
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	private void assertPopulated(AttendanceDto dto) {
+		assertThat(dto.getId()).isNotNull();
+		assertThat(dto.getStudentId()).isNotNull();
+		assertThat(dto.getStudentName()).startsWith("Student ");
+		assertThat(dto.getBatchName()).isEqualTo("Java Full Stack - Jan");
+		assertThat(dto.getAttendanceDate()).isNotNull();
+		assertThat(dto.getStatus()).isEqualTo(AttendanceStatus.PRESENT);
+		assertThat(dto.getMarkedAt()).isNotNull();
+	}
+}
@@ -0,0 +1,166 @@
+package com.nirmaan.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.nirmaan.cache.AttendanceMarkIndex;
+import com.nirmaan.cache.AttendanceMatrixStore;
+import com.nirmaan.cache.QRCodeValidityCache;
+import com.nirmaan.dto.BulkMarkResponse;
+import com.nirmaan.entity.Attendance;
+import com.nirmaan.entity.Batch;
+import com.nirmaan.entity.Student;
+import com.nirmaan.entity.User;
+import com.nirmaan.enums.AttendanceStatus;
+import com.nirmaan.enums.BulkMarkOutcome;
+import com.nirmaan.enums.Role;
+import com.nirmaan.exception.ResourceNotFoundException;
+import com.nirmaan.repository.AttendanceRepository;
+import com.nirmaan.repository.BatchRepository;
+import com.nirmaan.repository.StudentRepository;
+import com.nirmaan.util.QRTokenSigner;
+
+// MySQL mode, for the ON DUPLICATE KEY clause new marks are inserted with
+@DataJpaTest(properties = { "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"spring.datasource.url=jdbc:h2:mem:bulk-marks;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver", "spring.datasource.username=sa",
+		"spring.datasource.password=" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class AttendanceBulkMarkTests {
+
+	private static final LocalDate DAY = LocalDate.of(2024, 1, 1);
+	private static final int STUDENTS = 30;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private AttendanceRepository attendanceRepository;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private BatchRepository batchRepository;
+
+	private final AttendanceMarkIndex attendanceMarkIndex = mock(AttendanceMarkIndex.class);
+	private final AttendanceRollupService attendanceRollupService = mock(AttendanceRollupService.class);
+	private AttendanceService service;
+	private Statistics statistics;
+	private Batch batch;
+	private final List<Student> students = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		service = new AttendanceService(attendanceRepository, studentRepository, mock(QRCodeValidityCache.class),
+				attendanceMarkIndex, mock(AttendanceWriteBehindService.class), attendanceRollupService,
+				batchRepository, mock(AttendanceMatrixStore.class), mock(QRTokenSigner.class),
+				mock(AttendanceArchiveService.class), mock(QRRotationService.class));
+		when(attendanceMarkIndex.markIfAbsent(any(), anyLong())).thenReturn(true);
+
+		batch = new Batch();
+		batch.setBatchName("Java Full Stack - Jan");
+		entityManager.persist(batch);
+		for (int i = 0; i < STUDENTS; i++) {
+			User user = new User();
+			user.setUsername("student" + i);
+			user.setEmail("student" + i + "@nirmaan.test");
+			user.setPassword("secret");
+			user.setFirstName("Student");
+			user.setLastName(String.valueOf(i));
+			user.setRole(Role.STUDENT);
+			entityManager.persist(user);
+
+			Student student = new Student();
+			student.setUser(user);
+			student.setBatch(batch);
+			entityManager.persist(student);
+			students.add(student);
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		statistics = entityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class)
+				.getStatistics();
+	}
+
+	@Test
+	void marksAWholeBatchWithAFixedNumberOfStatements() {
+		statistics.clear();
+
+		BulkMarkResponse response = service.markAllBatchStudentsPresent(batch.getId(), DAY);
+
+		assertThat(response.getTotals()).containsExactlyEntriesOf(Map.of(BulkMarkOutcome.CREATED, STUDENTS));
+		assertThat(attendanceRepository.findStudentIdsByAttendanceDate(DAY)).hasSize(STUDENTS);
+		assertThat(statistics.getPrepareStatementCount()).isLessThan(10);
+		verify(attendanceRollupService).applyDeltas(DAY, batch.getId(), Map.of(AttendanceStatus.PRESENT, STUDENTS));
+	}
+
+	@Test
+	void sortsEachStudentIntoItsOutcome() {
+		mark(students.get(1), AttendanceStatus.PRESENT);
+		mark(students.get(2), AttendanceStatus.PRESENT);
+		// Claimed by a QR scan still waiting in the write-behind queue
+		when(attendanceMarkIndex.markIfAbsent(DAY, students.get(3).getId())).thenReturn(false);
+
+		Map<Long, AttendanceStatus> marks = new LinkedHashMap<>();
+		marks.put(students.get(0).getId(), AttendanceStatus.PRESENT);
+		marks.put(students.get(1).getId(), AttendanceStatus.LATE);
+		marks.put(students.get(2).getId(), AttendanceStatus.PRESENT);
+		marks.put(students.get(3).getId(), AttendanceStatus.ABSENT);
+		marks.put(999_999L, AttendanceStatus.PRESENT);
+		BulkMarkResponse response = service.bulkMarkAttendance(marks, DAY);
+		entityManager.clear();
+
+		assertThat(response.getOutcomes()).containsExactly(Map.entry(students.get(1).getId(), BulkMarkOutcome.UPDATED),
+				Map.entry(students.get(2).getId(), BulkMarkOutcome.UNCHANGED),
+				Map.entry(students.get(3).getId(), BulkMarkOutcome.ALREADY_MARKED),
+				Map.entry(999_999L, BulkMarkOutcome.STUDENT_NOT_FOUND),
+				Map.entry(students.get(0).getId(), BulkMarkOutcome.CREATED));
+		assertThat(attendanceRepository.findMarksByDateAndStudentIds(DAY, marks.keySet()))
+				.extracting(AttendanceRepository.AttendanceMark::getStatus)
+				.containsExactlyInAnyOrder(AttendanceStatus.PRESENT, AttendanceStatus.LATE, AttendanceStatus.PRESENT);
+		// Student 1 moved from present to late and student 0 was marked present
+		verify(attendanceRollupService).applyDeltas(eq(DAY), eq(batch.getId()),
+				eq(Map.of(AttendanceStatus.PRESENT, 0, AttendanceStatus.LATE, 1)));
+	}
+
+	@Test
+	void rejectsAnUnknownBatch() {
+		assertThatThrownBy(() -> service.markAllBatchStudentsPresent(999_999L, DAY))
+				.isInstanceOf(ResourceNotFoundException.class);
+	}
+
+	private void mark(Student student, AttendanceStatus status) {
+		Attendance attendance = new Attendance();
+		attendance.setStudent(entityManager.find(Student.class, student.getId()));
+		attendance.setBatch(entityManager.find(Batch.class, batch.getId()));
+		attendance.setAttendanceDate(DAY);
+		attendance.setStatus(status);
+		attendance.setMarkedAt(DAY.atTime(9, 0));
+		entityManager.persist(attendance);
+		entityManager.flush();
+	}
+}
@@ -0,0 +1,132 @@
+package com.nirmaan.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.nirmaan.entity.Attendance;
+import com.nirmaan.entity.Batch;
+import com.nirmaan.entity.Student;
+import com.nirmaan.entity.User;
+import com.nirmaan.enums.AttendanceStatus;
+import com.nirmaan.enums.Role;
+import com.nirmaan.repository.AttendanceRepository;
+import com.nirmaan.repository.AttendanceRollupRepository;
+import com.nirmaan.repository.BatchRepository;
+import com.nirmaan.util.AttendanceColdStore;
+
+// MySQL mode, for the ON DUPLICATE KEY clause the deltas are applied with
+@DataJpaTest(properties = { "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.datasource.url=jdbc:h2:mem:rollups;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver", "spring.datasource.username=sa",
+		"spring.datasource.password=" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class AttendanceRollupServiceTests {
+
+	private static final LocalDate DAY = LocalDate.of(2024, 1, 1);
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private AttendanceRollupRepository attendanceRollupRepository;
+
+	@Autowired
+	private AttendanceRepository attendanceRepository;
+
+	@Autowired
+	private BatchRepository batchRepository;
+
+	private AttendanceRollupService service;
+	private Batch batch;
+	private final List<Student> students = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		service = new AttendanceRollupService(attendanceRollupRepository, attendanceRepository, batchRepository,
+				mock(AttendanceColdStore.class));
+
+		batch = new Batch();
+		batch.setBatchName("Java Full Stack - Jan");
+		entityManager.persist(batch);
+		for (int i = 0; i < 3; i++) {
+			User user = new User();
+			user.setUsername("student" + i);
+			user.setEmail("student" + i + "@nirmaan.test");
+			user.setPassword("secret");
+			user.setFirstName("Student");
+			user.setLastName(String.valueOf(i));
+			user.setRole(Role.STUDENT);
+			entityManager.persist(user);
+
+			Student student = new Student();
+			student.setUser(user);
+			student.setBatch(batch);
+			entityManager.persist(student);
+			students.add(student);
+		}
+		entityManager.flush();
+	}
+
+	@Test
+	void appliesMarksStatusChangesAndRemovalsAsDeltas() {
+		Attendance first = attendance(students.get(0), AttendanceStatus.PRESENT);
+		Attendance second = attendance(students.get(1), AttendanceStatus.PRESENT);
+		Attendance third = attendance(students.get(2), AttendanceStatus.ABSENT);
+		service.recordMark(first);
+		service.recordMark(second);
+		service.recordMark(third);
+
+		second.setStatus(AttendanceStatus.LATE);
+		service.recordStatusChange(second, AttendanceStatus.PRESENT);
+		service.recordRemoval(third);
+		entityManager.clear();
+
+		Map<String, Object> summary = service.getDaySummary(DAY);
+		assertThat(summary).containsEntry("present", 1L).containsEntry("late", 1L).containsEntry("absent", 0L)
+				.containsEntry("total", 2L);
+		assertThat(attendanceRollupRepository.findByAttendanceDate(DAY)).singleElement()
+				.satisfies(rollup -> assertThat(rollup.getBatchId()).isEqualTo(batch.getId()));
+		assertThat(service.countMarks(DAY)).isEqualTo(2L);
+	}
+
+	@Test
+	void rebuildReplacesDriftedCountsWithTheStoredRows() {
+		for (Student student : students) {
+			entityManager.persist(attendance(student, student == students.get(2) ? AttendanceStatus.ABSENT
+					: AttendanceStatus.PRESENT));
+		}
+		entityManager.flush();
+		// Counts that drifted from the rows, e.g. after a delta was lost
+		service.applyDelta(DAY, batch.getId(), AttendanceStatus.PRESENT, 7);
+		service.applyDelta(DAY.plusDays(1), batch.getId(), AttendanceStatus.LATE, 1);
+
+		service.rebuild(DAY, DAY.plusDays(1));
+		entityManager.clear();
+
+		assertThat(service.getDaySummary(DAY)).containsEntry("present", 2L).containsEntry("absent", 1L)
+				.containsEntry("late", 0L);
+		assertThat(service.countMarks(DAY.plusDays(1))).isZero();
+	}
+
+	private Attendance attendance(Student student, AttendanceStatus status) {
+		Attendance attendance = new Attendance();
+		attendance.setStudent(student);
+		attendance.setBatch(batch);
+		attendance.setAttendanceDate(DAY);
+		attendance.setStatus(status);
+		attendance.setMarkedAt(DAY.atTime(9, 0));
+		return attendance;
+	}
+}
@@ -0,0 +1,130 @@
+package com.nirmaan.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.nirmaan.cache.AttendanceMarkIndex;
+import com.nirmaan.cache.AttendanceMatrixStore;
+import com.nirmaan.entity.Attendance;
+import com.nirmaan.entity.Student;
+import com.nirmaan.enums.AttendanceStatus;
+import com.nirmaan.repository.AttendanceRepository;
+import com.nirmaan.util.AttendanceJournal;
+
+import jakarta.persistence.EntityManager;
+
+class AttendanceWriteBehindServiceTests {
+
+	private static final LocalDate TODAY = LocalDate.of(2024, 6, 3);
+	private static final long BAD_STUDENT = 2L;
+
+	private final AttendanceJournal attendanceJournal = mock(AttendanceJournal.class);
+	private final AttendanceRepository attendanceRepository = mock(AttendanceRepository.class);
+	private final EntityManager entityManager = mock(EntityManager.class);
+	private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+	private final List<Long> saved = new ArrayList<>();
+	private final AttendanceRollupService attendanceRollupService = mock(AttendanceRollupService.class);
+	private final AttendanceWriteBehindService service = new AttendanceWriteBehindService(attendanceJournal,
+			mock(AttendanceMarkIndex.class), attendanceRepository, attendanceRollupService,
+			mock(AttendanceMatrixStore.class), entityManager, transactionTemplate);
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		ReflectionTestUtils.setField(service, "batchSize", 10);
+		doAnswer(invocation -> {
+			invocation.getArgument(0, Consumer.class).accept(mock(TransactionStatus.class));
+			return null;
+		}).when(transactionTemplate).executeWithoutResult(any());
+		when(entityManager.getReference(any(), anyLong())).thenAnswer(invocation -> {
+			Student student = new Student();
+			student.setId(invocation.getArgument(1));
+			return student;
+		});
+		for (long studentId = 1; studentId <= 3; studentId++) {
+			when(attendanceJournal.append(studentId, null, TODAY, null, "qr"))
+					.thenReturn(new AttendanceJournal.Entry(studentId, studentId, null, TODAY, null, "qr"));
+		}
+	}
+
+	@Test
+	void dropsARowThatCanNeverBeWrittenAndKeepsTheRest() {
+		when(attendanceRepository.insertAllIfAbsent(any())).thenAnswer(invocation -> {
+			List<Attendance> rows = invocation.getArgument(0);
+			List<Long> students = studentIds(rows);
+			if (students.contains(BAD_STUDENT)) {
+				throw new DataIntegrityViolationException("fk_attendance_student");
+			}
+			saved.addAll(students);
+			return rows;
+		});
+		enqueueStudents();
+
+		service.flush();
+
+		assertThat(saved).containsExactly(1L, 3L);
+		assertThat(service.getStats()).containsEntry("pending", 0).containsEntry("flushed", 2L)
+				.containsEntry("dropped", 1L);
+		verify(attendanceJournal).checkpoint(3L);
+	}
+
+	@Test
+	void keepsRowsQueuedWhenTheDatabaseIsUnavailable() {
+		when(attendanceRepository.insertAllIfAbsent(any())).thenThrow(new QueryTimeoutException("timeout"));
+		enqueueStudents();
+
+		service.flush();
+
+		assertThat(service.getStats()).containsEntry("pending", 3).containsEntry("dropped", 0L);
+	}
+
+	@Test
+	void countsOnlyTheRowsTheDatabaseTookIn() {
+		// Student 2's mark reached the database before a crash and comes back from the journal
+		when(attendanceRepository.insertAllIfAbsent(any())).thenAnswer(invocation -> {
+			List<Attendance> rows = invocation.getArgument(0);
+			return rows.stream().filter(row -> row.getStudent().getId() != 2L).toList();
+		});
+		enqueueStudents();
+
+		service.flush();
+
+		verify(attendanceRollupService).applyDelta(TODAY, null, AttendanceStatus.PRESENT, 2);
+		verify(attendanceRepository, never()).findStudentIdsByAttendanceDate(any());
+		assertThat(service.getStats()).containsEntry("pending", 0).containsEntry("flushed", 3L);
+		verify(attendanceJournal).checkpoint(3L);
+	}
+
+	private void enqueueStudents() {
+		for (long studentId = 1; studentId <= 3; studentId++) {
+			Student student = new Student();
+			student.setId(studentId);
+			service.enqueue(student, "qr", TODAY, null);
+		}
+	}
+
+	private static List<Long> studentIds(Iterable<Attendance> rows) {
+		List<Long> ids = new ArrayList<>();
+		rows.forEach(row -> ids.add(row.getStudent().getId()));
+		return ids;
+	}
+}
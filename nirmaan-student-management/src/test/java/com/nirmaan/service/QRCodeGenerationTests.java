@@ -0,0 +1,144 @@
+package com.nirmaan.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.nirmaan.cache.QRCodeDayCache;
+import com.nirmaan.cache.QRCodeValidityCache;
+import com.nirmaan.cache.QRImageCache;
+import com.nirmaan.dto.QRGenerationReport;
+import com.nirmaan.entity.Batch;
+import com.nirmaan.entity.QRCode;
+import com.nirmaan.enums.QRImageFormat;
+import com.nirmaan.enums.QRImageSize;
+import com.nirmaan.repository.BatchRepository;
+import com.nirmaan.repository.QRCodeRepository;
+import com.nirmaan.util.QRTokenSigner;
+
+class QRCodeGenerationTests {
+
+	private static final LocalDate TODAY = LocalDate.now();
+
+	private final QRCodeRepository qrCodeRepository = mock(QRCodeRepository.class);
+	private final BatchRepository batchRepository = mock(BatchRepository.class);
+	private final QRTokenSigner qrTokenSigner = mock(QRTokenSigner.class);
+	private final QRCodeDayCache qrCodeDayCache = mock(QRCodeDayCache.class);
+	private final QRImageCache qrImageCache = mock(QRImageCache.class);
+	private final QRRotationService qrRotationService = mock(QRRotationService.class);
+	private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+	private final QRCodeService service = new QRCodeService(qrCodeRepository, batchRepository, qrTokenSigner,
+			mock(QRCodeValidityCache.class), qrCodeDayCache, qrImageCache, qrRotationService, transactionTemplate);
+	private final List<List<Long>> inserts = new ArrayList<>();
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		ReflectionTestUtils.setField(service, "renderThreads", 2);
+		service.startRenderPool();
+		when(transactionTemplate.execute(any())).thenAnswer(invocation -> invocation
+				.getArgument(0, TransactionCallback.class).doInTransaction(mock(TransactionStatus.class)));
+		when(qrTokenSigner.sign(anyLong(), any(), any()))
+				.thenAnswer(invocation -> "token-" + invocation.getArgument(0));
+		when(batchRepository.getReferenceById(anyLong())).thenAnswer(invocation -> {
+			Batch batch = new Batch();
+			batch.setId(invocation.getArgument(0));
+			return batch;
+		});
+		when(batchRepository.findActiveIdsRunningOn(TODAY)).thenReturn(List.of(1L, 2L, 3L));
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.stopRenderPool();
+	}
+
+	@Test
+	void createsCodesForRunningBatchesWithoutOneAndRendersThem() {
+		when(qrCodeRepository.findBatchIdsWithActiveCodeOn(TODAY)).thenReturn(List.of(2L));
+		recordInserts(false);
+
+		QRGenerationReport report = service.generateDailyQRCodes();
+
+		assertThat(inserts).containsExactly(List.of(1L, 3L));
+		assertThat(report.getRunningBatches()).isEqualTo(3);
+		assertThat(report.getCreated()).isEqualTo(2);
+		assertThat(report.getSkipped()).isEqualTo(1);
+		assertThat(report.getRendered()).isEqualTo(2 * QRImageSize.values().length);
+		assertThat(report.getRenderFailures()).isZero();
+		verify(qrImageCache).render("token-3", QRImageSize.PROJECTOR, QRImageFormat.PNG);
+		verify(qrCodeDayCache, times(2)).put(any());
+	}
+
+	@Test
+	void retriesWithoutTheBatchesAnotherInstanceCovered() {
+		when(qrCodeRepository.findBatchIdsWithActiveCodeOn(TODAY)).thenReturn(List.of(2L), List.of(1L, 2L));
+		recordInserts(true);
+
+		QRGenerationReport report = service.generateDailyQRCodes();
+
+		assertThat(inserts).containsExactly(List.of(1L, 3L), List.of(3L));
+		assertThat(report.getCreated()).isEqualTo(1);
+		assertThat(report.getSkipped()).isEqualTo(2);
+		verify(qrCodeDayCache, times(1)).put(any());
+	}
+
+	@Test
+	void givesUpAfterRepeatedConflicts() {
+		when(qrCodeRepository.findBatchIdsWithActiveCodeOn(TODAY)).thenReturn(List.of());
+		when(qrCodeRepository.saveAll(any()))
+				.thenThrow(new DataIntegrityViolationException("uk_qr_codes_batch_active_date"));
+
+		assertThatThrownBy(service::generateDailyQRCodes).isInstanceOf(DataIntegrityViolationException.class);
+
+		verify(qrCodeRepository, times(3)).saveAll(any());
+		verify(qrCodeDayCache, never()).put(any());
+	}
+
+	@Test
+	void generatesNothingWhileCodesRotate() {
+		when(qrRotationService.isEnabled()).thenReturn(true);
+
+		QRGenerationReport report = service.generateDailyQRCodes();
+
+		assertThat(report.getCreated()).isZero();
+		verify(qrCodeRepository, never()).saveAll(any());
+	}
+
+	/**
+	 * Records the batch ids of each insert; the first one fails as if another
+	 * instance had created a code for batch 1 meanwhile.
+	 */
+	@SuppressWarnings("unchecked")
+	private void recordInserts(boolean firstConflicts) {
+		when(qrCodeRepository.saveAll(any())).thenAnswer(invocation -> {
+			List<Long> batchIds = new ArrayList<>();
+			invocation.getArgument(0, Iterable.class)
+					.forEach(qrCode -> batchIds.add(((QRCode) qrCode).getBatch().getId()));
+			inserts.add(batchIds);
+			if (firstConflicts && inserts.size() == 1) {
+				throw new DataIntegrityViolationException("uk_qr_codes_batch_active_date");
+			}
+			return invocation.getArgument(0);
+		});
+	}
+}
@@ -0,0 +1,121 @@
+package com.nirmaan.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.nirmaan.dto.QRRetentionReport;
+import com.nirmaan.entity.Batch;
+import com.nirmaan.entity.QRCode;
+import com.nirmaan.repository.QRCodeRepository;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class QRCodeRetentionServiceTests {
+
+	private static final LocalDate TODAY = LocalDate.now();
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private QRCodeRepository qrCodeRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private QRCodeRetentionService service;
+	private final List<Long> current = new ArrayList<>();
+	private final List<Long> expired = new ArrayList<>();
+	private final List<Long> old = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		service = new QRCodeRetentionService(qrCodeRepository, new TransactionTemplate(transactionManager));
+		ReflectionTestUtils.setField(service, "archiveAfterDays", 30);
+		ReflectionTestUtils.setField(service, "chunkSize", 2);
+		ReflectionTestUtils.setField(service, "pauseMs", 0L);
+
+		Batch first = batch("Java Full Stack - Jan");
+		Batch second = batch("Java Full Stack - Feb");
+		LocalDateTime later = LocalDateTime.now().plusHours(1);
+		current.add(code(first, TODAY, true, later));
+		current.add(code(second, TODAY, true, later));
+		for (int day = 1; day <= 3; day++) {
+			expired.add(code(first, TODAY.minusDays(day), true, TODAY.minusDays(day).atTime(18, 0)));
+		}
+		for (int day = 40; day <= 42; day++) {
+			old.add(code(second, TODAY.minusDays(day), false, TODAY.minusDays(day).atTime(18, 0)));
+		}
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void deactivatesExpiredCodesAndArchivesOldOnesChunkByChunk() {
+		QRRetentionReport report = service.runRetention();
+		entityManager.clear();
+
+		assertThat(report.getDeactivated()).isEqualTo(3);
+		assertThat(report.getArchived()).isEqualTo(3);
+		// 2 + 1 codes deactivated, then 2 + 1 archived
+		assertThat(report.getChunks()).isEqualTo(4);
+		assertThat(report.getArchivedBefore()).isEqualTo(TODAY.minusDays(30));
+
+		assertThat(qrCodeRepository.findAll()).extracting(QRCode::getId)
+				.containsExactlyInAnyOrderElementsOf(concat(current, expired));
+		assertThat(qrCodeRepository.findAllById(current)).allMatch(QRCode::isActive)
+				.allMatch(code -> TODAY.equals(code.getActiveDate()));
+		assertThat(qrCodeRepository.findAllById(expired)).noneMatch(QRCode::isActive)
+				.allMatch(code -> code.getActiveDate() == null);
+		assertThat(entityManager.getEntityManager().createQuery("SELECT a.id FROM QRCodeArchive a", Long.class)
+				.getResultList()).containsExactlyInAnyOrderElementsOf(old);
+	}
+
+	@Test
+	void findsNothingLeftOnASecondRun() {
+		service.runRetention();
+
+		QRRetentionReport again = service.runRetention();
+
+		assertThat(again.getDeactivated()).isZero();
+		assertThat(again.getArchived()).isZero();
+		assertThat(again.getChunks()).isZero();
+	}
+
+	private Batch batch(String name) {
+		Batch batch = new Batch();
+		batch.setBatchName(name);
+		return entityManager.persist(batch);
+	}
+
+	private Long code(Batch batch, LocalDate validDate, boolean active, LocalDateTime expiresAt) {
+		QRCode qrCode = new QRCode();
+		qrCode.setQrCodeId(batch.getBatchName() + "-" + validDate);
+		qrCode.setQrCodeData(qrCode.getQrCodeId());
+		qrCode.setBatch(batch);
+		qrCode.setValidDate(validDate);
+		qrCode.setActiveDate(active ? validDate : null);
+		qrCode.setGeneratedAt(validDate.atTime(8, 0));
+		qrCode.setExpiresAt(expiresAt);
+		qrCode.setActive(active);
+		return entityManager.persist(qrCode).getId();
+	}
+
+	private static List<Long> concat(List<Long> first, List<Long> second) {
+		List<Long> all = new ArrayList<>(first);
+		all.addAll(second);
+		return all;
+	}
+}
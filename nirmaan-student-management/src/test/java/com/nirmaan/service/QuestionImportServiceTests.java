@@ -0,0 +1,112 @@
+package com.nirmaan.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.nirmaan.cache.QuizSnapshotCache;
+import com.nirmaan.dto.QuestionImportReport;
+import com.nirmaan.entity.Quiz;
+import com.nirmaan.enums.QuestionBankFormat;
+import com.nirmaan.exception.ValidationException;
+import com.nirmaan.repository.QuestionRepository;
+import com.nirmaan.repository.QuizRepository;
+
+@DataJpaTest(properties = { "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"app.quiz.import.batch-size=2", "app.quiz.import.max-questions=3" })
+@Import(QuestionImportService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class QuestionImportServiceTests {
+
+	private static final String HEADER = "questionText,optionA,optionB,correctAnswer,marks\n";
+	private static final String ROW = "What is 2 + 2?,4,5,A,1\n";
+	private static final String JSON_ROW = "{\"questionText\":\"What is 2 + 2?\",\"optionA\":\"4\",\"optionB\":\"5\","
+			+ "\"correctAnswer\":\"a\"}";
+
+	@Autowired
+	private QuestionImportService questionImportService;
+
+	@Autowired
+	private QuizRepository quizRepository;
+
+	@Autowired
+	private QuestionRepository questionRepository;
+
+	@MockBean
+	private QuizSnapshotCache quizSnapshotCache;
+
+	private Quiz quiz;
+
+	@BeforeEach
+	void setUp() {
+		quiz = new Quiz();
+		quiz.setTitle("Arithmetic");
+		quiz = quizRepository.save(quiz);
+	}
+
+	@Test
+	void importsValidRowsAndReportsTheRest() {
+		QuestionImportReport report = importCsv(HEADER + ROW + "\n" + "No answer,4,5,E,1\n" + ROW + "Bad marks,4,5,A,x\n");
+
+		assertThat(report.getImported()).isEqualTo(2);
+		assertThat(report.getRejected()).isEqualTo(2);
+		assertThat(report.getErrors()).extracting(QuestionImportReport.RowError::getRow).containsExactly(4L, 6L);
+		assertThat(questionRepository.findByQuizOrderByIdAsc(quiz)).hasSize(2);
+		verify(quizSnapshotCache).invalidate(quiz.getId());
+	}
+
+	@Test
+	void rollsBackWrittenBatchesWhenCsvIsMalformed() {
+		assertThatThrownBy(() -> importCsv(HEADER + ROW + ROW + ROW + "\"Unterminated,4,5,A,1\n"))
+				.isInstanceOf(ValidationException.class).hasMessageContaining("line 5");
+
+		assertThat(questionRepository.findByQuizOrderByIdAsc(quiz)).isEmpty();
+		verify(quizSnapshotCache).invalidate(quiz.getId());
+	}
+
+	@Test
+	void rollsBackWrittenBatchesWhenJsonIsMalformed() {
+		String json = "[" + JSON_ROW + "," + JSON_ROW + "," + JSON_ROW + ",{\"questionText\":]";
+
+		assertThatThrownBy(() -> importQuestions(json, QuestionBankFormat.JSON))
+				.isInstanceOf(ValidationException.class).hasMessageContaining("question 4");
+
+		assertThat(questionRepository.findByQuizOrderByIdAsc(quiz)).isEmpty();
+	}
+
+	@Test
+	void countsOnlyValidQuestionsTowardsTheLimit() {
+		String json = "[" + JSON_ROW + ",{\"questionText\":\"Skipped\"}," + JSON_ROW + "," + JSON_ROW + "]";
+
+		QuestionImportReport report = importQuestions(json, QuestionBankFormat.JSON);
+
+		assertThat(report.getImported()).isEqualTo(3);
+		assertThat(report.getRejected()).isEqualTo(1);
+		assertThatThrownBy(() -> importQuestions("[" + JSON_ROW + "," + JSON_ROW + "," + JSON_ROW + "," + JSON_ROW
+				+ "]", QuestionBankFormat.JSON)).isInstanceOf(ValidationException.class);
+	}
+
+	private QuestionImportReport importCsv(String csv) {
+		return importQuestions(csv, QuestionBankFormat.CSV);
+	}
+
+	private QuestionImportReport importQuestions(String content, QuestionBankFormat format) {
+		return questionImportService.importQuestions(quiz.getId(),
+				new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), format);
+	}
+}
@@ -0,0 +1,172 @@
+package com.nirmaan.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.nirmaan.cache.QuizAnswerCodec;
+import com.nirmaan.cache.QuizLayoutStore;
+import com.nirmaan.cache.QuizSnapshot;
+import com.nirmaan.cache.QuizSnapshotCache;
+import com.nirmaan.cache.QuizSubmittedIndex;
+import com.nirmaan.cache.QuizWindowIndex;
+import com.nirmaan.entity.Quiz;
+import com.nirmaan.entity.Student;
+import com.nirmaan.entity.User;
+import com.nirmaan.enums.Role;
+import com.nirmaan.repository.QuizQuestionLayoutRepository;
+import com.nirmaan.repository.StudentQuizAttemptRepository;
+import com.nirmaan.util.QuizSubmissionJournal;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({ QuizSubmissionService.class, QuizLayoutStore.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class QuizSubmissionServiceTests {
+
+	private static final LocalDateTime SUBMITTED = LocalDateTime.of(2024, 6, 3, 10, 0);
+
+	@Autowired
+	private QuizSubmissionService quizSubmissionService;
+
+	@Autowired
+	private StudentQuizAttemptRepository studentQuizAttemptRepository;
+
+	@Autowired
+	private QuizQuestionLayoutRepository quizQuestionLayoutRepository;
+
+	@Autowired
+	private QuizLayoutStore quizLayoutStore;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@MockBean
+	private QuizSubmissionJournal quizSubmissionJournal;
+
+	@MockBean
+	private QuizSnapshotCache quizSnapshotCache;
+
+	@MockBean
+	private QuizWindowIndex quizWindowIndex;
+
+	@MockBean
+	private QuizAnalyticsService quizAnalyticsService;
+
+	@MockBean
+	private QuizLeaderboardService quizLeaderboardService;
+
+	@MockBean
+	private QuizSubmittedIndex quizSubmittedIndex;
+
+	private Long quizId;
+	private Long firstStudentId;
+	private Long secondStudentId;
+	private byte[] answerCodes;
+
+	@BeforeEach
+	void setUp() {
+		studentQuizAttemptRepository.deleteAll();
+		transactionTemplate.executeWithoutResult(status -> {
+			Quiz quiz = new Quiz();
+			quiz.setTitle("Collections");
+			entityManager.persist(quiz);
+			quizId = quiz.getId();
+			firstStudentId = persistStudent().getId();
+			secondStudentId = persistStudent().getId();
+		});
+		QuizSnapshot snapshot = QuizSnapshot.of(quizId, List.of(new QuizSnapshot.Key(1L, "A", 1)));
+		when(quizSnapshotCache.forQuiz(anyLong())).thenReturn(snapshot);
+		answerCodes = QuizAnswerCodec.encode(snapshot, List.of("A"));
+	}
+
+	@Test
+	void rejectsOnlyTheEntryThatCannotBeSaved() {
+		long missingStudentId = secondStudentId + 1000;
+		Map<String, Object> before = quizSubmissionService.getStats();
+
+		quizSubmissionService.write(List.of(entry(1, firstStudentId), entry(2, missingStudentId),
+				entry(3, secondStudentId)));
+
+		assertThat(studentQuizAttemptRepository.count()).isEqualTo(2);
+		assertThat(increase(before, "scored")).isEqualTo(2);
+		assertThat(increase(before, "rejected")).isEqualTo(1);
+		verify(quizSubmissionJournal).checkpoint(3);
+	}
+
+	@Test
+	void reportsAnAttemptAlreadyInTheDatabaseAsDuplicate() {
+		Map<String, Object> before = quizSubmissionService.getStats();
+		quizSubmissionService.write(List.of(entry(1, firstStudentId)));
+
+		// The index no longer knows about the attempt, as after another node saved it
+		quizSubmissionService.write(List.of(entry(2, firstStudentId), entry(3, secondStudentId)));
+
+		assertThat(studentQuizAttemptRepository.count()).isEqualTo(2);
+		assertThat(increase(before, "scored")).isEqualTo(2);
+		assertThat(increase(before, "duplicates")).isEqualTo(1);
+		assertThat(increase(before, "rejected")).isZero();
+		verify(quizSubmissionJournal).checkpoint(3);
+	}
+
+	@Test
+	void storesTheLayoutAttemptsAreScoredAgainst() {
+		quizSubmissionService.write(List.of(entry(1, firstStudentId)));
+
+		assertThat(quizLayoutStore.decode(quizId, answerCodes)).contains(Map.of(1L, "A"));
+		// Read back from the table, as another node or a later start would
+		QuizLayoutStore restarted = new QuizLayoutStore(quizQuestionLayoutRepository, transactionManager);
+		assertThat(restarted.questionIds(quizId, QuizAnswerCodec.layoutHash(answerCodes)))
+				.hasValueSatisfying(questionIds -> assertThat(questionIds).containsExactly(1L));
+		assertThat(restarted.decode(quizId + 1, answerCodes)).isEmpty();
+	}
+
+	private long increase(Map<String, Object> before, String stat) {
+		return (Long) quizSubmissionService.getStats().get(stat) - (Long) before.get(stat);
+	}
+
+	private Student persistStudent() {
+		long n = System.nanoTime();
+		User user = new User();
+		user.setUsername("student" + n);
+		user.setEmail("student" + n + "@nirmaan.test");
+		user.setPassword("secret");
+		user.setFirstName("Student");
+		user.setLastName(String.valueOf(n));
+		user.setRole(Role.STUDENT);
+		entityManager.persist(user);
+
+		Student student = new Student();
+		student.setUser(user);
+		entityManager.persist(student);
+		return student;
+	}
+
+	private QuizSubmissionJournal.Entry entry(long sequence, Long studentId) {
+		return new QuizSubmissionJournal.Entry(sequence, "receipt-" + sequence, studentId, quizId, SUBMITTED,
+				answerCodes);
+	}
+}
@@ -0,0 +1,55 @@
+package com.nirmaan.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+import com.nirmaan.dto.AttendanceDto;
+import com.nirmaan.enums.AttendanceStatus;
+import com.nirmaan.exception.ValidationException;
+
+class AttendanceCursorTests {
+
+	@Test
+	void decodesWhatItEncodes() {
+		AttendanceCursor cursor = new AttendanceCursor(LocalDate.of(2024, 2, 29), 123_456_789_012L);
+
+		String token = cursor.encode();
+
+		assertThat(token).doesNotContain("=", "+", "/");
+		assertThat(AttendanceCursor.decode(token)).isEqualTo(cursor);
+		assertThat(AttendanceCursor.decode(AttendanceCursor.START.encode())).isEqualTo(AttendanceCursor.START);
+	}
+
+	@Test
+	void pointsAfterTheLastRowOfAPage() {
+		AttendanceDto row = new AttendanceDto(42L, 7L, "Student 0", "Java Full Stack - Jan", LocalDate.of(2024, 1, 3),
+				AttendanceStatus.PRESENT, null);
+
+		assertThat(AttendanceCursor.after(row)).isEqualTo(new AttendanceCursor(LocalDate.of(2024, 1, 3), 42L));
+	}
+
+	@Test
+	void startsFromTheTopWithoutACursor() {
+		assertThat(AttendanceCursor.decode(null)).isEqualTo(AttendanceCursor.START);
+		assertThat(AttendanceCursor.decode(" ")).isEqualTo(AttendanceCursor.START);
+	}
+
+	@Test
+	void rejectsAMalformedCursor() {
+		assertInvalid("not base64!");
+		for (String value : new String[] { "2024-01-03", "2024-13-01:5", "2024-01-03:x", "2024-01-03:", ":5" }) {
+			assertInvalid(Base64.getUrlEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8)));
+		}
+	}
+
+	private void assertInvalid(String token) {
+		assertThatThrownBy(() -> AttendanceCursor.decode(token)).as(token).isInstanceOf(ValidationException.class)
+				.hasMessage("Invalid cursor");
+	}
+}
@@ -0,0 +1,111 @@
+package com.nirmaan.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.nirmaan.enums.AttendanceStatus;
+
+class AttendanceSegmentTests {
+
+	private static final long BATCH_ID = 7L;
+	private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void readsBackEveryColumn() throws Exception {
+		List<AttendanceSegment.Row> rows = sampleRows();
+		AttendanceSegment segment = writeAndOpen(rows);
+
+		List<AttendanceSegment.Row> read = new ArrayList<>();
+		segment.forEachRow(read::add);
+
+		assertThat(segment.getBatchId()).isEqualTo(BATCH_ID);
+		assertThat(segment.getRowCount()).isEqualTo(rows.size());
+		assertThat(read).containsExactlyInAnyOrderElementsOf(rows);
+	}
+
+	@Test
+	void filtersByStudentAndDate() throws Exception {
+		List<AttendanceSegment.Row> rows = sampleRows();
+		AttendanceSegment segment = writeAndOpen(rows);
+		LocalDate day = START.plusDays(3);
+
+		List<AttendanceSegment.Row> byStudent = new ArrayList<>();
+		segment.forEachRowOfStudent(102L, byStudent::add);
+		List<AttendanceSegment.Row> byDate = new ArrayList<>();
+		segment.forEachRowOn(day, byDate::add);
+
+		assertThat(byStudent).hasSize(60).allMatch(row -> row.studentId() == 102L)
+				.isSortedAccordingTo(Comparator.comparing(AttendanceSegment.Row::attendanceDate));
+		assertThat(byDate).hasSize(5).allMatch(row -> row.attendanceDate().equals(day));
+		assertThat(segment.hasRow(104L, day)).isTrue();
+		assertThat(segment.hasRow(104L, START.minusDays(1))).isFalse();
+		assertThat(segment.hasRow(999L, day)).isFalse();
+		assertThat(segment.overlaps(START.plusDays(59), START.plusDays(90))).isTrue();
+		assertThat(segment.overlaps(START.plusDays(60), START.plusDays(90))).isFalse();
+	}
+
+	@Test
+	void storesAboutSixteenBytesPerRow() throws Exception {
+		List<AttendanceSegment.Row> rows = sampleRows();
+		AttendanceSegment segment = writeAndOpen(rows);
+
+		assertThat(Files.size(segment.getPath())).isLessThan(20L * rows.size());
+		try (Stream<Path> files = Files.list(directory)) {
+			assertThat(files).containsExactly(segment.getPath());
+		}
+	}
+
+	@Test
+	void keepsEveryRotatingCodeBeyondTwoByteIndexes() throws Exception {
+		List<AttendanceSegment.Row> rows = new ArrayList<>();
+		for (int i = 0; i < 80_000; i++) {
+			LocalDate date = START.plusDays(i / 1000);
+			rows.add(new AttendanceSegment.Row(i, 100 + i % 1000, BATCH_ID, date, AttendanceStatus.PRESENT,
+					date.atTime(9, 0), i % 10 == 0 ? null : "token-" + i));
+		}
+		AttendanceSegment segment = writeAndOpen(rows);
+
+		List<AttendanceSegment.Row> read = new ArrayList<>();
+		segment.forEachRow(read::add);
+
+		rows.sort(Comparator.comparingLong(AttendanceSegment.Row::studentId)
+				.thenComparing(AttendanceSegment.Row::attendanceDate));
+		assertThat(read).containsExactlyElementsOf(rows);
+	}
+
+	private AttendanceSegment writeAndOpen(List<AttendanceSegment.Row> rows) throws Exception {
+		Path file = directory.resolve("batch-" + BATCH_ID + ".att");
+		AttendanceSegment.write(file, BATCH_ID, rows);
+		return AttendanceSegment.open(file);
+	}
+
+	private List<AttendanceSegment.Row> sampleRows() {
+		AttendanceStatus[] statuses = AttendanceStatus.values();
+		List<AttendanceSegment.Row> rows = new ArrayList<>();
+		long id = 1000;
+		for (int day = 59; day >= 0; day--) {
+			LocalDate date = START.plusDays(day);
+			for (long studentId = 100; studentId < 105; studentId++) {
+				LocalDateTime markedAt = day % 7 == 0 ? null : date.atTime(9, (int) (studentId % 60), 15);
+				String qrCodeId = day % 2 == 0 ? null : "qr-" + date;
+				rows.add(new AttendanceSegment.Row(id++, studentId, BATCH_ID, date,
+						statuses[(int) (id % statuses.length)], markedAt, qrCodeId));
+			}
+		}
+		return rows;
+	}
+}
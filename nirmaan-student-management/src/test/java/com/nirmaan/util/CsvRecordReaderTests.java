@@ -0,0 +1,48 @@
+package com.nirmaan.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.Test;
+
+class CsvRecordReaderTests {
+
+	@Test
+	void readsQuotedFieldsAcrossLines() throws IOException {
+		CsvRecordReader reader = new CsvRecordReader(new StringReader(
+				"questionText,optionA\r\n\"Pick one, please\",\"Say \"\"hi\"\"\"\r\n\"Two\nlines\",B\n"));
+
+		assertThat(reader.next()).containsExactly("questionText", "optionA");
+		assertThat(reader.next()).containsExactly("Pick one, please", "Say \"hi\"");
+		assertThat(reader.getRecordLine()).isEqualTo(2);
+		assertThat(reader.next()).containsExactly("Two\nlines", "B");
+		assertThat(reader.getRecordLine()).isEqualTo(3);
+		assertThat(reader.next()).isNull();
+	}
+
+	@Test
+	void readsALastRecordWithoutLineBreak() throws IOException {
+		CsvRecordReader reader = new CsvRecordReader(new StringReader("a,,c"));
+
+		assertThat(reader.next()).containsExactly("a", "", "c");
+		assertThat(reader.next()).isNull();
+	}
+
+	@Test
+	void rejectsAnUnterminatedQuote() {
+		CsvRecordReader reader = new CsvRecordReader(new StringReader("\"open,b\n"));
+
+		assertThatThrownBy(reader::next).isInstanceOf(IOException.class).hasMessageContaining("line 1");
+	}
+
+	@Test
+	void rejectsAFieldLongerThanTheLimit() throws IOException {
+		CsvRecordReader reader = new CsvRecordReader(new StringReader("abc,de\n\"abcdef"), 3);
+
+		assertThat(reader.next()).containsExactly("abc", "de");
+		assertThatThrownBy(reader::next).isInstanceOf(IOException.class).hasMessageContaining("line 2");
+	}
+}
@@ -0,0 +1,135 @@
+package com.nirmaan.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.MultiFormatReader;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+
+class QRCodeGeneratorTests {
+
+	private static final String DATA = "AQEAAAAAAAAAKmrS525q03QO0unEFhjuWPzjfUTQHiWGC_Am";
+	private static final int WARMUP = 200;
+	private static final int ITERATIONS = 500;
+
+	private final QRCodeGenerator generator = new QRCodeGenerator();
+
+	@Test
+	void pngDecodesBackToTheData() throws Exception {
+		for (int size : new int[] { 120, QRCodeGenerator.DEFAULT_SIZE, 1000 }) {
+			byte[] png = generator.generateQRCodePng(DATA, size);
+			BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+
+			assertThat(image.getWidth()).isEqualTo(size);
+			assertThat(image.getHeight()).isEqualTo(size);
+			assertThat(decode(image)).isEqualTo(DATA);
+		}
+	}
+
+	@Test
+	void matchesZxingModulePlacement() throws Exception {
+		BufferedImage image = ImageIO.read(new ByteArrayInputStream(generator.generateQRCodePng(DATA)));
+		BitMatrix expected = legacyMatrix(DATA);
+
+		for (int y = 0; y < image.getHeight(); y++) {
+			for (int x = 0; x < image.getWidth(); x++) {
+				boolean dark = (image.getRGB(x, y) & 0xFFFFFF) == 0;
+				assertThat(dark).as("pixel %d,%d", x, y).isEqualTo(expected.get(x, y));
+			}
+		}
+	}
+
+	@Test
+	void svgHasOnePathInModuleUnits() throws Exception {
+		String svg = generator.generateQRCodeSvg(DATA);
+
+		assertThat(svg).startsWith("<svg").endsWith("</svg>").contains("viewBox=\"0 0 41 41\"");
+		assertThat(svg.split("<path").length).isEqualTo(2);
+	}
+
+	/**
+	 * Not a JMH run; gives a rough per-image comparison against the previous
+	 * BufferedImage/setRGB/ImageIO path and prints it with the test output.
+	 * Timing depends on the machine, so it only runs when asked for with
+	 * {@code -Dbenchmarks=true}.
+	 */
+	@Test
+	@Tag("benchmark")
+	@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+	void benchmarkAgainstImageIoRenderer() throws Exception {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+
+		for (int i = 0; i < WARMUP; i++) {
+			legacyPng(DATA);
+			generator.generateQRCodePng(DATA);
+		}
+
+		long legacyAllocated = threads.getThreadAllocatedBytes(threadId);
+		long legacyCpu = threads.getCurrentThreadCpuTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			legacyPng(DATA);
+		}
+		legacyCpu = threads.getCurrentThreadCpuTime() - legacyCpu;
+		legacyAllocated = threads.getThreadAllocatedBytes(threadId) - legacyAllocated;
+
+		long allocated = threads.getThreadAllocatedBytes(threadId);
+		long cpu = threads.getCurrentThreadCpuTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			generator.generateQRCodePng(DATA);
+		}
+		cpu = threads.getCurrentThreadCpuTime() - cpu;
+		allocated = threads.getThreadAllocatedBytes(threadId) - allocated;
+
+		System.out.printf("QR %dpx PNG per image: ImageIO %d us / %d KB, packed %d us / %d KB%n",
+				QRCodeGenerator.DEFAULT_SIZE, legacyCpu / ITERATIONS / 1000, legacyAllocated / ITERATIONS / 1024,
+				cpu / ITERATIONS / 1000, allocated / ITERATIONS / 1024);
+
+		assertThat(allocated).isLessThan(legacyAllocated);
+	}
+
+	private String decode(BufferedImage image) throws Exception {
+		BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(new BufferedImageLuminanceSource(image)));
+		return new MultiFormatReader().decode(bitmap).getText();
+	}
+
+	private BitMatrix legacyMatrix(String data) throws Exception {
+		Map<EncodeHintType, Object> hints = new HashMap<>();
+		hints.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.M);
+		return new QRCodeWriter().encode(data, BarcodeFormat.QR_CODE, QRCodeGenerator.DEFAULT_SIZE,
+				QRCodeGenerator.DEFAULT_SIZE, hints);
+	}
+
+	private byte[] legacyPng(String data) throws Exception {
+		BitMatrix bitMatrix = legacyMatrix(data);
+		BufferedImage image = new BufferedImage(300, 300, BufferedImage.TYPE_INT_RGB);
+		for (int x = 0; x < 300; x++) {
+			for (int y = 0; y < 300; y++) {
+				image.setRGB(x, y, bitMatrix.get(x, y) ? 0x000000 : 0xFFFFFF);
+			}
+		}
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		ImageIO.write(image, "PNG", outputStream);
+		return outputStream.toByteArray();
+	}
+}
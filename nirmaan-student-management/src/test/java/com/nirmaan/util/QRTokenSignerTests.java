@@ -0,0 +1,96 @@
+package com.nirmaan.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.UUID;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class QRTokenSignerTests {
+
+	private static final LocalDateTime FROM = LocalDateTime.of(2024, 6, 3, 9, 0);
+	private static final LocalDateTime UNTIL = FROM.plusMinutes(10);
+
+	@Test
+	void verifiesWhatItSigns() {
+		QRTokenSigner signer = signer("1:first-secret", 1);
+
+		String value = signer.sign(42L, FROM, UNTIL);
+		QRTokenSigner.Token token = signer.verify(value).orElseThrow();
+
+		assertThat(value).hasSize(48);
+		assertThat(signer.isTokenFormat(value)).isTrue();
+		assertThat(token).isEqualTo(new QRTokenSigner.Token(42L, FROM, UNTIL));
+		assertThat(token.isValidAt(FROM)).isTrue();
+		assertThat(token.isValidAt(UNTIL)).isFalse();
+		assertThat(signer.sign(42L, FROM, UNTIL)).as("fresh nonce per code").isNotEqualTo(value);
+	}
+
+	@Test
+	void signsThePayloadWithTruncatedHmacSha256() throws Exception {
+		byte[] token = Base64.getUrlDecoder().decode(signer("7:first-secret", 7).sign(42L, FROM, UNTIL));
+
+		Mac mac = Mac.getInstance("HmacSHA256");
+		mac.init(new SecretKeySpec("first-secret".getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+		mac.update(token, 0, 24);
+
+		assertThat(token[0]).isEqualTo((byte) 1);
+		assertThat(token[1]).isEqualTo((byte) 7);
+		assertThat(Arrays.copyOfRange(token, 24, 36)).isEqualTo(Arrays.copyOf(mac.doFinal(), 12));
+	}
+
+	@Test
+	void keepsVerifyingRetiringKeysUntilTheyAreRemoved() {
+		String oldCode = signer("1:first-secret", 1).sign(42L, FROM, UNTIL);
+		QRTokenSigner rotating = signer("1:first-secret,2:second-secret", 2);
+		String newCode = rotating.sign(42L, FROM, UNTIL);
+		QRTokenSigner rotated = signer("2:second-secret", 2);
+
+		assertThat(rotating.verify(oldCode)).isPresent();
+		assertThat(Base64.getUrlDecoder().decode(newCode)[1]).isEqualTo((byte) 2);
+		assertThat(rotated.verify(newCode)).isPresent();
+		assertThat(rotated.verify(oldCode)).isEmpty();
+	}
+
+	@Test
+	void rejectsTamperedAndForeignCodes() {
+		QRTokenSigner signer = signer("1:first-secret", 1);
+		byte[] token = Base64.getUrlDecoder().decode(signer.sign(42L, FROM, UNTIL));
+
+		for (int i = 0; i < token.length; i++) {
+			byte[] tampered = token.clone();
+			tampered[i] ^= 0x01;
+			assertThat(signer.verify(Base64.getUrlEncoder().withoutPadding().encodeToString(tampered)))
+					.as("byte %d flipped", i).isEmpty();
+		}
+		assertThat(signer.verify(signer("1:other-secret", 1).sign(42L, FROM, UNTIL))).isEmpty();
+		assertThat(signer.verify(null)).isEmpty();
+		assertThat(signer.verify(UUID.randomUUID().toString())).isEmpty();
+		assertThat(signer.verify("!".repeat(48))).isEmpty();
+	}
+
+	@Test
+	void refusesAnIncompleteKeyConfiguration() {
+		assertThatThrownBy(() -> signer("1:first-secret", 2)).isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("Active QR signing key 2");
+		assertThatThrownBy(() -> signer("first-secret", 1)).isInstanceOf(IllegalStateException.class);
+		assertThatThrownBy(() -> signer("300:first-secret", 1)).isInstanceOf(IllegalStateException.class);
+	}
+
+	private static QRTokenSigner signer(String keys, int activeKeyId) {
+		QRTokenSigner signer = new QRTokenSigner();
+		ReflectionTestUtils.setField(signer, "configuredKeys", keys);
+		ReflectionTestUtils.setField(signer, "activeKeyId", activeKeyId);
+		signer.loadKeys();
+		return signer;
+	}
+}
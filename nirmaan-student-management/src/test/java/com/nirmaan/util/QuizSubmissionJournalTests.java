@@ -0,0 +1,71 @@
+package com.nirmaan.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class QuizSubmissionJournalTests {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 3, 12, 0, 15);
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void recoversEntriesAfterTheCheckpoint() throws Exception {
+		byte[] codes = { 1, 0, 0, 0, 42, (byte) 0xF1, 0x20 };
+
+		QuizSubmissionJournal journal = open();
+		journal.append("r1", 1L, 5L, NOW, codes);
+		journal.append("r2", 2L, 5L, NOW, codes);
+		journal.append("r3", 3L, 5L, NOW, new byte[0]);
+		journal.checkpoint(1);
+		journal.close();
+
+		journal = open();
+		List<QuizSubmissionJournal.Entry> pending = journal.recover();
+		journal.close();
+
+		assertThat(pending).extracting(QuizSubmissionJournal.Entry::receiptId).containsExactly("r2", "r3");
+		assertThat(pending.get(0).studentId()).isEqualTo(2L);
+		assertThat(pending.get(0).submittedAt()).isEqualTo(NOW);
+		assertThat(pending.get(0).answerCodes()).containsExactly(codes);
+		assertThat(pending.get(1).answerCodes()).isEmpty();
+	}
+
+	@Test
+	void dropsTornTailAndTruncatesOnceCaughtUp() throws Exception {
+		QuizSubmissionJournal journal = open();
+		journal.append("r1", 1L, 5L, NOW, new byte[] { 1 });
+		journal.close();
+		Files.writeString(journalFile(), "2,r2,2,5", StandardOpenOption.APPEND);
+
+		journal = open();
+		assertThat(journal.recover()).extracting(QuizSubmissionJournal.Entry::receiptId).containsExactly("r1");
+		QuizSubmissionJournal.Entry next = journal.append("r3", 3L, 5L, NOW, new byte[] { 1 });
+		assertThat(next.sequence()).isEqualTo(2);
+
+		journal.checkpoint(next.sequence());
+		assertThat(Files.size(journalFile())).isZero();
+		journal.close();
+	}
+
+	private QuizSubmissionJournal open() throws Exception {
+		QuizSubmissionJournal journal = new QuizSubmissionJournal();
+		ReflectionTestUtils.setField(journal, "journalPath", journalFile().toString());
+		journal.open();
+		return journal;
+	}
+
+	private Path journalFile() {
+		return directory.resolve("quiz-submissions.log");
+	}
+}